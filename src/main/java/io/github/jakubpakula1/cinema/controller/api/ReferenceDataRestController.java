@@ -0,0 +1,23 @@
+package io.github.jakubpakula1.cinema.controller.api;
+
+import io.github.jakubpakula1.cinema.service.ReferenceDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/reference-data")
+@RequiredArgsConstructor
+public class ReferenceDataRestController {
+    private final ReferenceDataService referenceDataService;
+
+    // Rooms, seats and ticket types are maintained directly in the database, call this after changing them
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Long>> refresh() {
+        return ResponseEntity.ok(Map.of("version", referenceDataService.refresh()));
+    }
+}
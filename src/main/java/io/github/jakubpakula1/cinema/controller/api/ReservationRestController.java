@@ -1,18 +1,21 @@
 package io.github.jakubpakula1.cinema.controller.api;
 
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationResponseDTO;
 import io.github.jakubpakula1.cinema.dto.reservation.ReservationRequestDTO;
 import io.github.jakubpakula1.cinema.dto.reservation.ReservationResponseDTO;
 import io.github.jakubpakula1.cinema.model.TemporaryReservation;
 import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.service.ReservationService;
 import io.github.jakubpakula1.cinema.service.UserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-
 @RestController
 @RequestMapping("/api/v1/reservations")
 @RequiredArgsConstructor
@@ -21,11 +24,11 @@ public class ReservationRestController {
     private final ReservationService reservationService;
 
     @PostMapping("/lock")
-    public ResponseEntity<ReservationResponseDTO> createReservation(@RequestBody ReservationRequestDTO request, Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<ReservationResponseDTO> createReservation(@RequestBody ReservationRequestDTO request, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userService.getUserByEmail(principal.getName());
+        User user = userService.getReferenceById(userDetails.getId());
 
         TemporaryReservation tempRes = reservationService.createTemporaryReservation(request, user);
 
@@ -39,12 +42,27 @@ public class ReservationRestController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/lock/batch")
+    public ResponseEntity<BatchReservationResponseDTO> createReservations(@Valid @RequestBody BatchReservationRequestDTO request, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        User user = userService.getReferenceById(userDetails.getId());
+
+        BatchReservationResponseDTO response = reservationService.createTemporaryReservations(request, user);
+
+        if (!response.isLocked()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/lock")
-    public ResponseEntity<?> cancelReservation(@RequestBody ReservationRequestDTO request, Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<?> cancelReservation(@RequestBody ReservationRequestDTO request, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userService.getUserByEmail(principal.getName());
+        User user = userService.getReferenceById(userDetails.getId());
 
         reservationService.deleteTemporaryReservation(request, user);
 
@@ -1,23 +1,48 @@
 package io.github.jakubpakula1.cinema.controller.api;
 
+import io.github.jakubpakula1.cinema.dto.ApiErrorDTO;
 import io.github.jakubpakula1.cinema.dto.screening.CollisionDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanRequestDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportResultDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningRecurrenceDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.exception.ScreeningOverlapException;
+import io.github.jakubpakula1.cinema.service.ScheduleOptimizerService;
+import io.github.jakubpakula1.cinema.service.ScreeningImportService;
 import io.github.jakubpakula1.cinema.service.ScreeningService;
+import io.github.jakubpakula1.cinema.service.SeatStateService;
+import io.github.jakubpakula1.cinema.service.SeatStreamService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/screenings")
 @RequiredArgsConstructor
 public class ScreeningRestController {
     private final ScreeningService screeningService;
+    private final SeatStateService seatStateService;
+    private final SeatStreamService seatStreamService;
+    private final ScreeningImportService screeningImportService;
+    private final ScheduleOptimizerService scheduleOptimizerService;
 
     @GetMapping("/collisions")
     public ResponseEntity<List<CollisionDTO>> checkAvailability(
@@ -42,4 +67,67 @@ public class ScreeningRestController {
 
         return ResponseEntity.ok(collisions);
     }
+
+    // /api/v1/screenings/1/seats?since=42 - only seats changed after version 42
+    @GetMapping("/{screeningId}/seats")
+    public ResponseEntity<SeatMapDeltaDTO> getSeatMapChanges(
+            @PathVariable Long screeningId,
+            @RequestParam(required = false) Long since
+    ) {
+        return ResponseEntity.ok(seatStateService.getChangesSince(screeningId, since));
+    }
+
+    // Live "seats" events with the same payload as /seats, starting with the changes since the given version.
+    // Event ids are versions, so a reconnecting EventSource resumes from its Last-Event-ID.
+    @GetMapping(value = "/{screeningId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(
+            @PathVariable Long screeningId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return seatStreamService.subscribe(screeningId, lastEventId != null ? lastEventId : since);
+    }
+
+    // Bulk scheduling for admins. Every endpoint answers with a status per row; with dryRun=true
+    // nothing is written, so the same call can preview a plan before committing it.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importScreenings(
+            @RequestBody List<ScreeningDTO> screenings,
+            @RequestParam(defaultValue = "false") boolean dryRun
+    ) {
+        return importResult(() -> screeningImportService.importScreenings(screenings, dryRun));
+    }
+
+    // text/csv body with one movieId,roomId,screeningTime line per screening
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> importScreeningsCsv(
+            @RequestBody String csv,
+            @RequestParam(defaultValue = "false") boolean dryRun
+    ) {
+        return importResult(() -> screeningImportService.importCsv(csv, dryRun));
+    }
+
+    @PostMapping("/bulk/recurrence")
+    public ResponseEntity<?> importRecurrence(
+            @Valid @RequestBody ScreeningRecurrenceDTO recurrence,
+            @RequestParam(defaultValue = "false") boolean dryRun
+    ) {
+        return importResult(() -> screeningImportService.importRecurrence(recurrence, dryRun));
+    }
+
+    // Proposes a conflict-free week for the requested showings; post its screenings to /bulk to commit it
+    @PostMapping("/plan")
+    public ResponseEntity<SchedulePlanDTO> planWeek(@Valid @RequestBody SchedulePlanRequestDTO request) {
+        return ResponseEntity.ok(scheduleOptimizerService.plan(request));
+    }
+
+    private ResponseEntity<?> importResult(Supplier<ScreeningImportResultDTO> importer) {
+        try {
+            return ResponseEntity.ok(importer.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiErrorDTO(e.getMessage()));
+        } catch (ScreeningOverlapException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiErrorDTO(e.getMessage()));
+        }
+    }
 }
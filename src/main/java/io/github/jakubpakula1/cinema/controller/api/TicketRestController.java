@@ -1,14 +1,20 @@
 package io.github.jakubpakula1.cinema.controller.api;
 
+import io.github.jakubpakula1.cinema.dto.ticket.TicketValidationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.ticket.TicketValidationResponseDTO;
 import io.github.jakubpakula1.cinema.model.Ticket;
 import io.github.jakubpakula1.cinema.service.PdfService;
 import io.github.jakubpakula1.cinema.service.TicketService;
+import io.github.jakubpakula1.cinema.service.TicketValidationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,6 +28,7 @@ import java.util.List;
 public class TicketRestController {
     private final PdfService pdfService;
     private final TicketService ticketService;
+    private final TicketValidationService ticketValidationService;
 
     @GetMapping("/{orderId}/pdf")
     public ResponseEntity<byte[]> downloadTicketsPdf(@PathVariable Long orderId, Principal principal) throws AccessDeniedException {
@@ -34,4 +41,9 @@ public class TicketRestController {
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets_order_" + orderId + ".pdf\"")
                 .body(pdfBytes);
     }
+
+    @PostMapping("/validate")
+    public ResponseEntity<TicketValidationResponseDTO> validateTicket(@Valid @RequestBody TicketValidationRequestDTO request) {
+        return ResponseEntity.ok(ticketValidationService.validate(request.getToken(), request.getScreeningId()));
+    }
 }
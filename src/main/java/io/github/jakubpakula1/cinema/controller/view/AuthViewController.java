@@ -2,16 +2,16 @@ package io.github.jakubpakula1.cinema.controller.view;
 
 import io.github.jakubpakula1.cinema.dto.UserDTO;
 import io.github.jakubpakula1.cinema.model.Order;
-import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.service.BookingService;
 import io.github.jakubpakula1.cinema.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 
-import java.security.Principal;
 import java.util.List;
 
 @Controller
@@ -36,12 +36,10 @@ public class AuthViewController {
         return "redirect:/login";
     }
     @GetMapping("/profile")
-    public String userProfile(Model model, Principal principal) {
-        User user = userService.getUserByEmail(principal.getName());
+    public String userProfile(Model model, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        List<Order> orders = bookingService.getAllOrdersForUser(userDetails.getId());
 
-        List<Order> orders = bookingService.getAllOrdersForUser(user.getId());
-
-        model.addAttribute("user", user);
+        model.addAttribute("email", userDetails.getEmail());
         model.addAttribute("orders", orders);
 
         return "profile";
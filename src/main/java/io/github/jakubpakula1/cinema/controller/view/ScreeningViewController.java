@@ -7,11 +7,14 @@ import io.github.jakubpakula1.cinema.exception.ReservationExpiredException;
 import io.github.jakubpakula1.cinema.model.Order;
 import io.github.jakubpakula1.cinema.model.Screening;
 import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.service.BookingService;
 import io.github.jakubpakula1.cinema.service.ReservationService;
 import io.github.jakubpakula1.cinema.service.ScreeningService;
+import io.github.jakubpakula1.cinema.service.SeatStateService;
 import io.github.jakubpakula1.cinema.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -28,13 +31,17 @@ public class ScreeningViewController {
     private final ReservationService reservationService;
     private final BookingService bookingService;
     private final UserService userService;
+    private final SeatStateService seatStateService;
 
 
     @GetMapping("/booking/{screeningId}")
     public String showRoom(@PathVariable Long screeningId, Model model) {
         Screening screening = screeningService.getScreeningEntityById(screeningId);
 
+        // Version is taken before the seats are read, so the first poll re-sends anything that changed in between
+        model.addAttribute("seatMapVersion", seatStateService.getVersion(screeningId));
         model.addAttribute("seats", screeningService.getSeatsWithStatus(screeningId));
+        model.addAttribute("seatOccupancy", seatStateService.getOccupancy(screeningId));
         model.addAttribute("movie", screening.getMovie());
         model.addAttribute("screeningTime", screening.getStartTime());
         model.addAttribute("screeningId", screeningId);
@@ -43,9 +50,9 @@ public class ScreeningViewController {
     }
 
     @GetMapping("booking/summary")
-    public String summary(Model model, Principal principal) {
+    public String summary(Model model, @AuthenticationPrincipal CustomUserDetails userDetails) {
         try {
-            BookingSummaryDTO summary = reservationService.prepareSummary(principal.getName());
+            BookingSummaryDTO summary = reservationService.prepareSummary(userDetails.getId(), userDetails.getEmail());
 
             model.addAttribute("summary", summary);
 
@@ -57,9 +64,9 @@ public class ScreeningViewController {
     }
 
     @PostMapping("booking/process")
-    public String processBooking(@ModelAttribute BookingRequestDTO form, Principal principal, RedirectAttributes redirectAttributes) {
+    public String processBooking(@ModelAttribute BookingRequestDTO form, @AuthenticationPrincipal CustomUserDetails userDetails, RedirectAttributes redirectAttributes) {
         try {
-            User user = userService.getUserByEmail(principal.getName());
+            User user = userService.getReferenceById(userDetails.getId());
 
             Long orderId = bookingService.finalizeOrder(form, user);
 
@@ -2,6 +2,7 @@ package io.github.jakubpakula1.cinema.controller.view.admin;
 
 import io.github.jakubpakula1.cinema.dao.SalesStatsDAO;
 import io.github.jakubpakula1.cinema.dto.raport.DailySalesStatsDTO;
+import io.github.jakubpakula1.cinema.service.EmailDispatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,6 +18,7 @@ import java.util.List;
 public class ReportController {
 
     private final SalesStatsDAO salesStatsDAO;
+    private final EmailDispatchService emailDispatchService;
 
     @GetMapping("/sales")
     public String showSalesReport(Model model, Principal principal) {
@@ -25,4 +27,10 @@ public class ReportController {
         model.addAttribute("stats", statsDTOS);
         return "report/sales-report";
     }
+
+    @GetMapping("/mail-queue")
+    public String showMailQueue(Model model) {
+        model.addAttribute("queue", emailDispatchService.getQueueStats());
+        return "report/mail-queue";
+    }
 }
@@ -0,0 +1,23 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// The database behind the DAOs, read once from the connection metadata. PostgreSQL gets the
+// native statements, anything else (H2 in tests) the portable ones.
+@Component
+@RequiredArgsConstructor
+public class DatabaseDialect {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
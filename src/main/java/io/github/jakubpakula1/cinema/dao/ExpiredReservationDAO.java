@@ -0,0 +1,62 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Deletes expired temporary reservations with one bounded statement per call, so every
+// chunk commits on its own and no transaction holds the table for long. The statement
+// returns the deleted rows, because their seats still have to be released in memory.
+// PostgreSQL uses DELETE ... RETURNING and skips rows locked by a checkout or an extension;
+// other databases (H2 in tests) read the deleted rows from the OLD TABLE delta instead.
+@Repository
+@RequiredArgsConstructor
+public class ExpiredReservationDAO {
+    private static final RowMapper<ExpiredReservation> ROW_MAPPER = (rs, rowNum) ->
+            new ExpiredReservation(rs.getLong("id"), rs.getLong("screening_id"), rs.getLong("seat_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    public List<ExpiredReservation> deleteExpired(LocalDateTime now, int limit) {
+        String sql = databaseDialect.isPostgres()
+                ? """
+                  DELETE FROM temporary_reservations WHERE id IN (
+                      SELECT id FROM temporary_reservations WHERE expires_at <= ?
+                      ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                  RETURNING id, screening_id, seat_id
+                  """
+                : """
+                  SELECT id, screening_id, seat_id FROM OLD TABLE (
+                      DELETE FROM temporary_reservations WHERE id IN (
+                          SELECT id FROM temporary_reservations WHERE expires_at <= ? ORDER BY id LIMIT ?))
+                  """;
+        return jdbcTemplate.query(sql, ROW_MAPPER, now, limit);
+    }
+
+    // Only the given reservations that are expired by now, extended ones are left alone
+    public List<ExpiredReservation> deleteExpired(Collection<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = databaseDialect.isPostgres()
+                ? "DELETE FROM temporary_reservations WHERE id IN (" + placeholders + ") AND expires_at <= ? "
+                        + "RETURNING id, screening_id, seat_id"
+                : "SELECT id, screening_id, seat_id FROM OLD TABLE ("
+                        + "DELETE FROM temporary_reservations WHERE id IN (" + placeholders + ") AND expires_at <= ?)";
+        List<Object> args = new ArrayList<>(ids);
+        args.add(now);
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    public record ExpiredReservation(Long id, Long screeningId, Long seatId) {
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ScreeningBatchDAO {
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts all screenings in one JDBC batch and returns their generated ids in input order
+    public List<Long> insertAll(List<NewScreening> screenings) {
+        String sql = "INSERT INTO screenings (movie_id, room_id, start_time, end_time) VALUES (?, ?, ?, ?)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewScreening screening = screenings.get(i);
+                        ps.setLong(1, screening.movieId());
+                        ps.setLong(2, screening.roomId());
+                        ps.setTimestamp(3, Timestamp.valueOf(screening.startTime()));
+                        ps.setTimestamp(4, Timestamp.valueOf(screening.endTime()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return screenings.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    public record NewScreening(Long movieId, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Lock-free seat claims: a single INSERT writes a temporary reservation per requested seat and
+// the unique (screening_id, seat_id) key decides between concurrent claims. A conflicting row is
+// skipped instead of failing the statement, so the transaction stays usable and the caller
+// learns which seats went in. Seats outside the screening's room and sold seats are skipped too.
+// H2 (tests) has no ON CONFLICT for INSERT ... SELECT, there the NOT EXISTS check alone decides.
+@Repository
+@RequiredArgsConstructor
+public class SeatClaimDAO {
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    // Returns the reservation id of every claimed seat, keyed by seat id
+    public Map<Long, Long> insertClaims(Long screeningId, Collection<Long> seatIds, Long userId, LocalDateTime expiresAt) {
+        Map<Long, Long> claimed = new LinkedHashMap<>();
+        if (seatIds.isEmpty()) {
+            return claimed;
+        }
+        String sql = """
+                INSERT INTO temporary_reservations (screening_id, seat_id, user_id, expires_at)
+                SELECT sc.id, s.id, ?, ?
+                FROM screenings sc JOIN seats s ON s.room_id = sc.room_id
+                WHERE sc.id = ? AND s.id IN (%s)
+                  AND NOT EXISTS (SELECT 1 FROM tickets t WHERE t.screening_id = sc.id AND t.seat_id = s.id)
+                  AND NOT EXISTS (SELECT 1 FROM temporary_reservations tr WHERE tr.screening_id = sc.id AND tr.seat_id = s.id)
+                %s""".formatted(String.join(", ", Collections.nCopies(seatIds.size(), "?")),
+                databaseDialect.isPostgres() ? "ON CONFLICT DO NOTHING" : "");
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id", "seat_id"});
+            ps.setLong(1, userId);
+            ps.setTimestamp(2, Timestamp.valueOf(expiresAt));
+            ps.setLong(3, screeningId);
+            int index = 4;
+            for (Long seatId : seatIds) {
+                ps.setLong(index++, seatId);
+            }
+            return ps;
+        }, keyHolder);
+
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            claimed.put(((Number) keys.get("seat_id")).longValue(), ((Number) keys.get("id")).longValue());
+        }
+        return claimed;
+    }
+
+    // Unconditional insert of one reservation per seat in a single statement, for callers that
+    // already arbitrated the claim. A seat reserved in the meantime fails the whole statement with
+    // a DuplicateKeyException. Returns the reservation ids keyed by seat id.
+    public Map<Long, Long> insertReservations(Long screeningId, Collection<Long> seatIds, Long userId, LocalDateTime expiresAt) {
+        Map<Long, Long> inserted = new LinkedHashMap<>();
+        if (seatIds.isEmpty()) {
+            return inserted;
+        }
+        String sql = "INSERT INTO temporary_reservations (screening_id, seat_id, user_id, expires_at) VALUES "
+                + String.join(", ", Collections.nCopies(seatIds.size(), "(?, ?, ?, ?)"));
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id", "seat_id"});
+            int index = 1;
+            for (Long seatId : seatIds) {
+                ps.setLong(index++, screeningId);
+                ps.setLong(index++, seatId);
+                ps.setLong(index++, userId);
+                ps.setTimestamp(index++, expires);
+            }
+            return ps;
+        }, keyHolder);
+
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            inserted.put(((Number) keys.get("seat_id")).longValue(), ((Number) keys.get("id")).longValue());
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.jakubpakula1.cinema.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiErrorDTO {
+    private String message;
+    // field -> message, only for requests that failed validation
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> fieldErrors;
+
+    public ApiErrorDTO(String message) {
+        this.message = message;
+    }
+}
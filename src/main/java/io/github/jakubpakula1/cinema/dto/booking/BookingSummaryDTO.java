@@ -4,7 +4,6 @@ import io.github.jakubpakula1.cinema.model.TicketType;
 import io.github.jakubpakula1.cinema.model.Movie;
 import io.github.jakubpakula1.cinema.model.Screening;
 import io.github.jakubpakula1.cinema.model.TemporaryReservation;
-import io.github.jakubpakula1.cinema.model.User;
 import lombok.Builder;
 import lombok.Data;
 
@@ -18,6 +17,6 @@ public class BookingSummaryDTO {
     private Screening screening;
     private Movie movie;
     private List<TicketType> ticketTypes;
-    private User user;
+    private String userEmail;
     private LocalDateTime expirationTime;
 }
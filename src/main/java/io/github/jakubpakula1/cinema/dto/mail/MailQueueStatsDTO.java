@@ -0,0 +1,34 @@
+package io.github.jakubpakula1.cinema.dto.mail;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailQueueStatsDTO {
+    private long pending;
+    private long sent;
+    private long dead;
+    private LocalDateTime oldestPendingAt; // Nullable, null when nothing is waiting
+    private List<DeadLetterDTO> recentDeadLetters;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeadLetterDTO {
+        private Long id;
+        private String recipient;
+        private String subject;
+        private int attempts;
+        private String lastError;
+        private LocalDateTime createdAt;
+    }
+}
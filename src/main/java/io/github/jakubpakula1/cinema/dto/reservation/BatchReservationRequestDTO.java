@@ -0,0 +1,22 @@
+package io.github.jakubpakula1.cinema.dto.reservation;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationRequestDTO {
+    @NotNull
+    private Long screeningId;
+
+    @NotEmpty
+    @Size(max = 50)
+    private List<@NotNull Long> seatIds;
+}
@@ -0,0 +1,20 @@
+package io.github.jakubpakula1.cinema.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResponseDTO {
+    private Long screeningId;
+    private boolean locked;
+    private LocalDateTime expiresAt; // Nullable, null if no seat was locked
+    private List<SeatLockResultDTO> seats;
+}
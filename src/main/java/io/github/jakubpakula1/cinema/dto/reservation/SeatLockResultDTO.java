@@ -0,0 +1,17 @@
+package io.github.jakubpakula1.cinema.dto.reservation;
+
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatLockResultDTO {
+    private Long seatId;
+    private SeatLockStatus status;
+    private Long reservationId; // Nullable, set only when the seat was locked
+}
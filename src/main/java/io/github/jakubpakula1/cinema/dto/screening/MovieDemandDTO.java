@@ -0,0 +1,25 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieDemandDTO {
+    @NotNull
+    private Long movieId;
+    @Min(1)
+    @Max(100)
+    private int showings; // Wanted showings over the week
+    private LocalTime preferredFrom; // Optional window for start times, both ends or neither
+    private LocalTime preferredTo;
+}
@@ -0,0 +1,21 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class SchedulePlanDTO {
+    private LocalDate weekStart;
+    private int requestedShowings;
+    private int plannedShowings;
+    private int primeTimeShowings;
+    private int preferredWindowShowings;
+    private long candidatePlans; // Plans built within the time budget, the best one is returned
+    private Map<Long, Integer> missingShowings; // Movie id -> showings that did not fit
+    private List<ScreeningDTO> screenings; // Ready to post to /api/v1/screenings/bulk
+}
@@ -0,0 +1,27 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulePlanRequestDTO {
+    @NotNull
+    private LocalDate weekStart;
+    private List<Long> roomIds; // Empty or missing means every room
+    @NotEmpty
+    @Size(max = 100)
+    @Valid
+    private List<MovieDemandDTO> movies;
+}
@@ -0,0 +1,15 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ScreeningImportResultDTO {
+    private boolean dryRun;
+    private int accepted;
+    private int rejected;
+    private List<ScreeningImportRowDTO> rows;
+}
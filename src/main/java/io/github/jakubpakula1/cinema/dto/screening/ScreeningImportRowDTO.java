@@ -0,0 +1,22 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import io.github.jakubpakula1.cinema.enums.ScreeningImportStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ScreeningImportRowDTO {
+    private int row; // 1-based position in the request, or the line number of a CSV upload
+    private Long movieId;
+    private Long roomId;
+    private LocalDateTime screeningTime;
+    private LocalDateTime endTime;
+    private ScreeningImportStatus status;
+    private Long screeningId;
+    private Long conflictingScreeningId; // An existing screening in the way
+    private Integer conflictingRow; // Or an earlier row of the same import
+    private String message;
+}
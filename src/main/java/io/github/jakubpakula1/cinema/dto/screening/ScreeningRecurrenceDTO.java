@@ -0,0 +1,32 @@
+package io.github.jakubpakula1.cinema.dto.screening;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScreeningRecurrenceDTO {
+    @NotNull
+    private Long movieId;
+    @NotNull
+    private Long roomId;
+    @NotNull
+    private LocalDate startDate;
+    @NotNull
+    private LocalDate endDate; // Inclusive
+    private Set<DayOfWeek> daysOfWeek; // Empty or missing means every day
+    @NotEmpty
+    private List<LocalTime> times;
+}
@@ -1,5 +1,6 @@
 package io.github.jakubpakula1.cinema.dto.screening;
 
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
 import lombok.Builder;
 import lombok.Data;
 
@@ -12,4 +13,6 @@ public class ScreeningTimeDTO {
     private LocalTime time;
     private boolean isAvailable;
     private String roomName;
+    private SeatAvailability availability; // Null when the room has no seats
+    private int freeSeats;
 }
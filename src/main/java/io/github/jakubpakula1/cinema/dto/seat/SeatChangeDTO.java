@@ -0,0 +1,16 @@
+package io.github.jakubpakula1.cinema.dto.seat;
+
+import io.github.jakubpakula1.cinema.enums.SeatState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatChangeDTO {
+    private Long seatId;
+    private SeatState state;
+}
@@ -0,0 +1,19 @@
+package io.github.jakubpakula1.cinema.dto.seat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDeltaDTO {
+    private Long screeningId;
+    private long version;
+    private boolean full; // true when the client version was too old and every seat is listed
+    private List<SeatChangeDTO> seats;
+}
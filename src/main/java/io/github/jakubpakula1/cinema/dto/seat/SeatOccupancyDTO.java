@@ -0,0 +1,14 @@
+package io.github.jakubpakula1.cinema.dto.seat;
+
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SeatOccupancyDTO {
+    private int capacity;
+    private int occupied; // Sold and locked seats
+    private int freeSeats;
+    private SeatAvailability availability;
+}
@@ -0,0 +1,18 @@
+package io.github.jakubpakula1.cinema.dto.ticket;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketValidationRequestDTO {
+    @NotBlank
+    @Size(max = 128)
+    private String token;
+
+    private Long screeningId; // Nullable, the screening the gate admits to
+}
@@ -0,0 +1,19 @@
+package io.github.jakubpakula1.cinema.dto.ticket;
+
+import io.github.jakubpakula1.cinema.enums.TicketValidationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketValidationResponseDTO {
+    private TicketValidationStatus status;
+    // Null for INVALID tokens
+    private Long ticketId;
+    private Long screeningId;
+    private Long seatId;
+}
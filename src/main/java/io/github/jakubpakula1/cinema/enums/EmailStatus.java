@@ -0,0 +1,8 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
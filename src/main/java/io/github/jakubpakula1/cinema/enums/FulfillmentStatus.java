@@ -0,0 +1,8 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum FulfillmentStatus {
+    PENDING,
+    IN_PROGRESS,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum SeatAvailability {
+    AVAILABLE,
+    FEW_SEATS_LEFT,
+    SOLD_OUT
+}
@@ -0,0 +1,7 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum SeatClaimMode {
+    BITMAP,
+    CONSTRAINT,
+    PESSIMISTIC
+}
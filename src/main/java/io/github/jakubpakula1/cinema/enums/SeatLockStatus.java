@@ -0,0 +1,8 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum SeatLockStatus {
+    LOCKED,
+    AVAILABLE,
+    TAKEN,
+    NOT_FOUND
+}
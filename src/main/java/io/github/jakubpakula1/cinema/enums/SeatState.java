@@ -0,0 +1,13 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum SeatState {
+    FREE,
+    LOCKED,
+    SOLD;
+
+    private static final SeatState[] VALUES = values();
+
+    public static SeatState fromCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.jakubpakula1.cinema.enums;
+
+public enum TicketValidationStatus {
+    VALID,
+    ALREADY_SCANNED,
+    WRONG_SCREENING,
+    INVALID
+}
@@ -0,0 +1,6 @@
+package io.github.jakubpakula1.cinema.event;
+
+// Published when a movie is edited or deleted, since its details are shown on every
+// day it is screened.
+public record MovieChangedEvent(Long movieId) {
+}
@@ -0,0 +1,8 @@
+package io.github.jakubpakula1.cinema.event;
+
+import java.util.List;
+
+// Published once expired reservations have been deleted, one event per screening of the
+// deleted chunk. The delete has committed already when this is published.
+public record ReservationsExpiredEvent(Long screeningId, List<Long> seatIds) {
+}
@@ -0,0 +1,9 @@
+package io.github.jakubpakula1.cinema.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Published when screenings are created, moved or removed. Carries every day whose
+// repertoire changed, so a move lists both the old and the new day.
+public record ScreeningScheduleChangedEvent(Set<LocalDate> dates) {
+}
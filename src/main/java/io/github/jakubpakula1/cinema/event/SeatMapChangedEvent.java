@@ -0,0 +1,6 @@
+package io.github.jakubpakula1.cinema.event;
+
+// Published by the seat engine whenever a seat of the screening changes state.
+// Carries no payload on purpose, listeners read the delta from the seat map itself.
+public record SeatMapChangedEvent(Long screeningId) {
+}
@@ -3,6 +3,7 @@ package io.github.jakubpakula1.cinema.exception;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -34,6 +35,17 @@ public class GlobalExceptionHandler {
         return "error/error-page";
     }
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleValidationError(MethodArgumentNotValidException e, Model model) {
+        System.err.println("Error 400: " + e.getMessage());
+
+        model.addAttribute("errorMessage", "Invalid request.");
+        model.addAttribute("errorCode", "400");
+
+        return "error/error-page";
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public String handleGeneralError(Exception e, Model model) {
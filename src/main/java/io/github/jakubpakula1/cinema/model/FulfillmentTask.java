@@ -0,0 +1,45 @@
+package io.github.jakubpakula1.cinema.model;
+
+import io.github.jakubpakula1.cinema.enums.FulfillmentStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Outbox row written in the same transaction as the order, the ticket PDF and email
+// are produced from it by FulfillmentService once the order has committed.
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "fulfillment_tasks", indexes = {
+        @Index(name = "idx_fulfillment_tasks_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class FulfillmentTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false, unique = true)
+    private Order order;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FulfillmentStatus status;
+
+    private int attempts;
+
+    // Due time while PENDING, lease end while IN_PROGRESS
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
@@ -11,7 +11,10 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "screenings")
+@Table(name = "screenings", indexes = {
+        @Index(name = "idx_screenings_room_start_end", columnList = "room_id, start_time, end_time"),
+        @Index(name = "idx_screenings_start", columnList = "start_time")
+})
 public class Screening {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "temporary_reservations")
+@Table(name = "temporary_reservations", uniqueConstraints = {
+        @UniqueConstraint(name = "ux_temporary_reservations_screening_seat", columnNames = {"screening_id", "seat_id"})
+}, indexes = {
+        @Index(name = "idx_temporary_reservations_user_expires", columnList = "user_id, expires_at"),
+        @Index(name = "idx_temporary_reservations_expires", columnList = "expires_at")
+})
 public class TemporaryReservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
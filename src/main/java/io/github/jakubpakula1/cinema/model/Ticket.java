@@ -15,8 +15,10 @@ import java.math.BigDecimal;
         @UniqueConstraint(columnNames = {"screening_id", "seat_id"})
 })
 public class Ticket {
+    // Identity ids would make Hibernate insert the tickets of an order one by one
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
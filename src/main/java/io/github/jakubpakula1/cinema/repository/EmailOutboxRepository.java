@@ -0,0 +1,50 @@
+package io.github.jakubpakula1.cinema.repository;
+
+import io.github.jakubpakula1.cinema.enums.EmailStatus;
+import io.github.jakubpakula1.cinema.model.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    // Pending messages that are due and sending messages whose dispatcher lease ran out
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueMessageIds(@Param("statuses") List<EmailStatus> statuses, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one dispatcher wins the row, returns 1 for the winner and 0 for everybody else
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = io.github.jakubpakula1.cinema.enums.EmailStatus.SENDING, m.attempts = m.attempts + 1, m.nextAttemptAt = :leaseUntil " +
+            "WHERE m.id = :id AND m.status IN (io.github.jakubpakula1.cinema.enums.EmailStatus.PENDING, io.github.jakubpakula1.cinema.enums.EmailStatus.SENDING) AND m.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // The sent attachment is dropped, the row stays as a delivery record
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = io.github.jakubpakula1.cinema.enums.EmailStatus.SENT, m.sentAt = :now, m.lastError = NULL, m.attachment = NULL " +
+            "WHERE m.id = :id AND m.status = io.github.jakubpakula1.cinema.enums.EmailStatus.SENDING")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lastError = :error " +
+            "WHERE m.id = :id AND m.status = io.github.jakubpakula1.cinema.enums.EmailStatus.SENDING")
+    int markAttemptFailed(@Param("id") Long id, @Param("status") EmailStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    long countByStatus(EmailStatus status);
+
+    @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status IN (io.github.jakubpakula1.cinema.enums.EmailStatus.PENDING, io.github.jakubpakula1.cinema.enums.EmailStatus.SENDING)")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+
+    List<EmailOutboxMessage> findTop20ByStatusOrderByCreatedAtDesc(EmailStatus status);
+}
@@ -0,0 +1,39 @@
+package io.github.jakubpakula1.cinema.repository;
+
+import io.github.jakubpakula1.cinema.enums.FulfillmentStatus;
+import io.github.jakubpakula1.cinema.model.FulfillmentTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FulfillmentTaskRepository extends JpaRepository<FulfillmentTask, Long> {
+    // Pending tasks that are due and in-progress tasks whose worker lease ran out
+    @Query("SELECT t.id FROM FulfillmentTask t WHERE t.status IN :statuses AND t.nextAttemptAt <= :now ORDER BY t.nextAttemptAt")
+    List<Long> findDueTaskIds(@Param("statuses") List<FulfillmentStatus> statuses, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one worker wins the row, returns 1 for the winner and 0 for everybody else
+    @Transactional
+    @Modifying
+    @Query("UPDATE FulfillmentTask t SET t.status = io.github.jakubpakula1.cinema.enums.FulfillmentStatus.IN_PROGRESS, t.attempts = t.attempts + 1, t.nextAttemptAt = :leaseUntil " +
+            "WHERE t.id = :id AND t.status IN (io.github.jakubpakula1.cinema.enums.FulfillmentStatus.PENDING, io.github.jakubpakula1.cinema.enums.FulfillmentStatus.IN_PROGRESS) AND t.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE FulfillmentTask t SET t.status = io.github.jakubpakula1.cinema.enums.FulfillmentStatus.DONE, t.completedAt = :now, t.lastError = NULL WHERE t.id = :id")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE FulfillmentTask t SET t.status = :status, t.nextAttemptAt = :nextAttemptAt, t.lastError = :error WHERE t.id = :id")
+    int markAttemptFailed(@Param("id") Long id, @Param("status") FulfillmentStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+}
@@ -2,12 +2,20 @@ package io.github.jakubpakula1.cinema.repository;
 
 import io.github.jakubpakula1.cinema.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findAllByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Everything the ticket PDF and email need, so they can be rendered outside a transaction
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user JOIN FETCH o.tickets t JOIN FETCH t.seat JOIN FETCH t.ticketType " +
+            "JOIN FETCH t.screening sc JOIN FETCH sc.movie JOIN FETCH sc.room WHERE o.id = :orderId")
+    Optional<Order> findForFulfillmentById(@Param("orderId") Long orderId);
 }
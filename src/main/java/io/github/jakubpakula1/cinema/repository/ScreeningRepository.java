@@ -1,28 +1,41 @@
 package io.github.jakubpakula1.cinema.repository;
 
 import io.github.jakubpakula1.cinema.model.Screening;
+import io.github.jakubpakula1.cinema.repository.projection.RepertoireScreeningDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ScreeningRepository extends JpaRepository<Screening, Long> {
-    // Validate if there is a screening in the given room that overlaps with the given time range
-    boolean existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(Long roomId, LocalDateTime endTime, LocalDateTime startTime);
+    // One flat row per screening in the given time range, with only the movie and room columns the repertoire shows
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.RepertoireScreeningDTO(" +
+            "m.id, m.title, m.genre, m.durationInMinutes, m.posterFileName, s.id, s.startTime, r.name) " +
+            "FROM Screening s JOIN s.movie m JOIN s.room r " +
+            "WHERE s.startTime BETWEEN :from AND :to " +
+            "ORDER BY s.startTime ASC")
+    List<RepertoireScreeningDTO> findRepertoireByStartTimeBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    // Find screenings in the given room that overlap with the given time range
+    // Screenings of the room ending after the given time, with just the columns overlap checks
+    // and collision reports need
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO(" +
+            "s.id, r.id, s.startTime, s.endTime, m.title, r.name) " +
+            "FROM Screening s JOIN s.movie m JOIN s.room r " +
+            "WHERE r.id = :roomId AND s.endTime > :endingAfter")
+    List<ScheduledScreeningDTO> findScheduleByRoomId(@Param("roomId") Long roomId, @Param("endingAfter") LocalDateTime endingAfter);
 
-    List<Screening> findByRoomIdAndStartTimeBeforeAndEndTimeAfter(Long roomId, LocalDateTime endTime, LocalDateTime startTime);
-    // Validate if there is a screening in the given room that overlaps with the given time range, excluding a specific screening ID
-    boolean existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
-            Long roomId,
-            LocalDateTime endTime,
-            LocalDateTime startTime,
-            Long excludeScreeningId
-    );
+    // Read from the foreign key column, the rooms table is not joined
+    @Query("SELECT s.room.id FROM Screening s WHERE s.id = :screeningId")
+    Optional<Long> findRoomIdById(@Param("screeningId") Long screeningId);
 
-    // Find all screenings between the given time range, ordered by start time ascending
-    List<Screening> findAllByStartTimeBetweenOrderByStartTimeAsc(LocalDateTime from, LocalDateTime to);
+    // Those of the given screenings that still exist and end after the cutoff
+    @Query("SELECT s.id FROM Screening s WHERE s.id IN :ids AND s.endTime > :cutoff")
+    List<Long> findIdsEndingAfter(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
 }
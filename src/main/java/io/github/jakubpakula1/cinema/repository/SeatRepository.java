@@ -1,6 +1,9 @@
 package io.github.jakubpakula1.cinema.repository;
 
 import io.github.jakubpakula1.cinema.model.Seat;
+import io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
+import io.github.jakubpakula1.cinema.repository.projection.SeatLayoutDTO;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
@@ -8,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +19,35 @@ import java.util.Optional;
 public interface SeatRepository extends JpaRepository<Seat, Long> {
     List<Seat> findAllByRoomId(Long roomId);
 
+    @Query("SELECT s.id FROM Seat s WHERE s.room.id = (SELECT sc.room.id FROM Screening sc WHERE sc.id = :screeningId)")
+    List<Long> findSeatIdsByScreeningId(@Param("screeningId") Long screeningId);
+
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO(sc.id, s.id) " +
+            "FROM Screening sc JOIN Seat s ON s.room = sc.room WHERE sc.id IN :screeningIds")
+    List<ScreeningSeatIdDTO> findSeatIdsByScreeningIds(@Param("screeningIds") Collection<Long> screeningIds);
+
+    // Sold seats and live locks of a screening in one round trip; the seats themselves come from the cached room layout
+    @Query("""
+            SELECT new io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO(t.seat.id, true, CAST(NULL AS Long), CAST(NULL AS LocalDateTime))
+            FROM Ticket t
+            WHERE t.screening.id = :screeningId
+            UNION ALL
+            SELECT new io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO(tr.seat.id, false, tr.user.id, tr.expiresAt)
+            FROM TemporaryReservation tr
+            WHERE tr.screening.id = :screeningId AND tr.expiresAt > CURRENT_TIMESTAMP
+            """)
+    List<OccupiedSeatDTO> findOccupiedSeatsByScreeningId(@Param("screeningId") Long screeningId);
+
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.SeatLayoutDTO(s.room.id, s.id, s.rowNumber, s.seatNumber) " +
+            "FROM Seat s ORDER BY s.room.id, s.rowNumber, s.seatNumber")
+    List<SeatLayoutDTO> findAllLayouts();
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Seat s WHERE s.id = :seatId")
     Optional<Seat> findSeatWithLock(@Param("seatId") Long seatId);
+
+    // Always locks in id order, so two claims of overlapping seats cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seat s WHERE s.id IN :seatIds ORDER BY s.id")
+    List<Seat> findAllWithLockByIds(@Param("seatIds") Collection<Long> seatIds);
 }
@@ -3,11 +3,15 @@ package io.github.jakubpakula1.cinema.repository;
 import io.github.jakubpakula1.cinema.dto.seat.SeatUserLockDTO;
 import io.github.jakubpakula1.cinema.model.TemporaryReservation;
 import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +19,14 @@ public interface TemporaryReservationRepository extends JpaRepository<TemporaryR
     @Query("SELECT new io.github.jakubpakula1.cinema.dto.seat.SeatUserLockDTO(tr.user.id,tr.seat.id, tr.expiresAt) FROM TemporaryReservation tr WHERE tr.screening.id = :screeningId AND tr.expiresAt > CURRENT_TIMESTAMP")
     List<SeatUserLockDTO> findLockedSeatIdsByScreeningId(@Param("screeningId") Long screeningId);
 
+    // Includes expired rows that were not cleaned up yet, a seat is free only once its row is deleted
+    @Query("SELECT tr.seat.id FROM TemporaryReservation tr WHERE tr.screening.id = :screeningId")
+    List<Long> findReservedSeatIdsByScreeningId(@Param("screeningId") Long screeningId);
+
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO(tr.screening.id, tr.seat.id) " +
+            "FROM TemporaryReservation tr WHERE tr.screening.id IN :screeningIds")
+    List<ScreeningSeatIdDTO> findReservedSeatIdsByScreeningIds(@Param("screeningIds") Collection<Long> screeningIds);
+
     boolean existsBySeatIdAndScreeningIdAndExpiresAtAfter(Long seat_id, Long screening_id, LocalDateTime expiresAt);
 
     // Method to delete TemporaryReservation by screeningId and seatId
@@ -23,12 +35,21 @@ public interface TemporaryReservationRepository extends JpaRepository<TemporaryR
     // Method to find all TemporaryReservations by userId that have not expired
     List<TemporaryReservation> findAllByUserIdAndExpiresAtAfter(Long userId, LocalDateTime now);
 
+    // Slides the expiry of the user's whole live cart in one statement, returns the number of extended rows
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TemporaryReservation tr SET tr.expiresAt = :expiresAt WHERE tr.user.id = :userId AND tr.expiresAt > :now")
+    int extendActiveReservations(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
     // Method to find TemporaryReservations by userId, a list of seatIds, and that have not expired
     List<TemporaryReservation> findByUserAndSeatIdInAndExpiresAtAfter(User user, List<Long> seatIds, LocalDateTime now);
 
     // Method to find TemporaryReservations by userId, seatId, and screeningId
     List<TemporaryReservation> findByUserIdAndSeatIdAndScreeningId(Long userId, Long seatId, Long screeningId);
 
-    // Method to delete all TemporaryReservations that have expired
-    void deleteByExpiresAtBefore(LocalDateTime now);
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO(tr.id, tr.expiresAt) FROM TemporaryReservation tr")
+    List<ReservationExpiryDTO> findAllExpiries();
+
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO(tr.id, tr.expiresAt) " +
+            "FROM TemporaryReservation tr WHERE tr.id IN :ids")
+    List<ReservationExpiryDTO> findExpiriesByIds(@Param("ids") Collection<Long> ids);
 }
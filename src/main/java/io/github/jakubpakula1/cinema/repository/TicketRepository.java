@@ -1,11 +1,13 @@
 package io.github.jakubpakula1.cinema.repository;
 
 import io.github.jakubpakula1.cinema.model.Ticket;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +15,10 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t.seat.id FROM Ticket t WHERE t.screening.id = :screeningId")
     List<Long> findSoldSeatIdsByScreeningId(@Param("screeningId") Long screeningId);
 
+    @Query("SELECT new io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO(t.screening.id, t.seat.id) " +
+            "FROM Ticket t WHERE t.screening.id IN :screeningIds")
+    List<ScreeningSeatIdDTO> findSoldSeatIdsByScreeningIds(@Param("screeningIds") Collection<Long> screeningIds);
+
     boolean existsBySeatIdAndScreeningId(Long seatId, Long screeningId);
 
     //  Method to find tickets by order ID
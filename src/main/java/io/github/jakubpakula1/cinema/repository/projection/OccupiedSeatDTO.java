@@ -0,0 +1,16 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// A sold seat carries no user or expiry, a locked one carries the lock holder
+@Getter
+@AllArgsConstructor
+public class OccupiedSeatDTO {
+    private Long seatId;
+    private boolean sold;
+    private Long userId;
+    private LocalDateTime expiresAt;
+}
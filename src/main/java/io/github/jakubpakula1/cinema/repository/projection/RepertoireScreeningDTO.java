@@ -0,0 +1,20 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import io.github.jakubpakula1.cinema.enums.MovieGenre;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RepertoireScreeningDTO {
+    private Long movieId;
+    private String title;
+    private MovieGenre genre;
+    private Integer durationInMinutes;
+    private String posterFileName;
+    private Long screeningId;
+    private LocalDateTime startTime;
+    private String roomName;
+}
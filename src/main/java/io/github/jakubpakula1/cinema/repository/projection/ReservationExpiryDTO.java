@@ -0,0 +1,13 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ReservationExpiryDTO {
+    private Long id;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,17 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ScheduledScreeningDTO {
+    private Long screeningId;
+    private Long roomId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String movieTitle;
+    private String roomName;
+}
@@ -0,0 +1,11 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ScreeningSeatIdDTO {
+    private Long screeningId;
+    private Long seatId;
+}
@@ -0,0 +1,13 @@
+package io.github.jakubpakula1.cinema.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SeatLayoutDTO {
+    private Long roomId;
+    private Long seatId;
+    private int rowNumber;
+    private int seatNumber;
+}
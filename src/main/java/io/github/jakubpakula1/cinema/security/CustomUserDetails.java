@@ -11,6 +11,7 @@ import java.util.Collection;
 public class CustomUserDetails implements UserDetails {
     @Getter
     private final Long id;
+    @Getter
     private final String email;
     private final String password;
     private final Collection<? extends GrantedAuthority> authorities;
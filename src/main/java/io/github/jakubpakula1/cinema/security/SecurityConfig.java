@@ -21,8 +21,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/", "/register", "/login", "/css/**", "/js/**", "/images/**","/uploads/**").permitAll()
-                        .requestMatchers("/admin/**", "/screenings/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/", "/register", "/login", "/css/**", "/js/**", "/images/**","/uploads/**", "/actuator/health").permitAll()
+                        .requestMatchers("/admin/**", "/screenings/admin/**", "/api/v1/tickets/validate", "/api/v1/screenings/bulk/**", "/api/v1/screenings/plan", "/api/v1/reference-data/**", "/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,66 @@
+package io.github.jakubpakula1.cinema.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// RFC 9285 encoding. Its alphabet is exactly the QR alphanumeric set, so encoded
+// tokens use the denser alphanumeric mode instead of byte mode.
+final class Base45 {
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            DECODE[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private Base45() {
+    }
+
+    static String encode(byte[] data) {
+        StringBuilder out = new StringBuilder((data.length / 2) * 3 + 2);
+        for (int i = 0; i + 1 < data.length; i += 2) {
+            int value = ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+            out.append(ALPHABET.charAt(value % 45))
+                    .append(ALPHABET.charAt(value / 45 % 45))
+                    .append(ALPHABET.charAt(value / 2025));
+        }
+        if (data.length % 2 == 1) {
+            int value = data[data.length - 1] & 0xFF;
+            out.append(ALPHABET.charAt(value % 45)).append(ALPHABET.charAt(value / 45));
+        }
+        return out.toString();
+    }
+
+    static byte[] decode(String text) {
+        if (text.length() % 3 == 1) {
+            throw new IllegalArgumentException("Invalid base45 length");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 3 * 2 + 1);
+        for (int i = 0; i < text.length(); i += 3) {
+            int value = digit(text, i) + digit(text, i + 1) * 45;
+            if (i + 2 < text.length()) {
+                value += digit(text, i + 2) * 2025;
+                if (value > 0xFFFF) {
+                    throw new IllegalArgumentException("Invalid base45 chunk");
+                }
+                out.write(value >> 8);
+            } else if (value > 0xFF) {
+                throw new IllegalArgumentException("Invalid base45 chunk");
+            }
+            out.write(value & 0xFF);
+        }
+        return out.toByteArray();
+    }
+
+    private static int digit(String text, int index) {
+        char c = text.charAt(index);
+        int value = c < DECODE.length ? DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid base45 character");
+        }
+        return value;
+    }
+}
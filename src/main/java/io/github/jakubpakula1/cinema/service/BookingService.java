@@ -7,7 +7,6 @@ import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.OrderRepository;
 import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
-import io.github.jakubpakula1.cinema.repository.TicketTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,16 +17,19 @@ import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
     private final TemporaryReservationRepository temporaryReservationRepository;
-    private final TicketTypeRepository ticketTypeRepository;
+    private final ReferenceDataService referenceDataService;
     private final OrderRepository orderRepository;
-    private final PdfService pdfService;
-    private final EmailService emailService;
+    private final FulfillmentService fulfillmentService;
+    private final SeatStateService seatStateService;
 
     @Transactional(readOnly = true)
     public Order getOrderSummary(Long orderId, String userEmail) throws AccessDeniedException {
@@ -70,19 +72,20 @@ public class BookingService {
         order.setCreatedAt(LocalDateTime.now());
         order.setStatus(ReservationStatus.PAID);
 
+        Map<Long, TemporaryReservation> reservationsBySeat = myReservations.stream()
+                .collect(Collectors.toMap(reservation -> reservation.getSeat().getId(), Function.identity()));
+
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<Ticket> ticketsToSave = new ArrayList<>();
 
         for (TicketSelectionDTO item : bookingRequestDTO.getTickets()) {
-            TemporaryReservation reservation = myReservations.stream()
-                    .filter(r -> r.getSeat().getId().equals(item.getSeatId()))
-                    .findFirst()
-                    .orElseThrow(() -> {
-                        log.error("Reservation not found for seat: {}", item.getSeatId());
-                        return new ResourceNotFoundException("Reservation not found for seat id: " + item.getSeatId());
-                    });
+            TemporaryReservation reservation = reservationsBySeat.get(item.getSeatId());
+            if (reservation == null) {
+                log.error("Reservation not found for seat: {}", item.getSeatId());
+                throw new ResourceNotFoundException("Reservation not found for seat id: " + item.getSeatId());
+            }
 
-            TicketType type = ticketTypeRepository.findById(item.getTypeId())
+            TicketType type = referenceDataService.findTicketType(item.getTypeId())
                     .orElseThrow(() -> {
                         log.error("Ticket type not found with id: {}", item.getTypeId());
                         return new ResourceNotFoundException("Ticket type not found with id: " + item.getTypeId());
@@ -102,15 +105,16 @@ public class BookingService {
         order.setTotalCost(totalAmount);
         order.setTickets(ticketsToSave);
 
-        log.info("Generating PDF for {} tickets, total amount: {}", ticketsToSave.size(), totalAmount);
-        byte[] pdfBytes = pdfService.generateTicketPdf(ticketsToSave);
         orderRepository.save(order);
-        log.info("Order saved with ID: {}", order.getId());
+        log.info("Order saved with ID: {}, {} tickets, total amount: {}", order.getId(), ticketsToSave.size(), totalAmount);
 
-        log.debug("Sending confirmation email to: {}", user.getEmail());
-        emailService.sendEmailWithAttachment(user.getEmail(), "Your Cinema Tickets", "Your cinema tickets are attached.", pdfBytes, "tickets_order_" + order.getId() + ".pdf");
+        // PDF and email are produced after commit by the fulfillment workers
+        fulfillmentService.enqueue(order);
 
-        temporaryReservationRepository.deleteAll(myReservations);
+        temporaryReservationRepository.deleteAllInBatch(myReservations);
+        for (Ticket ticket : ticketsToSave) {
+            seatStateService.markSoldAfterCommit(ticket.getScreening().getId(), ticket.getSeat().getId());
+        }
         log.info("Order finalized successfully for user: {}, orderId: {}", user.getId(), order.getId());
 
         return order.getId();
@@ -0,0 +1,143 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.mail.MailQueueStatsDTO;
+import io.github.jakubpakula1.cinema.enums.EmailStatus;
+import io.github.jakubpakula1.cinema.model.EmailOutboxMessage;
+import io.github.jakubpakula1.cinema.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Drains the email outbox. Each run claims a batch of due messages, sends them through a single
+// SMTP connection and records the outcome per message. No transaction or row lock is held while
+// talking to the mail server: a claim is a lease, and a dispatcher that dies mid-send leaves its
+// messages SENDING until the lease runs out and another run picks them up again. Failed messages
+// are retried with exponential backoff and end up DEAD after the last attempt, where they stay
+// visible on the admin mail queue page.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailDispatchService {
+    private static final List<EmailStatus> DISPATCHABLE = List.of(EmailStatus.PENDING, EmailStatus.SENDING);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+
+    @Value("${cinema.mail.batch-size:50}")
+    private int batchSize;
+    @Value("${cinema.mail.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${cinema.mail.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+    @Value("${cinema.mail.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Scheduled(fixedDelayString = "${cinema.mail.dispatch-interval-ms:5000}")
+    public void dispatchDueMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = emailOutboxRepository.findDueMessageIds(DISPATCHABLE, now, PageRequest.of(0, batchSize)).stream()
+                .filter(id -> emailOutboxRepository.claim(id, now, now.plusSeconds(leaseSeconds)) == 1)
+                .toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, EmailOutboxMessage> prepared = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : emailOutboxRepository.findAllById(claimed)) {
+            try {
+                prepared.put(emailService.createMessage(message.getRecipient(), message.getSubject(), message.getBody(),
+                        message.getAttachment(), message.getAttachmentName()), message);
+            } catch (MessagingException e) {
+                markFailed(message, e);
+            }
+        }
+
+        Map<Object, Exception> failures = send(prepared);
+        LocalDateTime sentAt = LocalDateTime.now();
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : prepared.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(entry.getValue(), failure);
+            } else {
+                emailOutboxRepository.markSent(entry.getValue().getId(), sentAt);
+                sent++;
+            }
+        }
+        log.info("Email dispatch: {} sent, {} failed", sent, claimed.size() - sent);
+    }
+
+    @Transactional(readOnly = true)
+    public MailQueueStatsDTO getQueueStats() {
+        return MailQueueStatsDTO.builder()
+                .pending(emailOutboxRepository.countByStatus(EmailStatus.PENDING) + emailOutboxRepository.countByStatus(EmailStatus.SENDING))
+                .sent(emailOutboxRepository.countByStatus(EmailStatus.SENT))
+                .dead(emailOutboxRepository.countByStatus(EmailStatus.DEAD))
+                .oldestPendingAt(emailOutboxRepository.findOldestPendingCreatedAt().orElse(null))
+                .recentDeadLetters(emailOutboxRepository.findTop20ByStatusOrderByCreatedAtDesc(EmailStatus.DEAD).stream()
+                        .map(message -> MailQueueStatsDTO.DeadLetterDTO.builder()
+                                .id(message.getId())
+                                .recipient(message.getRecipient())
+                                .subject(message.getSubject())
+                                .attempts(message.getAttempts())
+                                .lastError(message.getLastError())
+                                .createdAt(message.getCreatedAt())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Returns the failed messages; a failure without per-message detail fails the whole batch
+    private Map<Object, Exception> send(Map<MimeMessage, EmailOutboxMessage> prepared) {
+        if (prepared.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mailSender.send(prepared.keySet().toArray(new MimeMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return failAll(prepared, e);
+        } catch (MailException e) {
+            return failAll(prepared, e);
+        }
+    }
+
+    private Map<Object, Exception> failAll(Map<MimeMessage, EmailOutboxMessage> prepared, Exception e) {
+        log.warn("Email batch of {} failed: {}", prepared.size(), e.getMessage());
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        prepared.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    // The claim already counted the attempt
+    private void markFailed(EmailOutboxMessage message, Exception e) {
+        String error = e.getMessage() != null && e.getMessage().length() > 1000 ? e.getMessage().substring(0, 1000) : e.getMessage();
+
+        if (message.getAttempts() >= maxAttempts) {
+            log.error("Email {} to {} moved to dead letters after {} attempts: {}", message.getId(), message.getRecipient(), message.getAttempts(), error);
+            emailOutboxRepository.markAttemptFailed(message.getId(), EmailStatus.DEAD, LocalDateTime.now(), error);
+            return;
+        }
+        // Exponential backoff: delay, 2x delay, 4x delay...
+        emailOutboxRepository.markAttemptFailed(message.getId(), EmailStatus.PENDING,
+                LocalDateTime.now().plusSeconds(retryDelaySeconds << (message.getAttempts() - 1)), error);
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.jakubpakula1.cinema.service;
 
+import io.github.jakubpakula1.cinema.enums.EmailStatus;
+import io.github.jakubpakula1.cinema.model.EmailOutboxMessage;
+import io.github.jakubpakula1.cinema.repository.EmailOutboxRepository;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -7,27 +10,43 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    // Stores the message in the outbox, EmailDispatchService delivers it
+    @Transactional
+    public EmailOutboxMessage queueEmailWithAttachment(String to, String subject, String body, byte[] attachment, String attachmentName) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setAttachment(attachment);
+        message.setAttachmentName(attachmentName);
+        message.setStatus(EmailStatus.PENDING);
+        message.setCreatedAt(LocalDateTime.now());
+        message.setNextAttemptAt(message.getCreatedAt());
+        return emailOutboxRepository.save(message);
+    }
 
-    public void sendEmailWithAttachment(String to, String subject, String body, byte[] attachment, String attachmentName) {
-        try{
-            MimeMessage message = mailSender.createMimeMessage();
+    public MimeMessage createMessage(String to, String subject, String body, byte[] attachment, String attachmentName) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
 
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        MimeMessageHelper helper = new MimeMessageHelper(message, attachment != null);
 
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(body);
 
+        if (attachment != null) {
             helper.addAttachment(attachmentName, new ByteArrayResource(attachment));
-
-            mailSender.send(message);
-        }catch (MessagingException e){
-            throw new RuntimeException("Failed to send email", e);
         }
+        return message;
     }
 }
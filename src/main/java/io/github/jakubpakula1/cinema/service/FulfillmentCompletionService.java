@@ -0,0 +1,25 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.Order;
+import io.github.jakubpakula1.cinema.repository.FulfillmentTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Queues the ticket email and completes the task in one transaction, so a task retried after
+// a failure never finds the email of its previous attempt already in the outbox. Kept out of
+// FulfillmentService, whose own calls would bypass the transactional proxy.
+@Service
+@RequiredArgsConstructor
+public class FulfillmentCompletionService {
+    private final FulfillmentTaskRepository fulfillmentTaskRepository;
+    private final EmailService emailService;
+
+    @Transactional
+    public void complete(Long taskId, Order order, byte[] pdfBytes) {
+        emailService.queueEmailWithAttachment(order.getUser().getEmail(), "Your Cinema Tickets", "Your cinema tickets are attached.", pdfBytes, "tickets_order_" + order.getId() + ".pdf");
+        fulfillmentTaskRepository.markDone(taskId, LocalDateTime.now());
+    }
+}
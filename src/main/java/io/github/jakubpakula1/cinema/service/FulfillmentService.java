@@ -0,0 +1,131 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.enums.FulfillmentStatus;
+import io.github.jakubpakula1.cinema.model.FulfillmentTask;
+import io.github.jakubpakula1.cinema.model.Order;
+import io.github.jakubpakula1.cinema.repository.FulfillmentTaskRepository;
+import io.github.jakubpakula1.cinema.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Renders the tickets of paid orders outside the checkout transaction and queues the email.
+// A task is handed to the worker pool right after the order commits; the poller picks up
+// whatever that misses (restarts, full pool, retries after a failure).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FulfillmentService {
+    private static final List<FulfillmentStatus> RUNNABLE = List.of(FulfillmentStatus.PENDING, FulfillmentStatus.IN_PROGRESS);
+    private static final int POLL_BATCH_SIZE = 50;
+
+    private final FulfillmentTaskRepository fulfillmentTaskRepository;
+    private final OrderRepository orderRepository;
+    private final PdfService pdfService;
+    private final FulfillmentCompletionService fulfillmentCompletionService;
+
+    @Value("${cinema.fulfillment.workers:4}")
+    private int workers;
+    @Value("${cinema.fulfillment.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${cinema.fulfillment.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+    @Value("${cinema.fulfillment.lease-minutes:5}")
+    private long leaseMinutes;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Called inside the order transaction
+    public FulfillmentTask enqueue(Order order) {
+        FulfillmentTask task = new FulfillmentTask();
+        task.setOrder(order);
+        task.setStatus(FulfillmentStatus.PENDING);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setNextAttemptAt(task.getCreatedAt());
+        fulfillmentTaskRepository.save(task);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(task.getId());
+                }
+            });
+        }
+        log.debug("Fulfillment task queued for order {}", order.getId());
+        return task;
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void pollDueTasks() {
+        List<Long> due = fulfillmentTaskRepository.findDueTaskIds(RUNNABLE, LocalDateTime.now(), PageRequest.of(0, POLL_BATCH_SIZE));
+        if (!due.isEmpty()) {
+            log.info("Picking up {} due fulfillment tasks", due.size());
+            due.forEach(this::submit);
+        }
+    }
+
+    public void process(Long taskId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (fulfillmentTaskRepository.claim(taskId, now, now.plusMinutes(leaseMinutes)) == 0) {
+            return;
+        }
+
+        FulfillmentTask task = fulfillmentTaskRepository.findById(taskId).orElseThrow();
+        try {
+            Order order = orderRepository.findForFulfillmentById(task.getOrder().getId())
+                    .orElseThrow(() -> new IllegalStateException("Order not found for fulfillment task " + taskId));
+
+            byte[] pdfBytes = pdfService.generateTicketPdf(order.getTickets());
+            fulfillmentCompletionService.complete(taskId, order, pdfBytes);
+            log.info("Tickets for order {} queued for {}", order.getId(), order.getUser().getEmail());
+        } catch (RuntimeException e) {
+            handleFailure(task, e);
+        }
+    }
+
+    private void handleFailure(FulfillmentTask task, RuntimeException e) {
+        String error = e.getMessage() != null && e.getMessage().length() > 1000 ? e.getMessage().substring(0, 1000) : e.getMessage();
+        if (task.getAttempts() >= maxAttempts) {
+            log.error("Fulfillment task {} failed permanently after {} attempts", task.getId(), task.getAttempts(), e);
+            fulfillmentTaskRepository.markAttemptFailed(task.getId(), FulfillmentStatus.FAILED, LocalDateTime.now(), error);
+            return;
+        }
+
+        // Exponential backoff: delay, 2x delay, 4x delay...
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusSeconds(retryDelaySeconds << (task.getAttempts() - 1));
+        log.warn("Fulfillment task {} failed (attempt {}), retrying at {}: {}", task.getId(), task.getAttempts(), nextAttemptAt, e.getMessage());
+        fulfillmentTaskRepository.markAttemptFailed(task.getId(), FulfillmentStatus.PENDING, nextAttemptAt, error);
+    }
+
+    private void submit(Long taskId) {
+        try {
+            executor.execute(() -> process(taskId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Fulfillment task {} not submitted, the poller will pick it up", taskId);
+        }
+    }
+}
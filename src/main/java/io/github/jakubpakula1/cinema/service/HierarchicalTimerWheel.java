@@ -0,0 +1,111 @@
+package io.github.jakubpakula1.cinema.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel over ids. Level 0 has one slot per tick, every higher level one
+// slot per full turn of the level below; an entry sits in the lowest level its deadline
+// fits in and moves down a level whenever the wheel below it wraps. Scheduling and firing
+// are O(1), no matter how many reservations are waiting.
+// Rescheduling an id only records its new deadline; the old entry stays in its slot and is
+// skipped when its slot comes up, which keeps rescheduling O(1) as well.
+final class HierarchicalTimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final List<Entry>[][] slots;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.slots = new List[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new ArrayList<>();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return deadlines.size();
+    }
+
+    // Fires on the first tick at or after the deadline, so never early
+    synchronized void schedule(long id, long deadlineMillis) {
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        deadlines.put(id, deadlineTick);
+        // Deadlines already passed fire on the next tick
+        place(new Entry(id, deadlineTick), currentTick + 1);
+    }
+
+    synchronized void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    // Moves the wheel up to now and returns the ids whose deadline has passed
+    synchronized List<Long> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            List<Entry> slot = slots[0][(int) (currentTick & SLOT_MASK)];
+            List<Entry> entries = new ArrayList<>(slot);
+            slot.clear();
+            for (Entry entry : entries) {
+                if (!isCurrent(entry)) {
+                    continue;
+                }
+                if (entry.deadlineTick() > currentTick) {
+                    place(entry, currentTick);
+                } else {
+                    deadlines.remove(entry.id());
+                    due.add(entry.id());
+                }
+            }
+        }
+        return due;
+    }
+
+    private void cascade(int level) {
+        List<Entry> slot = slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        List<Entry> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry entry : entries) {
+            if (isCurrent(entry)) {
+                place(entry, currentTick);
+            }
+        }
+    }
+
+    // False for entries left behind by a reschedule or a cancel
+    private boolean isCurrent(Entry entry) {
+        Long deadline = deadlines.get(entry.id());
+        return deadline != null && deadline == entry.deadlineTick();
+    }
+
+    // Deadlines beyond the top level wait there and cascade again
+    private void place(Entry entry, long earliestTick) {
+        long tick = Math.clamp(entry.deadlineTick(), earliestTick, currentTick + MAX_DELAY_TICKS);
+        long delay = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        slots[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(entry);
+    }
+
+    private record Entry(long id, long deadlineTick) {
+    }
+}
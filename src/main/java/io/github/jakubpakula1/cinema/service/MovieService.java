@@ -1,12 +1,14 @@
 package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.MovieFormDTO;
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.Movie;
 import io.github.jakubpakula1.cinema.repository.MovieRepository;
 import io.github.jakubpakula1.cinema.repository.projection.MovieCarouselDTO;
 import io.github.jakubpakula1.cinema.repository.projection.MovieListViewDTO;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -27,10 +29,12 @@ public class MovieService {
 
     private final MovieRepository movieRepository;
     private final String uploadDir;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MovieService(MovieRepository movieRepository, @Value("${cinema.upload-dir}") String uploadDir) {
+    public MovieService(MovieRepository movieRepository, @Value("${cinema.upload-dir}") String uploadDir, ApplicationEventPublisher eventPublisher) {
         this.movieRepository = movieRepository;
         this.uploadDir = uploadDir;
+        this.eventPublisher = eventPublisher;
     }
     @Transactional(readOnly = true)
     public List<Movie> getAllMovies() {
@@ -116,7 +120,9 @@ public class MovieService {
 
         saveGalleryImages(existingMovie, movieDTO.getGalleryImages());
 
-        return movieRepository.save(existingMovie);
+        Movie savedMovie = movieRepository.save(existingMovie);
+        eventPublisher.publishEvent(new MovieChangedEvent(id));
+        return savedMovie;
     }
 
     @Transactional
@@ -139,6 +145,7 @@ public class MovieService {
         }
 
         movieRepository.delete(movieToDelete);
+        eventPublisher.publishEvent(new MovieChangedEvent(id));
         return movieToDelete;
     }
 
@@ -1,119 +1,102 @@
 package io.github.jakubpakula1.cinema.service;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
 import com.lowagie.text.*;
+import com.lowagie.text.pdf.ByteBuffer;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfTemplate;
 import com.lowagie.text.pdf.PdfWriter;
 import io.github.jakubpakula1.cinema.model.Screening;
 import io.github.jakubpakula1.cinema.model.Ticket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
+@RequiredArgsConstructor
 public class PdfService {
+    private static final int SCREENING_BLOCK_CACHE_LIMIT = 512;
+    private static final int QR_QUIET_ZONE_MODULES = 4;
+    private static final float QR_SIZE = 150;
+    private static final int QR_COLUMNS = 3;
+
+    // With the cache on, fonts, header, footer, the seat table header and the screening
+    // block are built once and only copied per document; off rebuilds everything per call.
+    @Value("${cinema.pdf.cache-layout:true}")
+    private boolean cacheLayout = true;
+
+    // Vector QR codes are drawn straight from the QR matrix, one per ticket; off falls back
+    // to a single PNG code for the whole order
+    @Value("${cinema.pdf.vector-qr:true}")
+    private boolean vectorQr = true;
+
+    private final TicketTokenService ticketTokenService;
+
+    private final TicketLayout sharedLayout = new TicketLayout();
+    private final Map<ScreeningBlockKey, PdfPTable> screeningBlocks = new ConcurrentHashMap<>();
 
     public byte[] generateTicketPdf(List<Ticket> tickets) {
+        TicketLayout layout = cacheLayout ? sharedLayout : new TicketLayout();
+
         try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
             Document document = new Document(PageSize.A4, 20, 20, 20, 20);
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
             document.open();
 
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, Color.WHITE);
-            Font subtitleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, Color.DARK_GRAY);
-            Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.DARK_GRAY);
-            Font valueFont = FontFactory.getFont(FontFactory.HELVETICA, 11, Color.BLACK);
-
             Ticket sampleTicket = tickets.getFirst();
             Screening screening = sampleTicket.getScreening();
 
             // Header with background
-            PdfPTable headerTable = new PdfPTable(1);
-            headerTable.setWidthPercentage(100);
-            PdfPCell headerCell = new PdfPCell(new Phrase("🎬 CINEMA TICKET 🎬", titleFont));
-            headerCell.setBackgroundColor(new Color(44, 62, 80));
-            headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            headerCell.setPadding(15);
-            headerTable.addCell(headerCell);
-            document.add(headerTable);
+            document.add(new PdfPTable(layout.header));
 
             document.add(new Paragraph(" "));
 
             // Movie Info Section
-            document.add(new Paragraph("SCREENING INFORMATION", subtitleFont));
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-            infoTable.setSpacingBefore(10);
-
-            addRow(infoTable, "Movie:", screening.getMovie().getTitle(), labelFont, valueFont);
-            addRow(infoTable, "Date & Time:", screening.getStartTime().toString(), labelFont, valueFont);
-            addRow(infoTable, "Cinema Hall:", screening.getRoom().getName(), labelFont, valueFont);
-
-            document.add(infoTable);
+            document.add(new Paragraph("SCREENING INFORMATION", layout.subtitleFont));
+            document.add(new PdfPTable(screeningBlock(screening, layout)));
             document.add(new Paragraph(" "));
 
             // Seats Section
-            document.add(new Paragraph("RESERVED SEATS", subtitleFont));
-            PdfPTable seatsTable = new PdfPTable(4);
-            seatsTable.setWidthPercentage(100);
-            seatsTable.setSpacingBefore(10);
-
-            // Header row
-            String[] headers = {"Row", "Seat", "Type", "Price"};
-            for (String header : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, labelFont));
-                cell.setBackgroundColor(new Color(189, 195, 199));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setPadding(8);
-                seatsTable.addCell(cell);
-            }
+            document.add(new Paragraph("RESERVED SEATS", layout.subtitleFont));
+            PdfPTable seatsTable = new PdfPTable(layout.seatsHeader);
 
             // Seat rows
             for (Ticket ticket : tickets) {
-                seatsTable.addCell(createCenteredCell(String.valueOf(ticket.getSeat().getRowNumber()), valueFont));
-                seatsTable.addCell(createCenteredCell(String.valueOf(ticket.getSeat().getSeatNumber()), valueFont));
-                seatsTable.addCell(createCenteredCell(ticket.getTicketType().getName(), valueFont));
-                seatsTable.addCell(createCenteredCell(ticket.getPrice() + " PLN", valueFont));
+                seatsTable.addCell(createCenteredCell(String.valueOf(ticket.getSeat().getRowNumber()), layout.valueFont));
+                seatsTable.addCell(createCenteredCell(String.valueOf(ticket.getSeat().getSeatNumber()), layout.valueFont));
+                seatsTable.addCell(createCenteredCell(ticket.getTicketType().getName(), layout.valueFont));
+                seatsTable.addCell(createCenteredCell(ticket.getPrice() + " PLN", layout.valueFont));
             }
 
             document.add(seatsTable);
             document.add(new Paragraph(" "));
 
             // QR Code Section
-            try {
-                byte[] qrCode = generateQRCode(generateTicketData(sampleTicket, screening));
-                Image qrImage = Image.getInstance(qrCode);
-                qrImage.scaleToFit(150, 150);
-
-                PdfPTable qrTable = new PdfPTable(1);
-                qrTable.setWidthPercentage(100);
-                PdfPCell qrCell = new PdfPCell(qrImage);
-                qrCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                qrCell.setBorder(0);
-                qrCell.setPadding(10);
-                qrTable.addCell(qrCell);
-                document.add(qrTable);
-            } catch (Exception e) {
-                document.add(new Paragraph("QR Code generation failed", valueFont));
+            if (vectorQr) {
+                document.add(buildTicketQrTable(writer, tickets, layout));
+            } else {
+                addLegacyQrCode(document, sampleTicket, layout);
             }
 
             document.add(new Paragraph(" "));
 
             // Footer
-            PdfPTable footerTable = new PdfPTable(1);
-            footerTable.setWidthPercentage(100);
-            PdfPCell footerCell = new PdfPCell(new Phrase("Thank you for your purchase! Enjoy the movie! 🍿", valueFont));
-            footerCell.setBackgroundColor(new Color(236, 240, 241));
-            footerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            footerCell.setPadding(10);
-            footerTable.addCell(footerCell);
-            document.add(footerTable);
+            document.add(new PdfPTable(layout.footer));
 
             document.close();
             return out.toByteArray();
@@ -123,6 +106,116 @@ public class PdfService {
         }
     }
 
+    private PdfPTable screeningBlock(Screening screening, TicketLayout layout) {
+        ScreeningBlockKey key = new ScreeningBlockKey(screening.getMovie().getTitle(), screening.getStartTime().toString(), screening.getRoom().getName());
+        if (!cacheLayout) {
+            return buildScreeningBlock(key, layout);
+        }
+        if (screeningBlocks.size() >= SCREENING_BLOCK_CACHE_LIMIT) {
+            screeningBlocks.clear();
+        }
+        return screeningBlocks.computeIfAbsent(key, k -> buildScreeningBlock(k, layout));
+    }
+
+    private PdfPTable buildScreeningBlock(ScreeningBlockKey key, TicketLayout layout) {
+        PdfPTable infoTable = new PdfPTable(2);
+        infoTable.setWidthPercentage(100);
+        infoTable.setSpacingBefore(10);
+
+        addRow(infoTable, "Movie:", key.movieTitle(), layout.labelFont, layout.valueFont);
+        addRow(infoTable, "Date & Time:", key.startTime(), layout.labelFont, layout.valueFont);
+        addRow(infoTable, "Cinema Hall:", key.roomName(), layout.labelFont, layout.valueFont);
+        return infoTable;
+    }
+
+    // Single PNG code for the first ticket of the order, as rendered before per-ticket codes
+    private void addLegacyQrCode(Document document, Ticket sampleTicket, TicketLayout layout) {
+        try {
+            byte[] qrCode = generateQRCode(ticketTokenService.issue(sampleTicket));
+            Image qrImage = Image.getInstance(qrCode);
+            qrImage.scaleToFit(150, 150);
+
+            PdfPTable qrTable = new PdfPTable(1);
+            qrTable.setWidthPercentage(100);
+            PdfPCell qrCell = new PdfPCell(qrImage);
+            qrCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            qrCell.setBorder(0);
+            qrCell.setPadding(10);
+            qrTable.addCell(qrCell);
+            document.add(qrTable);
+        } catch (Exception e) {
+            document.add(new Paragraph("QR Code generation failed", layout.valueFont));
+        }
+    }
+
+    private PdfPTable buildTicketQrTable(PdfWriter writer, List<Ticket> tickets, TicketLayout layout) {
+        PdfPTable qrTable = new PdfPTable(Math.min(tickets.size(), QR_COLUMNS));
+        qrTable.setWidthPercentage(100);
+
+        for (Ticket ticket : tickets) {
+            PdfPCell qrCell = new PdfPCell();
+            qrCell.setBorder(0);
+            qrCell.setPadding(10);
+            try {
+                QRCode qrCode = Encoder.encode(ticketTokenService.issue(ticket), ErrorCorrectionLevel.M);
+                Image qrImage = vectorQrCode(writer, qrCode.getMatrix());
+                qrImage.setAlignment(Element.ALIGN_CENTER);
+                qrCell.addElement(qrImage);
+            } catch (WriterException | BadElementException e) {
+                qrCell.addElement(new Paragraph("QR Code generation failed", layout.valueFont));
+            }
+            Paragraph caption = new Paragraph("Row " + ticket.getSeat().getRowNumber() + ", Seat " + ticket.getSeat().getSeatNumber(), layout.labelFont);
+            caption.setAlignment(Element.ALIGN_CENTER);
+            qrCell.addElement(caption);
+            qrTable.addCell(qrCell);
+        }
+        qrTable.completeRow();
+        return qrTable;
+    }
+
+    // Draws the dark modules as filled rectangles, one per horizontal run, so the code stays sharp at any zoom.
+    // The template is scaled to module units, so the path is written straight into its buffer as small integers.
+    private Image vectorQrCode(PdfWriter writer, ByteMatrix matrix) throws BadElementException {
+        int width = matrix.getWidth();
+        int modules = width + 2 * QR_QUIET_ZONE_MODULES;
+        float moduleSize = QR_SIZE / modules;
+
+        PdfTemplate template = writer.getDirectContent().createTemplate(QR_SIZE, QR_SIZE);
+        template.setColorFill(Color.BLACK);
+        template.concatCTM(moduleSize, 0, 0, moduleSize, 0, 0);
+
+        ByteBuffer path = template.getInternalBuffer();
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int bottom = modules - QR_QUIET_ZONE_MODULES - 1 - y;
+            int x = 0;
+            while (x < width) {
+                if (matrix.get(x, y) != 1) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < width && matrix.get(x, y) == 1) {
+                    x++;
+                }
+                appendInt(path, runStart + QR_QUIET_ZONE_MODULES).append_i(' ');
+                appendInt(path, bottom).append_i(' ');
+                appendInt(path, x - runStart).append(" 1 re\n");
+            }
+        }
+        template.fill();
+        return Image.getInstance(template);
+    }
+
+    private static ByteBuffer appendInt(ByteBuffer buffer, int value) {
+        if (value >= 100) {
+            buffer.append_i('0' + value / 100);
+        }
+        if (value >= 10) {
+            buffer.append_i('0' + value / 10 % 10);
+        }
+        return buffer.append_i('0' + value % 10);
+    }
+
     private void addRow(PdfPTable table, String label, String value, Font labelFont, Font valueFont) {
         PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
         labelCell.setPadding(8);
@@ -149,12 +242,57 @@ public class PdfService {
         return qrOut.toByteArray();
     }
 
-    private String generateTicketData(Ticket ticket, Screening screening) {
-        return String.format("CINEMA_TICKET|Movie:%s|Date:%s|Seat:%d-%d|Type:%s",
-                screening.getMovie().getTitle(),
-                screening.getStartTime(),
-                ticket.getSeat().getRowNumber(),
-                ticket.getSeat().getSeatNumber(),
-                ticket.getTicketType().getName());
+    // Keyed by the printed values, so an edited screening never reuses a stale block
+    private record ScreeningBlockKey(String movieTitle, String startTime, String roomName) {
+    }
+
+    // Static parts of the ticket. Shared instances are only ever copied, never added to a document directly.
+    private static final class TicketLayout {
+        private final Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, Color.WHITE);
+        private final Font subtitleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, Color.DARK_GRAY);
+        private final Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.DARK_GRAY);
+        private final Font valueFont = FontFactory.getFont(FontFactory.HELVETICA, 11, Color.BLACK);
+        private final PdfPTable header = buildHeader();
+        private final PdfPTable seatsHeader = buildSeatsHeader();
+        private final PdfPTable footer = buildFooter();
+
+        private PdfPTable buildHeader() {
+            PdfPTable headerTable = new PdfPTable(1);
+            headerTable.setWidthPercentage(100);
+            PdfPCell headerCell = new PdfPCell(new Phrase("🎬 CINEMA TICKET 🎬", titleFont));
+            headerCell.setBackgroundColor(new Color(44, 62, 80));
+            headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            headerCell.setPadding(15);
+            headerTable.addCell(headerCell);
+            return headerTable;
+        }
+
+        private PdfPTable buildSeatsHeader() {
+            PdfPTable seatsTable = new PdfPTable(4);
+            seatsTable.setWidthPercentage(100);
+            seatsTable.setSpacingBefore(10);
+
+            // Header row
+            String[] headers = {"Row", "Seat", "Type", "Price"};
+            for (String header : headers) {
+                PdfPCell cell = new PdfPCell(new Phrase(header, labelFont));
+                cell.setBackgroundColor(new Color(189, 195, 199));
+                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                cell.setPadding(8);
+                seatsTable.addCell(cell);
+            }
+            return seatsTable;
+        }
+
+        private PdfPTable buildFooter() {
+            PdfPTable footerTable = new PdfPTable(1);
+            footerTable.setWidthPercentage(100);
+            PdfPCell footerCell = new PdfPCell(new Phrase("Thank you for your purchase! Enjoy the movie! 🍿", valueFont));
+            footerCell.setBackgroundColor(new Color(236, 240, 241));
+            footerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            footerCell.setPadding(10);
+            footerTable.addCell(footerCell);
+            return footerTable;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.TicketType;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TicketTypeRepository;
+import io.github.jakubpakula1.cinema.repository.projection.SeatLayoutDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Ticket types and room seat layouts change only through admin work, so the booking paths
+// read them from an immutable snapshot instead of the database. It is loaded on first use;
+// refresh() builds the next version and swaps it in whole, readers keep the one they started with.
+// The ticket types handed out are detached copies: read them, never change them.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+    private static final RoomLayout EMPTY_LAYOUT = new RoomLayout(new int[0], new int[0], new long[0]);
+
+    private final TicketTypeRepository ticketTypeRepository;
+    private final SeatRepository seatRepository;
+
+    private volatile Snapshot snapshot;
+
+    public List<TicketType> getTicketTypes() {
+        return snapshot().ticketTypes();
+    }
+
+    public Optional<TicketType> findTicketType(Long ticketTypeId) {
+        return Optional.ofNullable(snapshot().ticketTypesById().get(ticketTypeId));
+    }
+
+    // A room without seats has an empty layout
+    public RoomLayout getRoomLayout(Long roomId) {
+        return snapshot().layouts().getOrDefault(roomId, EMPTY_LAYOUT);
+    }
+
+    public long getVersion() {
+        return snapshot().version();
+    }
+
+    public synchronized long refresh() {
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+
+        List<TicketType> ticketTypes = ticketTypeRepository.findAll(Sort.by("id")).stream()
+                .map(type -> new TicketType(type.getId(), type.getName(), type.getPrice()))
+                .toList();
+        Map<Long, TicketType> ticketTypesById = new HashMap<>();
+        ticketTypes.forEach(type -> ticketTypesById.put(type.getId(), type));
+
+        Map<Long, List<SeatLayoutDTO>> seatsByRoom = new LinkedHashMap<>();
+        for (SeatLayoutDTO seat : seatRepository.findAllLayouts()) {
+            seatsByRoom.computeIfAbsent(seat.getRoomId(), roomId -> new ArrayList<>()).add(seat);
+        }
+        Map<Long, RoomLayout> layouts = new HashMap<>();
+        seatsByRoom.forEach((roomId, seats) -> layouts.put(roomId, pack(seats)));
+
+        snapshot = new Snapshot(version, ticketTypes, Map.copyOf(ticketTypesById), Map.copyOf(layouts));
+        log.info("Loaded reference data version {}: {} ticket types, {} room layouts", version, ticketTypes.size(), layouts.size());
+        return version;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // Seats arrive in row and seat order already
+    private static RoomLayout pack(List<SeatLayoutDTO> seats) {
+        int[] rowNumbers = new int[seats.size()];
+        int[] seatNumbers = new int[seats.size()];
+        long[] seatIds = new long[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            SeatLayoutDTO seat = seats.get(i);
+            rowNumbers[i] = seat.getRowNumber();
+            seatNumbers[i] = seat.getSeatNumber();
+            seatIds[i] = seat.getSeatId();
+        }
+        return new RoomLayout(rowNumbers, seatNumbers, seatIds);
+    }
+
+    private record Snapshot(long version, List<TicketType> ticketTypes, Map<Long, TicketType> ticketTypesById,
+                            Map<Long, RoomLayout> layouts) {
+    }
+}
@@ -1,26 +1,97 @@
 package io.github.jakubpakula1.cinema.service;
 
-import groovy.util.logging.Slf4j;
+import io.github.jakubpakula1.cinema.dao.ExpiredReservationDAO;
+import io.github.jakubpakula1.cinema.dao.ExpiredReservationDAO.ExpiredReservation;
+import io.github.jakubpakula1.cinema.event.ReservationsExpiredEvent;
 import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-@lombok.extern.slf4j.Slf4j
+// Deletes expired temporary reservations in chunks of one bounded DELETE each, which commit
+// on their own, so a backlog of thousands of rows never holds a long transaction on the table.
+// The expiry wheel calls expire() the moment reservations run out; the periodic sweep is only
+// a safety net for rows the wheel does not know about, e.g. ones written by another instance.
+// Not transactional on purpose: the seats are released as soon as each chunk has committed.
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class ReservationCleanupService {
+    static final String EXPIRED_METRIC = "cinema.reservations.expired";
+    static final String DURATION_METRIC = "cinema.reservations.cleanup";
+
+    private final ExpiredReservationDAO expiredReservationDAO;
     private final TemporaryReservationRepository temporaryReservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cinema.reservations.cleanup-batch-size:1000}")
+    private int batchSize = 1000;
+
+    // Deletes the given reservations that have expired by now. Returns the expiry of the ones
+    // still alive, because they were extended after being scheduled; ids already gone are dropped.
+    public List<ReservationExpiryDTO> expire(Collection<Long> ids) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> remaining = new ArrayList<>(ids);
+        List<ReservationExpiryDTO> alive = new ArrayList<>();
+        int removed = 0;
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+            List<ExpiredReservation> expired = expiredReservationDAO.deleteExpired(chunk, now);
+            release(expired);
+            removed += expired.size();
+            if (expired.size() < chunk.size()) {
+                Set<Long> expiredIds = expired.stream().map(ExpiredReservation::id).collect(Collectors.toSet());
+                alive.addAll(temporaryReservationRepository.findExpiriesByIds(
+                        chunk.stream().filter(id -> !expiredIds.contains(id)).toList()));
+            }
+        }
+        record("timer", removed, started);
+        return alive;
+    }
 
-    @Scheduled(fixedRate = 60000) // Runs every 60 seconds
-    @Transactional
+    @Scheduled(fixedDelayString = "${cinema.reservations.sweep-interval-ms:300000}")
     public void cleanupExpiredReservations() {
-        log.info("Starting cleanup of expired temporary reservations.");
-        temporaryReservationRepository.deleteByExpiresAtBefore(java.time.LocalDateTime.now());
-        log.info("Cleanup of expired temporary reservations completed at {}", LocalDateTime.now());
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        List<ExpiredReservation> expired;
+        do {
+            expired = expiredReservationDAO.deleteExpired(now, batchSize);
+            release(expired);
+            removed += expired.size();
+        } while (expired.size() == batchSize);
+        record("sweep", removed, started);
+        if (removed > 0) {
+            log.info("Sweep removed {} expired temporary reservations in {} ms", removed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    private void release(List<ExpiredReservation> expired) {
+        expired.stream()
+                .collect(Collectors.groupingBy(ExpiredReservation::screeningId, LinkedHashMap::new,
+                        Collectors.mapping(ExpiredReservation::seatId, Collectors.toList())))
+                .forEach((screeningId, seatIds) -> eventPublisher.publishEvent(new ReservationsExpiredEvent(screeningId, seatIds)));
+    }
+
+    private void record(String trigger, int removed, long startedNanos) {
+        meterRegistry.counter(EXPIRED_METRIC, "trigger", trigger).increment(removed);
+        meterRegistry.timer(DURATION_METRIC, "trigger", trigger).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
     }
 }
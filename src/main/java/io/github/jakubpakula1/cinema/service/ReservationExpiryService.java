@@ -0,0 +1,104 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.TemporaryReservation;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Expires temporary reservations at the moment they run out. Every reservation goes into a
+// hierarchical timer wheel keyed on its expiry and a single thread advances the wheel once a
+// tick, handing the due ids to the cleanup. Extensions are not tracked:
+// an extended reservation comes back from the cleanup alive and is put back with its new expiry.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationExpiryService {
+    private final TemporaryReservationRepository temporaryReservationRepository;
+    private final ReservationCleanupService reservationCleanupService;
+
+    @Value("${cinema.reservations.expiry-tick-ms:100}")
+    private long tickMillis = 100;
+    @Value("${cinema.reservations.expiry-retry-ms:1000}")
+    private long retryMillis = 1000;
+
+    private HierarchicalTimerWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void start() {
+        wheel = new HierarchicalTimerWheel(tickMillis, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("reservation-expiry").daemon().factory());
+        ticker.scheduleWithFixedDelay(() -> tick(System.currentTimeMillis()), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    // Reservations left over from before the start, including already expired ones
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedulePending() {
+        List<ReservationExpiryDTO> pending = temporaryReservationRepository.findAllExpiries();
+        pending.forEach(reservation -> schedule(reservation.getId(), reservation.getExpiresAt()));
+        log.info("Scheduled expiry of {} pending temporary reservations", pending.size());
+    }
+
+    public void scheduleAfterCommit(Collection<TemporaryReservation> reservations) {
+        List<ReservationExpiryDTO> expiries = reservations.stream()
+                .map(reservation -> new ReservationExpiryDTO(reservation.getId(), reservation.getExpiresAt()))
+                .toList();
+        afterCommit(() -> expiries.forEach(reservation -> schedule(reservation.getId(), reservation.getExpiresAt())));
+    }
+
+    void tick(long nowMillis) {
+        List<Long> due = wheel.advance(nowMillis);
+        if (due.isEmpty()) {
+            return;
+        }
+        // Any exception escaping here would cancel the ticker for good
+        try {
+            List<ReservationExpiryDTO> alive = reservationCleanupService.expire(due);
+            alive.forEach(reservation -> schedule(reservation.getId(), reservation.getExpiresAt()));
+            log.debug("Expired {} temporary reservations, {} were extended", due.size() - alive.size(), alive.size());
+        } catch (RuntimeException e) {
+            log.error("Expiring {} temporary reservations failed, retrying in {} ms", due.size(), retryMillis, e);
+            due.forEach(id -> wheel.schedule(id, nowMillis + retryMillis));
+        }
+    }
+
+    private void schedule(Long id, LocalDateTime expiresAt) {
+        // Rounded up, so the wheel never fires before the database sees the row as expired
+        wheel.schedule(id, expiresAt.atZone(ZoneId.systemDefault()).toInstant().plusNanos(999_999).toEpochMilli());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,12 +1,17 @@
 package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.booking.BookingSummaryDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationResponseDTO;
 import io.github.jakubpakula1.cinema.dto.reservation.ReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.SeatLockResultDTO;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
 import io.github.jakubpakula1.cinema.model.TicketType;
 import io.github.jakubpakula1.cinema.exception.EmptyCartException;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.*;
+import io.github.jakubpakula1.cinema.service.SeatClaimService.SeatClaim;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,12 +25,11 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class ReservationService {
-    private final SeatRepository seatRepository;
-    private final TicketRepository ticketRepository;
-    private final ScreeningRepository screeningRepository;
     private final TemporaryReservationRepository temporaryReservationRepository;
-    private final UserService userService;
-    private final TicketTypeRepository ticketTypeRepository;
+    private final ReferenceDataService referenceDataService;
+    private final SeatStateService seatStateService;
+    private final SeatClaimService seatClaimService;
+    private final ReservationExpiryService reservationExpiryService;
     @Value("${cinema.reservation-expiration-minutes}")
     private  int RESERVATION_TIME_MINUTES;
 
@@ -33,52 +37,63 @@ public class ReservationService {
     public TemporaryReservation createTemporaryReservation(ReservationRequestDTO request, User user) {
         log.info("Creating temporary reservation for user: {}, seatId: {}, screeningId: {}", user.getId(), request.getSeatId(), request.getScreeningId());
 
-        Seat seat = seatRepository.findSeatWithLock(request.getSeatId())
-                .orElseThrow(() -> {
-                    log.error("Seat not found with ID: {}", request.getSeatId());
-                    return new ResourceNotFoundException("Seat not found");
-                });
-
-        boolean isTaken = temporaryReservationRepository.existsBySeatIdAndScreeningIdAndExpiresAtAfter(
-                seat.getId(),
-                request.getScreeningId(),
-                LocalDateTime.now()
-        );
-
-        boolean isSold = ticketRepository.existsBySeatIdAndScreeningId(
-                seat.getId(),
-                request.getScreeningId()
-        );
-
-        if (isTaken || isSold) {
+        LocalDateTime newExpirationTime = LocalDateTime.now().plusMinutes(RESERVATION_TIME_MINUTES);
+        SeatClaim claim = seatClaimService.claim(request.getScreeningId(), List.of(request.getSeatId()), user, newExpirationTime);
+        if (!claim.locked()) {
             log.warn("Seat {} is already reserved for screening {}", request.getSeatId(), request.getScreeningId());
             throw new IllegalStateException("Seat is already reserved");
         }
 
-        LocalDateTime newExpirationTime = LocalDateTime.now().plusMinutes(RESERVATION_TIME_MINUTES);
-        TemporaryReservation tempReservation = new TemporaryReservation();
-        tempReservation.setSeat(seat);
-        tempReservation.setScreening(screeningRepository.getReferenceById(request.getScreeningId()));
-        tempReservation.setUser(user);
-        tempReservation.setExpiresAt(newExpirationTime);
-
-        temporaryReservationRepository.save(tempReservation);
+        TemporaryReservation tempReservation = claim.reservations().getFirst();
+        reservationExpiryService.scheduleAfterCommit(List.of(tempReservation));
         log.debug("Temporary reservation created with ID: {}, expires at: {}", tempReservation.getId(), newExpirationTime);
 
-        List<TemporaryReservation> userReservations = temporaryReservationRepository
-                .findAllByUserIdAndExpiresAtAfter(user.getId(), LocalDateTime.now());
-
-        log.debug("Updating expiration time for {} existing reservations", userReservations.size());
-        for (TemporaryReservation reservation : userReservations) {
-            if(!reservation.getId().equals(tempReservation.getId())){
-                reservation.setExpiresAt(newExpirationTime);
-            }
-        }
+        extendUserReservations(user, newExpirationTime);
 
         log.info("Reservation created successfully for user: {}", user.getId());
         return tempReservation;
     }
 
+    @Transactional
+    public BatchReservationResponseDTO createTemporaryReservations(BatchReservationRequestDTO request, User user) {
+        log.info("Creating {} temporary reservations for user: {}, screeningId: {}", request.getSeatIds().size(), user.getId(), request.getScreeningId());
+
+        LocalDateTime newExpirationTime = LocalDateTime.now().plusMinutes(RESERVATION_TIME_MINUTES);
+        SeatClaim claim = seatClaimService.claim(request.getScreeningId(), request.getSeatIds(), user, newExpirationTime);
+
+        if (!claim.locked()) {
+            log.warn("Batch reservation rejected for user {} on screening {}: {}", user.getId(), request.getScreeningId(), claim.statuses());
+            return BatchReservationResponseDTO.builder()
+                    .screeningId(request.getScreeningId())
+                    .locked(false)
+                    .seats(claim.statuses().entrySet().stream()
+                            .map(entry -> SeatLockResultDTO.builder()
+                                    .seatId(entry.getKey())
+                                    .status(entry.getValue())
+                                    .build())
+                            .toList())
+                    .build();
+        }
+
+        List<TemporaryReservation> reservations = claim.reservations();
+        reservationExpiryService.scheduleAfterCommit(reservations);
+        extendUserReservations(user, newExpirationTime);
+
+        log.info("{} reservations created successfully for user: {}", reservations.size(), user.getId());
+        return BatchReservationResponseDTO.builder()
+                .screeningId(request.getScreeningId())
+                .locked(true)
+                .expiresAt(newExpirationTime)
+                .seats(reservations.stream()
+                        .map(reservation -> SeatLockResultDTO.builder()
+                                .seatId(reservation.getSeat().getId())
+                                .status(SeatLockStatus.LOCKED)
+                                .reservationId(reservation.getId())
+                                .build())
+                        .toList())
+                .build();
+    }
+
     @Transactional
     public void deleteTemporaryReservation(ReservationRequestDTO request, User user) {
         log.info("Deleting temporary reservation for user: {}, seatId: {}, screeningId: {}", user.getId(), request.getSeatId(), request.getScreeningId());
@@ -95,36 +110,41 @@ public class ReservationService {
         }
 
         temporaryReservationRepository.deleteAll(reservations);
+        seatStateService.releaseAfterCommit(request.getScreeningId(), request.getSeatId());
         log.info("Deleted {} reservation(s) for user: {}", reservations.size(), user.getId());
     }
 
     @Transactional
-    public BookingSummaryDTO prepareSummary(String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
+    public BookingSummaryDTO prepareSummary(Long userId, String userEmail) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime newExpirationTime = now.plusMinutes(RESERVATION_TIME_MINUTES);
 
-        List<TemporaryReservation> reservations = temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(user.getId(), LocalDateTime.now());
-        LocalDateTime newExpirationTime = LocalDateTime.now().plusMinutes(RESERVATION_TIME_MINUTES);
-
-        if (reservations.isEmpty()) {
+        if (temporaryReservationRepository.extendActiveReservations(userId, now, newExpirationTime) == 0) {
             throw new EmptyCartException("Your cart is empty!");
         }
 
-        for (TemporaryReservation reservation : reservations) {
-            reservation.setExpiresAt(newExpirationTime);
+        List<TemporaryReservation> reservations = temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(userId, now);
+        if (reservations.isEmpty()) {
+            throw new EmptyCartException("Your cart is empty!");
         }
 
         Screening screening = reservations.getFirst().getScreening();
         Movie movie = screening.getMovie();
 
-        List<TicketType> ticketTypes = ticketTypeRepository.findAll();
+        List<TicketType> ticketTypes = referenceDataService.getTicketTypes();
 
         return BookingSummaryDTO.builder()
                 .reservations(reservations)
                 .screening(screening)
                 .movie(movie)
                 .ticketTypes(ticketTypes)
-                .user(user)
+                .userEmail(userEmail)
                 .expirationTime(newExpirationTime)
                 .build();
     }
+
+    private void extendUserReservations(User user, LocalDateTime newExpirationTime) {
+        int extended = temporaryReservationRepository.extendActiveReservations(user.getId(), LocalDateTime.now(), newExpirationTime);
+        log.debug("Updated expiration time for {} existing reservations", extended);
+    }
 }
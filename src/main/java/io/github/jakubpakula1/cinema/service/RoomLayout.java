@@ -0,0 +1,40 @@
+package io.github.jakubpakula1.cinema.service;
+
+import java.util.Arrays;
+
+// Seats of one room in row and seat order, packed into parallel primitive arrays.
+// Never modified after construction, a changed room gets a new layout.
+public final class RoomLayout {
+    private final int[] rowNumbers;
+    private final int[] seatNumbers;
+    private final long[] seatIds;
+
+    RoomLayout(int[] rowNumbers, int[] seatNumbers, long[] seatIds) {
+        if (rowNumbers.length != seatNumbers.length || rowNumbers.length != seatIds.length) {
+            throw new IllegalArgumentException("Layout arrays differ in length");
+        }
+        this.rowNumbers = rowNumbers;
+        this.seatNumbers = seatNumbers;
+        this.seatIds = seatIds;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    public int rowNumberAt(int index) {
+        return rowNumbers[index];
+    }
+
+    public int seatNumberAt(int index) {
+        return seatNumbers[index];
+    }
+
+    public long seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    public long[] seatIds() {
+        return Arrays.copyOf(seatIds, seatIds.length);
+    }
+}
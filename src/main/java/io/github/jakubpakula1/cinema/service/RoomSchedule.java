@@ -0,0 +1,72 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Screenings of one room ordered by start time. Any screening overlapping [from, to)
+// starts before `to` and no earlier than `from` minus the longest screening seen, so a
+// lookup only walks that slice of the tree instead of the whole room.
+final class RoomSchedule {
+    private final TreeMap<LocalDateTime, List<ScheduledScreeningDTO>> byStart = new TreeMap<>();
+    private final Map<Long, ScheduledScreeningDTO> byId = new HashMap<>();
+    // Only grows: a removed long screening leaves the slice a little wider, never too narrow
+    private Duration longest = Duration.ZERO;
+
+    RoomSchedule(List<ScheduledScreeningDTO> screenings) {
+        screenings.forEach(this::put);
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    synchronized Set<Long> screeningIds() {
+        return Set.copyOf(byId.keySet());
+    }
+
+    synchronized void put(ScheduledScreeningDTO screening) {
+        remove(screening.getScreeningId());
+        byId.put(screening.getScreeningId(), screening);
+        byStart.computeIfAbsent(screening.getStartTime(), start -> new ArrayList<>(1)).add(screening);
+        Duration length = Duration.between(screening.getStartTime(), screening.getEndTime());
+        if (length.compareTo(longest) > 0) {
+            longest = length;
+        }
+    }
+
+    synchronized void remove(Long screeningId) {
+        ScheduledScreeningDTO previous = byId.remove(screeningId);
+        if (previous == null) {
+            return;
+        }
+        List<ScheduledScreeningDTO> sameStart = byStart.get(previous.getStartTime());
+        sameStart.removeIf(screening -> screening.getScreeningId().equals(screeningId));
+        if (sameStart.isEmpty()) {
+            byStart.remove(previous.getStartTime());
+        }
+    }
+
+    // Ordered by start time; excludeScreeningId may be null
+    synchronized List<ScheduledScreeningDTO> overlapping(LocalDateTime from, LocalDateTime to, Long excludeScreeningId) {
+        List<ScheduledScreeningDTO> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        for (List<ScheduledScreeningDTO> sameStart : byStart.subMap(from.minus(longest), false, to, false).values()) {
+            for (ScheduledScreeningDTO screening : sameStart) {
+                if (screening.getEndTime().isAfter(from) && !screening.getScreeningId().equals(excludeScreeningId)) {
+                    result.add(screening);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory schedule per room, loaded on first use and patched after every committed
+// screening change. New screenings never start in the past, so a room only holds the ones
+// still blocking it: loading skips screenings whose cleaning is over and the eviction of
+// ended screenings drops them later on. Between a commit and its patch another admin can still pass the
+// in-memory check, which is why the screenings table carries an exclusion constraint
+// (see the R__screening_overlap_constraint migration) as the final guard.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomScheduleService implements ScreeningCache {
+    private final ScreeningRepository screeningRepository;
+
+    @Value("${cinema.cleaning-duration-minutes}")
+    private long cleaningDurationInMinutes;
+
+    private final Map<Long, RoomSchedule> schedules = new ConcurrentHashMap<>();
+    // Room of every screening looked up so far; unknown screenings are not remembered
+    private final Map<Long, Long> screeningRooms = new ConcurrentHashMap<>();
+
+    public Optional<Long> findRoomId(Long screeningId) {
+        return Optional.ofNullable(screeningRooms.computeIfAbsent(screeningId,
+                id -> screeningRepository.findRoomIdById(id).orElse(null)));
+    }
+
+    public List<ScheduledScreeningDTO> findOverlapping(Long roomId, LocalDateTime from, LocalDateTime to) {
+        return findOverlapping(roomId, from, to, null);
+    }
+
+    public List<ScheduledScreeningDTO> findOverlapping(Long roomId, LocalDateTime from, LocalDateTime to, Long excludeScreeningId) {
+        return getOrLoad(roomId).overlapping(from, to, excludeScreeningId);
+    }
+
+    public boolean hasOverlap(Long roomId, LocalDateTime from, LocalDateTime to, Long excludeScreeningId) {
+        return !findOverlapping(roomId, from, to, excludeScreeningId).isEmpty();
+    }
+
+    // A room that is not loaded yet picks the change up from the database when it is
+    public void putAfterCommit(ScheduledScreeningDTO screening) {
+        afterCommit(() -> {
+            schedules.computeIfPresent(screening.getRoomId(), (roomId, schedule) -> {
+                schedule.put(screening);
+                return schedule;
+            });
+            screeningRooms.computeIfPresent(screening.getScreeningId(), (id, roomId) -> screening.getRoomId());
+        });
+    }
+
+    public void removeAfterCommit(Long roomId, Long screeningId) {
+        afterCommit(() -> {
+            schedules.computeIfPresent(roomId, (id, schedule) -> {
+                schedule.remove(screeningId);
+                return schedule;
+            });
+            screeningRooms.remove(screeningId);
+        });
+    }
+
+    @Override
+    public Set<Long> cachedScreeningIds() {
+        Set<Long> screeningIds = new HashSet<>(screeningRooms.keySet());
+        schedules.values().forEach(schedule -> screeningIds.addAll(schedule.screeningIds()));
+        return screeningIds;
+    }
+
+    @Override
+    public void evictScreenings(Collection<Long> screeningIds) {
+        screeningRooms.keySet().removeAll(screeningIds);
+        schedules.values().forEach(schedule -> screeningIds.forEach(schedule::remove));
+    }
+
+    // Deleting a movie cascades to its screenings and renaming it changes what collisions
+    // show, so the rooms are simply reloaded
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        schedules.clear();
+        screeningRooms.clear();
+    }
+
+    // Loading inside computeIfAbsent makes a patch for the same room wait for the load, so
+    // a row read just before a commit is still corrected by that commit's patch
+    private RoomSchedule getOrLoad(Long roomId) {
+        return schedules.computeIfAbsent(roomId, id -> {
+            List<ScheduledScreeningDTO> screenings = screeningRepository.findScheduleByRoomId(id,
+                    LocalDateTime.now().minusMinutes(cleaningDurationInMinutes));
+            log.debug("Loaded schedule of room {} with {} screenings", id, screenings.size());
+            return new RoomSchedule(screenings);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
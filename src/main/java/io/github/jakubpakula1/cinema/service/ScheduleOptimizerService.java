@@ -0,0 +1,213 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.screening.MovieDemandDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanRequestDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.repository.MovieRepository;
+import io.github.jakubpakula1.cinema.repository.RoomRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import io.github.jakubpakula1.cinema.service.WeeklySchedulePlanner.Busy;
+import io.github.jakubpakula1.cinema.service.WeeklySchedulePlanner.Demand;
+import io.github.jakubpakula1.cinema.service.WeeklySchedulePlanner.Placement;
+import io.github.jakubpakula1.cinema.service.WeeklySchedulePlanner.Plan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Plans a week of screenings around the existing schedule. Every worker keeps building
+// randomized greedy plans until the time budget runs out and the best plan wins: most
+// requested showings placed first, then prime-time starts, then preferred windows.
+// Nothing is written here; the plan is committed by posting it to the bulk import.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduleOptimizerService {
+    private final MovieRepository movieRepository;
+    private final RoomRepository roomRepository;
+    private final RoomScheduleService roomScheduleService;
+
+    @Value("${cinema.cleaning-duration-minutes}")
+    private long cleaningDurationInMinutes;
+    @Value("${cinema.scheduling.opening-time:10:00}")
+    private LocalTime openingTime = LocalTime.of(10, 0);
+    // Latest end of a screening, on the day it starts
+    @Value("${cinema.scheduling.closing-time:23:45}")
+    private LocalTime closingTime = LocalTime.of(23, 45);
+    @Value("${cinema.scheduling.prime-time-start:18:00}")
+    private LocalTime primeTimeStart = LocalTime.of(18, 0);
+    @Value("${cinema.scheduling.prime-time-end:22:00}")
+    private LocalTime primeTimeEnd = LocalTime.of(22, 0);
+    @Value("${cinema.scheduling.slot-minutes:15}")
+    private int slotMinutes = 15;
+    @Value("${cinema.scheduling.time-budget-ms:500}")
+    private long timeBudgetMs = 500;
+    // 0 uses every available core
+    @Value("${cinema.scheduling.workers:0}")
+    private int workers;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(workerCount());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public SchedulePlanDTO plan(SchedulePlanRequestDTO request) {
+        List<MovieDemandDTO> demands = request.getMovies();
+        Map<Long, Movie> movies = movieRepository.findAllById(demands.stream().map(MovieDemandDTO::getMovieId).toList()).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        for (MovieDemandDTO demand : demands) {
+            if (!movies.containsKey(demand.getMovieId())) {
+                throw new ResourceNotFoundException("Invalid movie ID: " + demand.getMovieId());
+            }
+        }
+        List<Room> rooms = (request.getRoomIds() == null || request.getRoomIds().isEmpty()
+                ? roomRepository.findAll()
+                : roomRepository.findAllById(request.getRoomIds())).stream()
+                .sorted(Comparator.comparing(Room::getId))
+                .toList();
+
+        LocalDateTime weekStart = request.getWeekStart().atStartOfDay();
+        WeeklySchedulePlanner planner = new WeeklySchedulePlanner(
+                demands.stream().map(demand -> toDemand(demand, movies.get(demand.getMovieId()))).toList(),
+                rooms.stream().map(room -> busy(room, weekStart)).toList(),
+                earliestStart(weekStart),
+                openingTime.toSecondOfDay() / 60,
+                closingTime.toSecondOfDay() / 60,
+                primeTimeStart.toSecondOfDay() / 60,
+                primeTimeEnd.toSecondOfDay() / 60,
+                slotMinutes,
+                (int) cleaningDurationInMinutes);
+
+        long deadline = System.nanoTime() + Duration.ofMillis(timeBudgetMs).toNanos();
+        SplittableRandom seeds = new SplittableRandom();
+        List<Callable<Search>> searches = new ArrayList<>();
+        for (int i = 0; i < workerCount(); i++) {
+            SplittableRandom random = seeds.split();
+            searches.add(() -> search(planner, random, deadline));
+        }
+
+        Plan best = null;
+        long candidatePlans = 0;
+        try {
+            for (Future<Search> future : executor.invokeAll(searches)) {
+                Search search = future.get();
+                candidatePlans += search.plans();
+                if (best == null || search.best().score() > best.score()) {
+                    best = search.best();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Schedule planning was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Schedule planning failed", e.getCause());
+        }
+
+        log.info("Planned week of {}: {} candidate plans, {} showings placed, {} in prime time",
+                request.getWeekStart(), candidatePlans, best.placements().size(), best.primeTime());
+        return toDto(request, rooms, best, candidatePlans);
+    }
+
+    // At least one plan per worker, even when the budget is already spent
+    private Search search(WeeklySchedulePlanner planner, SplittableRandom random, long deadline) {
+        Plan best = planner.construct(random);
+        long plans = 1;
+        while (System.nanoTime() < deadline) {
+            Plan plan = planner.construct(random);
+            plans++;
+            if (plan.score() > best.score()) {
+                best = plan;
+            }
+        }
+        return new Search(best, plans);
+    }
+
+    private Demand toDemand(MovieDemandDTO demand, Movie movie) {
+        boolean window = demand.getPreferredFrom() != null && demand.getPreferredTo() != null;
+        return new Demand(
+                movie.getDurationInMinutes(),
+                demand.getShowings(),
+                window ? demand.getPreferredFrom().toSecondOfDay() / 60 : -1,
+                window ? demand.getPreferredTo().toSecondOfDay() / 60 : -1);
+    }
+
+    private List<Busy> busy(Room room, LocalDateTime weekStart) {
+        List<ScheduledScreeningDTO> existing = roomScheduleService.findOverlapping(room.getId(),
+                weekStart.minusMinutes(cleaningDurationInMinutes),
+                weekStart.plusDays(WeeklySchedulePlanner.DAYS).plusMinutes(cleaningDurationInMinutes));
+        return existing.stream()
+                .map(screening -> new Busy(
+                        (int) Duration.between(weekStart, screening.getStartTime()).toMinutes(),
+                        (int) Duration.between(weekStart, screening.getEndTime()).toMinutes()))
+                .toList();
+    }
+
+    private int earliestStart(LocalDateTime weekStart) {
+        long minutes = Duration.between(weekStart, LocalDateTime.now()).toMinutes() + 1;
+        return (int) Math.clamp(minutes, 0, (long) WeeklySchedulePlanner.DAYS * WeeklySchedulePlanner.MINUTES_PER_DAY);
+    }
+
+    private SchedulePlanDTO toDto(SchedulePlanRequestDTO request, List<Room> rooms, Plan plan, long candidatePlans) {
+        LocalDateTime weekStart = request.getWeekStart().atStartOfDay();
+        List<MovieDemandDTO> demands = request.getMovies();
+
+        Map<Long, Integer> missing = new LinkedHashMap<>();
+        demands.forEach(demand -> missing.merge(demand.getMovieId(), demand.getShowings(), Integer::sum));
+        List<ScreeningDTO> screenings = new ArrayList<>(plan.placements().size());
+        for (Placement placement : plan.placements()) {
+            Long movieId = demands.get(placement.movie()).getMovieId();
+            missing.merge(movieId, -1, Integer::sum);
+            screenings.add(ScreeningDTO.builder()
+                    .movieId(movieId)
+                    .roomId(rooms.get(placement.room()).getId())
+                    .screeningTime(weekStart.plusMinutes(placement.start()))
+                    .build());
+        }
+        missing.values().removeIf(count -> count == 0);
+        screenings.sort(Comparator.comparing(ScreeningDTO::getScreeningTime).thenComparing(ScreeningDTO::getRoomId));
+
+        return SchedulePlanDTO.builder()
+                .weekStart(request.getWeekStart())
+                .requestedShowings(demands.stream().mapToInt(MovieDemandDTO::getShowings).sum())
+                .plannedShowings(screenings.size())
+                .primeTimeShowings(plan.primeTime())
+                .preferredWindowShowings(plan.inWindow())
+                .candidatePlans(candidatePlans)
+                .missingShowings(missing)
+                .screenings(screenings)
+                .build();
+    }
+
+    private int workerCount() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    private record Search(Plan best, long plans) {
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.jakubpakula1.cinema.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+// In-memory state held per screening. ScreeningCacheEvictionService asks every implementation
+// which screenings it holds and drops the ones that have ended.
+interface ScreeningCache {
+    Set<Long> cachedScreeningIds();
+
+    void evictScreenings(Collection<Long> screeningIds);
+}
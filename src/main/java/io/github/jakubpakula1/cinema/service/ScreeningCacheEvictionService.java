@@ -0,0 +1,52 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Drops the in-memory state of screenings that have ended, on the schedule of the reservation
+// sweep. A screening counts as ended once its room has been cleaned, the overlap check of the
+// next screening in the room needs it until then. The screenings table decides what is still
+// running, so state of screenings deleted in the meantime goes as well.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScreeningCacheEvictionService {
+    private final List<ScreeningCache> caches;
+    private final ScreeningRepository screeningRepository;
+
+    @Value("${cinema.cleaning-duration-minutes}")
+    private long cleaningDurationInMinutes;
+    @Value("${cinema.reservations.cleanup-batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Scheduled(fixedDelayString = "${cinema.reservations.sweep-interval-ms:300000}")
+    public void evictEndedScreenings() {
+        Set<Long> cached = new HashSet<>();
+        caches.forEach(cache -> cached.addAll(cache.cachedScreeningIds()));
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(cleaningDurationInMinutes);
+        List<Long> ids = new ArrayList<>(cached);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            screeningRepository.findIdsEndingAfter(chunk, cutoff).forEach(cached::remove);
+        }
+        if (cached.isEmpty()) {
+            return;
+        }
+        caches.forEach(cache -> cache.evictScreenings(cached));
+        log.info("Evicted in-memory state of {} ended screenings", cached.size());
+    }
+}
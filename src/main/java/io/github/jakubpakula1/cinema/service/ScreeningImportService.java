@@ -0,0 +1,290 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dao.ScreeningBatchDAO;
+import io.github.jakubpakula1.cinema.dao.ScreeningBatchDAO.NewScreening;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportResultDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportRowDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningRecurrenceDTO;
+import io.github.jakubpakula1.cinema.enums.ScreeningImportStatus;
+import io.github.jakubpakula1.cinema.event.ScreeningScheduleChangedEvent;
+import io.github.jakubpakula1.cinema.exception.ScreeningOverlapException;
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.repository.MovieRepository;
+import io.github.jakubpakula1.cinema.repository.RoomRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Schedules many screenings in one request. Every row is checked against the rows before it
+// and against the room's existing screenings in one sweep per room, the rows that pass are
+// inserted in a single JDBC batch, and every row comes back with its own status.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScreeningImportService {
+    private final MovieRepository movieRepository;
+    private final RoomRepository roomRepository;
+    private final RoomScheduleService roomScheduleService;
+    private final ScreeningBatchDAO screeningBatchDAO;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${cinema.cleaning-duration-minutes}")
+    private long cleaningDurationInMinutes;
+
+    // Upper bound for one import, so a mistyped recurrence cannot schedule years of screenings
+    @Value("${cinema.screenings.import-max-rows:5000}")
+    private int maxRows = 5000;
+
+    @Transactional
+    public ScreeningImportResultDTO importScreenings(List<ScreeningDTO> screenings, boolean dryRun) {
+        checkSize(screenings.size());
+        List<ScreeningImportRowDTO> rows = new ArrayList<>(screenings.size());
+        for (int i = 0; i < screenings.size(); i++) {
+            ScreeningDTO screening = screenings.get(i);
+            rows.add(ScreeningImportRowDTO.builder()
+                    .row(i + 1)
+                    .movieId(screening.getMovieId())
+                    .roomId(screening.getRoomId())
+                    .screeningTime(screening.getScreeningTime())
+                    .build());
+        }
+        return process(rows, dryRun);
+    }
+
+    // One screening per line as movieId,roomId,screeningTime with an ISO date-time
+    // (2025-01-31T18:30). A header line and blank lines are skipped.
+    @Transactional
+    public ScreeningImportResultDTO importCsv(String csv, boolean dryRun) {
+        List<ScreeningImportRowDTO> rows = new ArrayList<>();
+        String[] lines = csv.split("\\R");
+        boolean firstLine = true;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (!firstLine || Character.isDigit(line.charAt(0))) {
+                rows.add(parseCsvLine(i + 1, line));
+            }
+            firstLine = false;
+        }
+        checkSize(rows.size());
+        return process(rows, dryRun);
+    }
+
+    @Transactional
+    public ScreeningImportResultDTO importRecurrence(ScreeningRecurrenceDTO recurrence, boolean dryRun) {
+        if (recurrence.getEndDate().isBefore(recurrence.getStartDate())) {
+            throw new IllegalArgumentException("Recurrence ends before it starts");
+        }
+        List<LocalTime> times = recurrence.getTimes().stream().sorted().toList();
+        List<ScreeningImportRowDTO> rows = new ArrayList<>();
+        for (LocalDate date = recurrence.getStartDate(); !date.isAfter(recurrence.getEndDate()); date = date.plusDays(1)) {
+            if (recurrence.getDaysOfWeek() != null && !recurrence.getDaysOfWeek().isEmpty()
+                    && !recurrence.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            for (LocalTime time : times) {
+                checkSize(rows.size() + 1);
+                rows.add(ScreeningImportRowDTO.builder()
+                        .row(rows.size() + 1)
+                        .movieId(recurrence.getMovieId())
+                        .roomId(recurrence.getRoomId())
+                        .screeningTime(date.atTime(time))
+                        .build());
+            }
+        }
+        return process(rows, dryRun);
+    }
+
+    private ScreeningImportResultDTO process(List<ScreeningImportRowDTO> rows, boolean dryRun) {
+        Set<Long> movieIds = new HashSet<>();
+        Set<Long> roomIds = new HashSet<>();
+        for (ScreeningImportRowDTO row : rows) {
+            if (row.getStatus() == null && row.getMovieId() != null && row.getRoomId() != null) {
+                movieIds.add(row.getMovieId());
+                roomIds.add(row.getRoomId());
+            }
+        }
+        Map<Long, Movie> movies = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        List<ScreeningImportRowDTO> candidates = validate(rows, movies, rooms);
+
+        Map<Long, List<ScreeningImportRowDTO>> candidatesByRoom = candidates.stream()
+                .collect(Collectors.groupingBy(ScreeningImportRowDTO::getRoomId));
+        candidatesByRoom.forEach(this::sweep);
+
+        List<ScreeningImportRowDTO> accepted = candidates.stream()
+                .filter(row -> row.getStatus() == null)
+                .toList();
+        if (dryRun) {
+            accepted.forEach(row -> row.setStatus(ScreeningImportStatus.VALID));
+        } else if (!accepted.isEmpty()) {
+            insert(accepted, movies, rooms);
+        }
+
+        int rejected = rows.size() - accepted.size();
+        log.info("Screening import{}: {} accepted, {} rejected", dryRun ? " (dry run)" : "", accepted.size(), rejected);
+        return ScreeningImportResultDTO.builder()
+                .dryRun(dryRun)
+                .accepted(accepted.size())
+                .rejected(rejected)
+                .rows(rows)
+                .build();
+    }
+
+    // Marks rows that can never be scheduled and fills in the end time of the others
+    private List<ScreeningImportRowDTO> validate(List<ScreeningImportRowDTO> rows, Map<Long, Movie> movies, Map<Long, Room> rooms) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScreeningImportRowDTO> candidates = new ArrayList<>(rows.size());
+        for (ScreeningImportRowDTO row : rows) {
+            if (row.getStatus() != null) {
+                continue;
+            }
+            Movie movie = movies.get(row.getMovieId());
+            if (row.getMovieId() == null || row.getRoomId() == null || row.getScreeningTime() == null) {
+                reject(row, "movieId, roomId and screeningTime are required");
+            } else if (movie == null) {
+                reject(row, "Invalid movie ID: " + row.getMovieId());
+            } else if (!rooms.containsKey(row.getRoomId())) {
+                reject(row, "Room Not Found");
+            } else if (row.getScreeningTime().isBefore(now)) {
+                reject(row, "Screening time is in the past");
+            } else {
+                row.setEndTime(row.getScreeningTime().plusMinutes(movie.getDurationInMinutes()));
+                candidates.add(row);
+            }
+        }
+        return candidates;
+    }
+
+    // Walks the room's existing screenings and the new rows in start order. A row is accepted
+    // when it clears the accepted slot that ends last so far (existing or new) and the next
+    // existing screening after it. Existing screenings always stay, so on equal start times
+    // they come first and the row conflicts with them.
+    private void sweep(Long roomId, List<ScreeningImportRowDTO> rows) {
+        LocalDateTime from = rows.stream().map(ScreeningImportRowDTO::getScreeningTime).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = rows.stream().map(ScreeningImportRowDTO::getEndTime).max(Comparator.naturalOrder()).orElseThrow();
+        List<ScheduledScreeningDTO> existing = roomScheduleService.findOverlapping(roomId,
+                from.minusMinutes(cleaningDurationInMinutes), to.plusMinutes(cleaningDurationInMinutes));
+
+        List<Slot> slots = new ArrayList<>(existing.size() + rows.size());
+        existing.forEach(screening -> slots.add(new Slot(screening.getStartTime(), screening.getEndTime(), screening, null)));
+        rows.forEach(row -> slots.add(new Slot(row.getScreeningTime(), row.getEndTime(), null, row)));
+        slots.sort(Comparator.comparing(Slot::start).thenComparing(slot -> slot.row() != null));
+
+        Slot[] nextExisting = new Slot[slots.size() + 1];
+        for (int i = slots.size() - 1; i >= 0; i--) {
+            nextExisting[i] = slots.get(i).existing() != null ? slots.get(i) : nextExisting[i + 1];
+        }
+
+        Slot lastEnding = null;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            if (slot.row() != null) {
+                Slot blocking = null;
+                if (lastEnding != null && slot.start().isBefore(lastEnding.end().plusMinutes(cleaningDurationInMinutes))) {
+                    blocking = lastEnding;
+                } else if (nextExisting[i + 1] != null
+                        && nextExisting[i + 1].start().isBefore(slot.end().plusMinutes(cleaningDurationInMinutes))) {
+                    blocking = nextExisting[i + 1];
+                }
+                if (blocking != null) {
+                    conflict(slot.row(), blocking);
+                    continue;
+                }
+            }
+            if (lastEnding == null || slot.end().isAfter(lastEnding.end())) {
+                lastEnding = slot;
+            }
+        }
+    }
+
+    private void insert(List<ScreeningImportRowDTO> rows, Map<Long, Movie> movies, Map<Long, Room> rooms) {
+        List<NewScreening> screenings = rows.stream()
+                .map(row -> new NewScreening(row.getMovieId(), row.getRoomId(), row.getScreeningTime(), row.getEndTime()))
+                .toList();
+        List<Long> ids;
+        try {
+            ids = screeningBatchDAO.insertAll(screenings);
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains(ScreeningService.OVERLAP_CONSTRAINT)) {
+                log.warn("Screening import overlaps with a concurrent schedule change");
+                throw new ScreeningOverlapException("Screenings were scheduled concurrently, nothing was imported.");
+            }
+            throw e;
+        }
+
+        Set<LocalDate> dates = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ScreeningImportRowDTO row = rows.get(i);
+            row.setScreeningId(ids.get(i));
+            row.setStatus(ScreeningImportStatus.CREATED);
+            roomScheduleService.putAfterCommit(new ScheduledScreeningDTO(ids.get(i), row.getRoomId(), row.getScreeningTime(),
+                    row.getEndTime(), movies.get(row.getMovieId()).getTitle(), rooms.get(row.getRoomId()).getName()));
+            dates.add(row.getScreeningTime().toLocalDate());
+        }
+        eventPublisher.publishEvent(new ScreeningScheduleChangedEvent(dates));
+    }
+
+    private ScreeningImportRowDTO parseCsvLine(int lineNumber, String line) {
+        ScreeningImportRowDTO row = ScreeningImportRowDTO.builder().row(lineNumber).build();
+        String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            reject(row, "Expected movieId,roomId,screeningTime");
+            return row;
+        }
+        try {
+            row.setMovieId(Long.valueOf(columns[0].strip()));
+            row.setRoomId(Long.valueOf(columns[1].strip()));
+            row.setScreeningTime(LocalDateTime.parse(columns[2].strip()));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            reject(row, "Cannot parse line: " + line);
+        }
+        return row;
+    }
+
+    private void checkSize(int rows) {
+        if (rows > maxRows) {
+            throw new IllegalArgumentException("An import is limited to " + maxRows + " screenings");
+        }
+    }
+
+    private static void reject(ScreeningImportRowDTO row, String message) {
+        row.setStatus(ScreeningImportStatus.INVALID);
+        row.setMessage(message);
+    }
+
+    private static void conflict(ScreeningImportRowDTO row, Slot blocking) {
+        row.setStatus(ScreeningImportStatus.CONFLICT);
+        if (blocking.existing() != null) {
+            row.setConflictingScreeningId(blocking.existing().getScreeningId());
+            row.setMessage("Overlaps with " + blocking.existing().getMovieTitle() + " at " + blocking.start());
+        } else {
+            row.setConflictingRow(blocking.row().getRow());
+            row.setMessage("Overlaps with row " + blocking.row().getRow());
+        }
+    }
+
+    private record Slot(LocalDateTime start, LocalDateTime end, ScheduledScreeningDTO existing, ScreeningImportRowDTO row) {
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.enums.SeatState;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Seat states of one screening packed two bits per seat, 32 seats per word.
+// Every transition is a CAS on a single word, so claims never block each other.
+// Versions come from a clock shared by all screenings, so a version handed out by
+// an evicted bitmap is always older than anything its reloaded successor returns.
+// The occupied count (locked + sold) follows every FREE <-> taken transition.
+final class ScreeningSeatBitmap {
+    private static final int BITS_PER_SEAT = 2;
+    private static final int SEATS_PER_WORD = Long.SIZE / BITS_PER_SEAT;
+    private static final long STATE_MASK = (1L << BITS_PER_SEAT) - 1;
+
+    private final long[] seatIds;
+    private final AtomicLongArray words;
+    private final AtomicLong clock;
+    private final long baseVersion;
+    private final long[] changedAt;
+    private final AtomicInteger occupied = new AtomicInteger();
+    private long version;
+
+    ScreeningSeatBitmap(long[] seatIds, AtomicLong clock) {
+        this.seatIds = seatIds.clone();
+        Arrays.sort(this.seatIds);
+        this.words = new AtomicLongArray((this.seatIds.length + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+        this.clock = clock;
+        this.changedAt = new long[this.seatIds.length];
+        this.baseVersion = clock.incrementAndGet();
+        this.version = baseVersion;
+    }
+
+    int size() {
+        return seatIds.length;
+    }
+
+    int indexOf(long seatId) {
+        int index = Arrays.binarySearch(seatIds, seatId);
+        return index >= 0 ? index : -1;
+    }
+
+    int occupied() {
+        return occupied.get();
+    }
+
+    long seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    SeatState get(int index) {
+        long word = words.get(index / SEATS_PER_WORD);
+        return SeatState.fromCode((int) ((word >>> shift(index)) & STATE_MASK));
+    }
+
+    boolean compareAndSet(int index, SeatState expected, SeatState next) {
+        int wordIndex = index / SEATS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(wordIndex);
+            if (((current >>> shift) & STATE_MASK) != expected.ordinal()) {
+                return false;
+            }
+            long updated = (current & ~(STATE_MASK << shift)) | ((long) next.ordinal() << shift);
+            if (words.compareAndSet(wordIndex, current, updated)) {
+                if (expected != next) {
+                    adjustOccupancy(expected, next);
+                    recordChange(index);
+                }
+                return true;
+            }
+        }
+    }
+
+    SeatState set(int index, SeatState next) {
+        int wordIndex = index / SEATS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(wordIndex);
+            long updated = (current & ~(STATE_MASK << shift)) | ((long) next.ordinal() << shift);
+            if (words.compareAndSet(wordIndex, current, updated)) {
+                SeatState previous = SeatState.fromCode((int) ((current >>> shift) & STATE_MASK));
+                if (previous != next) {
+                    adjustOccupancy(previous, next);
+                    recordChange(index);
+                }
+                return previous;
+            }
+        }
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    // A client version from before this bitmap was loaded (or from the future) cannot be
+    // answered with a delta, so it gets every seat back.
+    synchronized Changes changesSince(long since) {
+        boolean full = since < baseVersion || since > version;
+        int[] indexes = new int[seatIds.length];
+        int count = 0;
+        for (int i = 0; i < seatIds.length; i++) {
+            if (full || changedAt[i] > since) {
+                indexes[count++] = i;
+            }
+        }
+        return new Changes(version, full, Arrays.copyOf(indexes, count));
+    }
+
+    // The state word is updated first, so a reader may briefly see a new state under the
+    // old version; the seat is then reported again on the next poll.
+    private synchronized void recordChange(int index) {
+        version = clock.incrementAndGet();
+        changedAt[index] = version;
+    }
+
+    private void adjustOccupancy(SeatState previous, SeatState next) {
+        if (previous == SeatState.FREE) {
+            occupied.incrementAndGet();
+        } else if (next == SeatState.FREE) {
+            occupied.decrementAndGet();
+        }
+    }
+
+    private static int shift(int index) {
+        return (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+    }
+
+    record Changes(long version, boolean full, int[] indexes) {
+    }
+}
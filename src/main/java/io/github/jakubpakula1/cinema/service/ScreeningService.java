@@ -1,43 +1,66 @@
 package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.screening.*;
+import io.github.jakubpakula1.cinema.dto.seat.SeatOccupancyDTO;
 import io.github.jakubpakula1.cinema.dto.seat.SeatStatusDTO;
-import io.github.jakubpakula1.cinema.dto.seat.SeatUserLockDTO;
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
+import io.github.jakubpakula1.cinema.event.ScreeningScheduleChangedEvent;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.exception.ScreeningDateInPastException;
 import io.github.jakubpakula1.cinema.exception.ScreeningOverlapException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.*;
+import io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO;
+import io.github.jakubpakula1.cinema.repository.projection.RepertoireScreeningDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ScreeningService {
+    // Exclusion constraint from the R__screening_overlap_constraint migration
+    public static final String OVERLAP_CONSTRAINT = "screenings_no_overlap";
+
     private final ScreeningRepository screeningRepository;
     private final MovieRepository movieRepository;
     private final RoomRepository roomRepository;
-    private final TicketRepository ticketRepository;
-    private final TemporaryReservationRepository temporaryReservationRepository;
     @Value("${cinema.cleaning-duration-minutes}")
     private long cleaningDurationInMinutes;
     private final SeatRepository seatRepository;
+    private final ReferenceDataService referenceDataService;
+    private final SeatStateService seatStateService;
+    private final RoomScheduleService roomScheduleService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Days from today whose repertoire is cached; older and further days are always loaded
+    @Value("${cinema.repertoire.cache-days:14}")
+    private int repertoireCacheDays = 14;
+    private final Map<LocalDate, List<RepertoireMovie>> repertoireCache = new ConcurrentHashMap<>();
 
-    public  ScreeningService(ScreeningRepository screeningRepository, MovieRepository movieRepository, RoomRepository roomRepository, TicketRepository ticketRepository, TemporaryReservationRepository temporaryReservationRepository, SeatRepository seatRepository) {
+    public  ScreeningService(ScreeningRepository screeningRepository, MovieRepository movieRepository, RoomRepository roomRepository, SeatRepository seatRepository, ReferenceDataService referenceDataService, SeatStateService seatStateService, RoomScheduleService roomScheduleService, ApplicationEventPublisher eventPublisher) {
         this.screeningRepository = screeningRepository;
         this.movieRepository = movieRepository;
         this.roomRepository = roomRepository;
         this.seatRepository = seatRepository;
-        this.ticketRepository = ticketRepository;
-        this.temporaryReservationRepository = temporaryReservationRepository;
+        this.referenceDataService = referenceDataService;
+        this.seatStateService = seatStateService;
+        this.roomScheduleService = roomScheduleService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -103,10 +126,11 @@ public class ScreeningService {
 
         LocalDateTime endTime = screeningDTO.getScreeningTime().plusMinutes(movie.getDurationInMinutes());
 
-        boolean isOverlapping = screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        boolean isOverlapping = roomScheduleService.hasOverlap(
                 screeningDTO.getRoomId(),
+                screeningDTO.getScreeningTime().minusMinutes(cleaningDurationInMinutes),
                 endTime.plusMinutes(cleaningDurationInMinutes),
-                screeningDTO.getScreeningTime().minusMinutes(cleaningDurationInMinutes)
+                null
         );
 
         if(isOverlapping) {
@@ -120,7 +144,9 @@ public class ScreeningService {
         screening.setStartTime(screeningDTO.getScreeningTime());
         screening.setEndTime(endTime);
 
-        screeningRepository.save(screening);
+        saveChecked(screening);
+        roomScheduleService.putAfterCommit(toScheduled(screening));
+        eventPublisher.publishEvent(new ScreeningScheduleChangedEvent(Set.of(screening.getStartTime().toLocalDate())));
         log.info("Screening created successfully with ID: {}", screening.getId());
     }
 
@@ -153,10 +179,10 @@ public class ScreeningService {
 
         LocalDateTime endTime = screeningDTO.getScreeningTime().plusMinutes(movie.getDurationInMinutes());
 
-        boolean isOverlapping = screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        boolean isOverlapping = roomScheduleService.hasOverlap(
                 screeningDTO.getRoomId(),
-                endTime.plusMinutes(cleaningDurationInMinutes),
                 screeningDTO.getScreeningTime().minusMinutes(cleaningDurationInMinutes),
+                endTime.plusMinutes(cleaningDurationInMinutes),
                 screeningId
         );
 
@@ -165,11 +191,18 @@ public class ScreeningService {
             throw new ScreeningOverlapException("Screening overlaps with an existing screening in the same room.");
         }
 
+        if (!existingScreening.getRoom().getId().equals(room.getId())) {
+            seatStateService.evictAfterCommit(screeningId);
+            roomScheduleService.removeAfterCommit(existingScreening.getRoom().getId(), screeningId);
+        }
+        eventPublisher.publishEvent(new ScreeningScheduleChangedEvent(new HashSet<>(List.of(
+                existingScreening.getStartTime().toLocalDate(), screeningDTO.getScreeningTime().toLocalDate()))));
         existingScreening.setMovie(movie);
         existingScreening.setRoom(room);
         existingScreening.setStartTime(screeningDTO.getScreeningTime());
         existingScreening.setEndTime(endTime);
-        screeningRepository.save(existingScreening);
+        saveChecked(existingScreening);
+        roomScheduleService.putAfterCommit(toScheduled(existingScreening));
         log.info("Screening ID: {} updated successfully", screeningId);
     }
 
@@ -184,21 +217,23 @@ public class ScreeningService {
                 });
 
         screeningRepository.delete(screening);
+        seatStateService.evictAfterCommit(screeningId);
+        roomScheduleService.removeAfterCommit(screening.getRoom().getId(), screeningId);
+        eventPublisher.publishEvent(new ScreeningScheduleChangedEvent(Set.of(screening.getStartTime().toLocalDate())));
         log.info("Screening ID: {} deleted successfully", screeningId);
     }
 
-    @Transactional(readOnly = true)
     public List<CollisionDTO> getCollidingScreenings(Long roomId, LocalDateTime proposedStartTime, LocalDateTime proposedEndTime) {
-        List<Screening> screenings = screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        List<ScheduledScreeningDTO> screenings = roomScheduleService.findOverlapping(
                 roomId,
-                proposedEndTime.plusMinutes(cleaningDurationInMinutes),
-                proposedStartTime.minusMinutes(cleaningDurationInMinutes)
+                proposedStartTime.minusMinutes(cleaningDurationInMinutes),
+                proposedEndTime.plusMinutes(cleaningDurationInMinutes)
         );
 
         return screenings.stream()
                 .map(screening -> CollisionDTO.builder()
-                        .movieTitle(screening.getMovie().getTitle())
-                        .roomName(screening.getRoom().getName())
+                        .movieTitle(screening.getMovieTitle())
+                        .roomName(screening.getRoomName())
                         .screeningTime(screening.getStartTime())
                         .endTime(screening.getEndTime())
                         .cleaningDurationMinutes(cleaningDurationInMinutes)
@@ -217,88 +252,157 @@ public class ScreeningService {
         return getCollidingScreenings(roomId, start, end);
     }
 
-    @Transactional
+    // The room and its seats come from the caches, only sold seats and live locks are queried
+    @Transactional(readOnly = true)
     public List<SeatStatusDTO> getSeatsWithStatus(Long screeningId) {
-        Screening screening = screeningRepository.findById(screeningId)
+        Long roomId = roomScheduleService.findRoomId(screeningId)
                 .orElseThrow(() -> new ResourceNotFoundException("Screening not found with id: " + screeningId));
+        RoomLayout layout = referenceDataService.getRoomLayout(roomId);
+        Map<Long, OccupiedSeatDTO> occupied = seatRepository.findOccupiedSeatsByScreeningId(screeningId).stream()
+                // A sold seat wins over a lock row that was not cleaned up yet
+                .collect(Collectors.toMap(OccupiedSeatDTO::getSeatId, Function.identity(), (a, b) -> a.isSold() ? a : b));
+
+        List<SeatStatusDTO> seats = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            long seatId = layout.seatIdAt(i);
+            OccupiedSeatDTO seat = occupied.get(seatId);
+            boolean sold = seat != null && seat.isSold();
+            OccupiedSeatDTO lock = seat != null && !sold ? seat : null;
+            seats.add(new SeatStatusDTO(seatId, layout.rowNumberAt(i), layout.seatNumberAt(i),
+                    lock != null ? lock.getUserId() : null,
+                    seat == null,
+                    sold,
+                    lock != null ? lock.getExpiresAt() : null));
+        }
+        return seats;
+    }
 
-        Room room = screening.getRoom();
-        List<Seat> allSeats = seatRepository.findAllByRoomId(room.getId());
-
-        Set<Long> soldSeatIds = new HashSet<>(ticketRepository.findSoldSeatIdsByScreeningId(screeningId));
-        List<SeatUserLockDTO> lockedSeats = temporaryReservationRepository.findLockedSeatIdsByScreeningId(screeningId);
-        Map<Long, SeatUserLockDTO> locksMap = lockedSeats.stream()
-                .collect(Collectors.toMap(SeatUserLockDTO::getSeatId, lock -> lock));
-
-        return allSeats.stream()
-                .map(seat -> {
-                    Long seatId = seat.getId();
-
-                    boolean isSold = soldSeatIds.contains(seatId);
-                    SeatUserLockDTO lockInfo = locksMap.get(seatId);
-                    boolean isLocked = (lockInfo != null);
-
-                    boolean isTaken = isSold || isLocked;
-                    Long userId = isLocked ? lockInfo.getUserId() : null;
-                    LocalDateTime expiresAt = isLocked ? lockInfo.getExpiresAt() : null;
-
-                    return SeatStatusDTO.builder()
-                            .seatId(seatId)
-                            .rowNumber(seat.getRowNumber())
-                            .seatNumber(seat.getSeatNumber())
-                            .userId(userId)
-                            .isAvailable(!isTaken)
-                            .isSold(isSold)
-                            .expiresAt(expiresAt)
-                            .build();
-                })
-                .sorted(Comparator.comparing(SeatStatusDTO::getRowNumber)
-                        .thenComparing(SeatStatusDTO::getSeatNumber))
+    // The grouped and sorted day is cached; the booking cutoff and seat availability change
+    // over time and are applied per request. Availability is read from the in-memory seat
+    // counters, so a cached day needs no query at all.
+    public List<RepertoireMovieDTO> getRepertoireForDate(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        List<RepertoireMovie> movies;
+        if (date.isBefore(today) || date.isAfter(today.plusDays(repertoireCacheDays))) {
+            movies = loadRepertoire(date);
+        } else {
+            repertoireCache.keySet().removeIf(cachedDate -> cachedDate.isBefore(today));
+            // Loading inside computeIfAbsent makes an eviction of the same day wait for the load,
+            // so a day read just before a commit is dropped by that commit's eviction
+            movies = repertoireCache.computeIfAbsent(date, this::loadRepertoire);
+        }
+
+        List<Long> screeningIds = movies.stream()
+                .flatMap(movie -> movie.screenings().stream())
+                .map(RepertoireScreening::screeningId)
                 .toList();
+        Map<Long, SeatOccupancyDTO> occupancy;
+        if (screeningIds.isEmpty()) {
+            occupancy = Map.of();
+        } else if (date.isBefore(today)) {
+            // Nobody books a past day, its seat maps are not worth keeping in memory
+            occupancy = seatStateService.readOccupancy(screeningIds);
+        } else {
+            occupancy = seatStateService.getOccupancy(screeningIds);
+        }
 
+        LocalDateTime bookingCutoff = LocalDateTime.now().plusMinutes(15);
+        return movies.stream()
+                .map(movie -> movie.toDto(bookingCutoff, occupancy))
+                .toList();
     }
 
-    @Transactional(readOnly = true)
-    public List<RepertoireMovieDTO> getRepertoireForDate(LocalDate date) {
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScreeningScheduleChanged(ScreeningScheduleChangedEvent event) {
+        event.dates().forEach(repertoireCache::remove);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        for (Map.Entry<LocalDate, List<RepertoireMovie>> entry : repertoireCache.entrySet()) {
+            if (entry.getValue().stream().anyMatch(movie -> movie.movieId().equals(event.movieId()))) {
+                repertoireCache.remove(entry.getKey());
+            }
+        }
+    }
+
+    // The in-memory check can race with another admin's commit; the exclusion constraint
+    // on the screenings table turns the loser's insert into the same overlap error
+    private void saveChecked(Screening screening) {
+        try {
+            screeningRepository.saveAndFlush(screening);
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains(OVERLAP_CONSTRAINT)) {
+                log.warn("Concurrent screening change overlaps in room: {}", screening.getRoom().getId());
+                throw new ScreeningOverlapException("Screening overlaps with an existing screening in the same room.");
+            }
+            throw e;
+        }
+    }
+
+    private static ScheduledScreeningDTO toScheduled(Screening screening) {
+        return new ScheduledScreeningDTO(screening.getId(), screening.getRoom().getId(), screening.getStartTime(),
+                screening.getEndTime(), screening.getMovie().getTitle(), screening.getRoom().getName());
+    }
+
+    private List<RepertoireMovie> loadRepertoire(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
 
-        List<Screening> screenings = screeningRepository.findAllByStartTimeBetweenOrderByStartTimeAsc(startOfDay, endOfDay);
-
-        Map<Movie, List<Screening>> screeningsByMovie = screenings.stream()
-                .collect(Collectors.groupingBy(Screening::getMovie));
-
-        List<RepertoireMovieDTO> result = new ArrayList<>();
-
-        for (Map.Entry<Movie, List<Screening>> entry : screeningsByMovie.entrySet()) {
-            Movie movie = entry.getKey();
-            List<Screening> movieScreenings = entry.getValue();
-            List<ScreeningTimeDTO> timeDTOs = movieScreenings.stream()
-                    .map(s -> {
-                        boolean isTimeValid = s.getStartTime().isAfter(LocalDateTime.now().plusMinutes(15));
-                        //TODO Add check if any seats are available for screening(not sold)
-                        return ScreeningTimeDTO.builder()
-                                .screeningId(s.getId())
-                                .time(s.getStartTime().toLocalTime())
-                                .isAvailable(isTimeValid)
-                                .roomName(s.getRoom().getName())
-                                .build();
-                    })
-                    .sorted(Comparator.comparing(ScreeningTimeDTO::getTime))
-                    .collect(Collectors.toList());
-
-            result.add(RepertoireMovieDTO.builder()
-                    .movieId(movie.getId())
-                    .title(movie.getTitle())
-                    .genre(movie.getGenre().toString())
-                    .duration(movie.getDurationInMinutes())
-                    .posterFileName(movie.getPosterFileName())
-                    .screenings(timeDTOs)
-                    .build());
+        // Rows arrive ordered by start time, so each movie's screenings keep that order
+        Map<Long, List<RepertoireScreeningDTO>> rowsByMovie = screeningRepository.findRepertoireByStartTimeBetween(startOfDay, endOfDay).stream()
+                .collect(Collectors.groupingBy(RepertoireScreeningDTO::getMovieId, LinkedHashMap::new, Collectors.toList()));
+
+        List<RepertoireMovie> result = new ArrayList<>(rowsByMovie.size());
+
+        for (List<RepertoireScreeningDTO> rows : rowsByMovie.values()) {
+            RepertoireScreeningDTO movie = rows.getFirst();
+            List<RepertoireScreening> movieScreenings = rows.stream()
+                    .map(row -> new RepertoireScreening(row.getScreeningId(), row.getStartTime(), row.getRoomName()))
+                    .toList();
+
+            result.add(new RepertoireMovie(
+                    movie.getMovieId(),
+                    movie.getTitle(),
+                    movie.getGenre().toString(),
+                    movie.getDurationInMinutes(),
+                    movie.getPosterFileName(),
+                    movieScreenings));
         }
 
-        result.sort(Comparator.comparing(RepertoireMovieDTO::getTitle));
+        result.sort(Comparator.comparing(RepertoireMovie::title));
+
+        return List.copyOf(result);
+    }
 
-        return result;
+    private record RepertoireMovie(Long movieId, String title, String genre, Integer duration, String posterFileName,
+                                   List<RepertoireScreening> screenings) {
+        RepertoireMovieDTO toDto(LocalDateTime bookingCutoff, Map<Long, SeatOccupancyDTO> occupancy) {
+            return RepertoireMovieDTO.builder()
+                    .movieId(movieId)
+                    .title(title)
+                    .genre(genre)
+                    .duration(duration)
+                    .posterFileName(posterFileName)
+                    .screenings(screenings.stream()
+                            .map(s -> s.toDto(bookingCutoff, occupancy.get(s.screeningId())))
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+
+    private record RepertoireScreening(Long screeningId, LocalDateTime startTime, String roomName) {
+        ScreeningTimeDTO toDto(LocalDateTime bookingCutoff, SeatOccupancyDTO occupancy) {
+            boolean soldOut = occupancy != null && occupancy.getAvailability() == SeatAvailability.SOLD_OUT;
+            return ScreeningTimeDTO.builder()
+                    .screeningId(screeningId)
+                    .time(startTime.toLocalTime())
+                    .isAvailable(startTime.isAfter(bookingCutoff) && !soldOut)
+                    .roomName(roomName)
+                    .availability(occupancy != null ? occupancy.getAvailability() : null)
+                    .freeSeats(occupancy != null ? occupancy.getFreeSeats() : 0)
+                    .build();
+        }
     }
 }
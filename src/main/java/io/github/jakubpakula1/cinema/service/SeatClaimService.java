@@ -0,0 +1,146 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dao.SeatClaimDAO;
+import io.github.jakubpakula1.cinema.enums.SeatClaimMode;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
+import io.github.jakubpakula1.cinema.model.TemporaryReservation;
+import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Claims seats of a screening for a user, all or nothing, by writing their temporary
+// reservations. The claim mode decides what arbitrates between concurrent claims:
+//  - bitmap: the in-memory seat map of this instance; the unique key is only a backstop.
+//  - constraint: the unique (screening_id, seat_id) key of temporary_reservations. Claims
+//    insert and a seat whose row did not go in is taken, so nothing is locked and the result
+//    holds across instances.
+//  - pessimistic: row locks on the seats. A seat row is shared by every screening in its
+//    room, so claims for different screenings of the same seat wait on each other.
+// Runs in the caller's transaction.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatClaimService {
+    private final SeatStateService seatStateService;
+    private final SeatClaimDAO seatClaimDAO;
+    private final SeatRepository seatRepository;
+    private final ScreeningRepository screeningRepository;
+    private final TemporaryReservationRepository temporaryReservationRepository;
+    private final TicketRepository ticketRepository;
+
+    @Value("${cinema.seats.claim-mode:bitmap}")
+    private SeatClaimMode claimMode = SeatClaimMode.BITMAP;
+
+    public SeatClaim claim(Long screeningId, Collection<Long> seatIds, User user, LocalDateTime expiresAt) {
+        List<Long> seats = seatIds.stream().distinct().toList();
+        return switch (claimMode) {
+            case BITMAP -> claimInMemory(screeningId, seats, user, expiresAt);
+            case CONSTRAINT -> claimByConstraint(screeningId, seats, user, expiresAt);
+            case PESSIMISTIC -> claimWithSeatLocks(screeningId, seats, user, expiresAt);
+        };
+    }
+
+    private SeatClaim claimInMemory(Long screeningId, List<Long> seatIds, User user, LocalDateTime expiresAt) {
+        Map<Long, SeatLockStatus> statuses = seatStateService.tryLockAll(screeningId, seatIds);
+        if (statuses.values().stream().anyMatch(status -> status != SeatLockStatus.LOCKED)) {
+            return new SeatClaim(statuses, List.of());
+        }
+        seatIds.forEach(seatId -> seatStateService.releaseOnRollback(screeningId, seatId));
+
+        Map<Long, Long> reservationIds;
+        try {
+            reservationIds = seatClaimDAO.insertReservations(screeningId, seatIds, user.getId(), expiresAt);
+        } catch (DataIntegrityViolationException e) {
+            // Claimed through another instance, whose seat map this one has not seen
+            log.warn("Seats {} of screening {} were already claimed in the database", seatIds, screeningId);
+            throw new IllegalStateException("Seat is already reserved", e);
+        }
+        return new SeatClaim(statuses, reservations(screeningId, seatIds, reservationIds, user, expiresAt));
+    }
+
+    private SeatClaim claimByConstraint(Long screeningId, List<Long> seatIds, User user, LocalDateTime expiresAt) {
+        Map<Long, Long> claimed = seatClaimDAO.insertClaims(screeningId, seatIds, user.getId(), expiresAt);
+        if (claimed.size() < seatIds.size()) {
+            if (!claimed.isEmpty()) {
+                temporaryReservationRepository.deleteAllByIdInBatch(claimed.values());
+            }
+            Set<Long> roomSeats = new HashSet<>(seatRepository.findSeatIdsByScreeningId(screeningId));
+            Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+            for (Long seatId : seatIds) {
+                statuses.put(seatId, claimed.containsKey(seatId) ? SeatLockStatus.AVAILABLE
+                        : roomSeats.contains(seatId) ? SeatLockStatus.TAKEN : SeatLockStatus.NOT_FOUND);
+            }
+            return new SeatClaim(statuses, List.of());
+        }
+        return claimed(screeningId, seatIds, claimed, user, expiresAt);
+    }
+
+    private SeatClaim claimWithSeatLocks(Long screeningId, List<Long> seatIds, User user, LocalDateTime expiresAt) {
+        // Held until the reservations are written
+        seatRepository.findAllWithLockByIds(seatIds);
+
+        Set<Long> roomSeats = new HashSet<>(seatRepository.findSeatIdsByScreeningId(screeningId));
+        Set<Long> taken = new HashSet<>(temporaryReservationRepository.findReservedSeatIdsByScreeningId(screeningId));
+        taken.addAll(ticketRepository.findSoldSeatIdsByScreeningId(screeningId));
+
+        Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+        boolean conflict = false;
+        for (Long seatId : seatIds) {
+            SeatLockStatus status = !roomSeats.contains(seatId) ? SeatLockStatus.NOT_FOUND
+                    : taken.contains(seatId) ? SeatLockStatus.TAKEN : SeatLockStatus.AVAILABLE;
+            statuses.put(seatId, status);
+            conflict |= status != SeatLockStatus.AVAILABLE;
+        }
+        if (conflict) {
+            return new SeatClaim(statuses, List.of());
+        }
+
+        return claimed(screeningId, seatIds, seatClaimDAO.insertReservations(screeningId, seatIds, user.getId(), expiresAt), user, expiresAt);
+    }
+
+    // The seat map learns about claims it did not arbitrate once they have committed
+    private SeatClaim claimed(Long screeningId, List<Long> seatIds, Map<Long, Long> reservationIds, User user, LocalDateTime expiresAt) {
+        Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+        for (Long seatId : seatIds) {
+            statuses.put(seatId, SeatLockStatus.LOCKED);
+            seatStateService.markLockedAfterCommit(screeningId, seatId);
+        }
+        return new SeatClaim(statuses, reservations(screeningId, seatIds, reservationIds, user, expiresAt));
+    }
+
+    private List<TemporaryReservation> reservations(Long screeningId, List<Long> seatIds, Map<Long, Long> reservationIds, User user, LocalDateTime expiresAt) {
+        List<TemporaryReservation> reservations = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            TemporaryReservation reservation = newReservation(screeningId, seatId, user, expiresAt);
+            reservation.setId(reservationIds.get(seatId));
+            reservations.add(reservation);
+        }
+        return reservations;
+    }
+
+    private TemporaryReservation newReservation(Long screeningId, Long seatId, User user, LocalDateTime expiresAt) {
+        TemporaryReservation reservation = new TemporaryReservation();
+        reservation.setSeat(seatRepository.getReferenceById(seatId));
+        reservation.setScreening(screeningRepository.getReferenceById(screeningId));
+        reservation.setUser(user);
+        reservation.setExpiresAt(expiresAt);
+        return reservation;
+    }
+
+    // reservations is empty unless every seat was claimed
+    public record SeatClaim(Map<Long, SeatLockStatus> statuses, List<TemporaryReservation> reservations) {
+        public boolean locked() {
+            return !reservations.isEmpty();
+        }
+    }
+}
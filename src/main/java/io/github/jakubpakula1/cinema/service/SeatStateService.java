@@ -0,0 +1,427 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.seat.SeatChangeDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatOccupancyDTO;
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
+import io.github.jakubpakula1.cinema.enums.SeatState;
+import io.github.jakubpakula1.cinema.event.ReservationsExpiredEvent;
+import io.github.jakubpakula1.cinema.event.SeatMapChangedEvent;
+import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.TicketRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// In-memory seat state per screening. The database stays the durable record:
+// every LOCKED seat is backed by exactly one temporary_reservations row and every
+// SOLD seat by a ticket, so callers only release or sell a seat after the matching
+// row change has committed.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatStateService implements ScreeningCache {
+    private final SeatRepository seatRepository;
+    private final TicketRepository ticketRepository;
+    private final TemporaryReservationRepository temporaryReservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Free seats at or below this count are shown as "few seats left"
+    @Value("${cinema.seats.few-left-threshold:10}")
+    private int fewSeatsLeftThreshold = 10;
+
+    private final Map<Long, ScreeningSeatBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final AtomicLong versionClock = new AtomicLong();
+    // Bumped before every committed change is applied, so a load that overlapped one can tell
+    // its database snapshot may be stale and start over instead of dropping the change
+    private final Map<Long, AtomicLong> epochs = new ConcurrentHashMap<>();
+
+    public boolean tryLock(Long screeningId, Long seatId) {
+        ScreeningSeatBitmap bitmap = getOrLoad(screeningId);
+        if (!bitmap.compareAndSet(indexOf(bitmap, seatId), SeatState.FREE, SeatState.LOCKED)) {
+            return false;
+        }
+        publishChange(screeningId);
+        return true;
+    }
+
+    // All-or-nothing claim of several seats: on any conflict the seats claimed so far are
+    // handed back and reported as AVAILABLE next to the ones that caused the failure.
+    public Map<Long, SeatLockStatus> tryLockAll(Long screeningId, Collection<Long> seatIds) {
+        ScreeningSeatBitmap bitmap = getOrLoad(screeningId);
+        Map<Long, SeatLockStatus> result = new LinkedHashMap<>();
+        List<Integer> claimed = new ArrayList<>();
+        boolean conflict = false;
+
+        for (Long seatId : seatIds) {
+            if (result.containsKey(seatId)) {
+                continue;
+            }
+            int index = bitmap.indexOf(seatId);
+            if (index < 0) {
+                result.put(seatId, SeatLockStatus.NOT_FOUND);
+                conflict = true;
+            } else if (bitmap.compareAndSet(index, SeatState.FREE, SeatState.LOCKED)) {
+                result.put(seatId, SeatLockStatus.LOCKED);
+                claimed.add(index);
+            } else {
+                result.put(seatId, SeatLockStatus.TAKEN);
+                conflict = true;
+            }
+        }
+
+        if (conflict) {
+            for (int index : claimed) {
+                bitmap.compareAndSet(index, SeatState.LOCKED, SeatState.FREE);
+                result.put(bitmap.seatIdAt(index), SeatLockStatus.AVAILABLE);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            publishChange(screeningId);
+        }
+        return result;
+    }
+
+    // Position of the seat in the screening bitmap when it is sold, otherwise -1
+    public int soldSeatIndex(Long screeningId, Long seatId) {
+        ScreeningSeatBitmap bitmap = getOrLoad(screeningId);
+        int index = bitmap.indexOf(seatId);
+        return index >= 0 && bitmap.get(index) == SeatState.SOLD ? index : -1;
+    }
+
+    public SeatOccupancyDTO getOccupancy(Long screeningId) {
+        return occupancyOf(getOrLoad(screeningId));
+    }
+
+    // Occupancy of many screenings at once; bitmaps not in memory yet are loaded together
+    // with three queries instead of three per screening. Unknown screenings are left out.
+    public Map<Long, SeatOccupancyDTO> getOccupancy(Collection<Long> screeningIds) {
+        List<Long> missing = screeningIds.stream()
+                .filter(screeningId -> !bitmaps.containsKey(screeningId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            preload(missing);
+        }
+
+        Map<Long, SeatOccupancyDTO> result = new HashMap<>();
+        for (Long screeningId : screeningIds) {
+            ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+            if (bitmap != null) {
+                result.put(screeningId, occupancyOf(bitmap));
+            }
+        }
+        return result;
+    }
+
+    // Same as getOccupancy for screenings nobody books any more, e.g. a past day of the
+    // repertoire: bitmaps already in memory are used, the others are read and not kept
+    public Map<Long, SeatOccupancyDTO> readOccupancy(Collection<Long> screeningIds) {
+        Map<Long, SeatOccupancyDTO> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long screeningId : screeningIds) {
+            ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+            if (bitmap != null) {
+                result.put(screeningId, occupancyOf(bitmap));
+            } else {
+                missing.add(screeningId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            loadAll(missing.stream().distinct().toList())
+                    .forEach((screeningId, bitmap) -> result.put(screeningId, occupancyOf(bitmap)));
+        }
+        return result;
+    }
+
+    public long getVersion(Long screeningId) {
+        return getOrLoad(screeningId).version();
+    }
+
+    // Seats changed after the given version; without a usable version the whole map is returned
+    public SeatMapDeltaDTO getChangesSince(Long screeningId, Long since) {
+        ScreeningSeatBitmap bitmap = getOrLoad(screeningId);
+        ScreeningSeatBitmap.Changes changes = bitmap.changesSince(since != null ? since : -1L);
+
+        List<SeatChangeDTO> seats = new ArrayList<>(changes.indexes().length);
+        for (int index : changes.indexes()) {
+            seats.add(SeatChangeDTO.builder()
+                    .seatId(bitmap.seatIdAt(index))
+                    .state(bitmap.get(index))
+                    .build());
+        }
+        return SeatMapDeltaDTO.builder()
+                .screeningId(screeningId)
+                .version(changes.version())
+                .full(changes.full())
+                .seats(seats)
+                .build();
+    }
+
+    public void release(Long screeningId, Long seatId) {
+        bumpEpoch(screeningId);
+        ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+        if (bitmap == null) {
+            return;
+        }
+        int index = bitmap.indexOf(seatId);
+        if (index >= 0 && bitmap.compareAndSet(index, SeatState.LOCKED, SeatState.FREE)) {
+            log.debug("Seat {} released for screening {}", seatId, screeningId);
+            publishChange(screeningId);
+        }
+    }
+
+    // Mirrors a claim the database arbitrated, see SeatClaimService
+    public void markLocked(Long screeningId, Long seatId) {
+        bumpEpoch(screeningId);
+        ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+        if (bitmap == null) {
+            return;
+        }
+        int index = bitmap.indexOf(seatId);
+        if (index >= 0 && bitmap.compareAndSet(index, SeatState.FREE, SeatState.LOCKED)) {
+            publishChange(screeningId);
+        }
+    }
+
+    public void markSold(Long screeningId, Long seatId) {
+        bumpEpoch(screeningId);
+        ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+        if (bitmap == null) {
+            return;
+        }
+        int index = bitmap.indexOf(seatId);
+        if (index >= 0 && bitmap.set(index, SeatState.SOLD) != SeatState.SOLD) {
+            publishChange(screeningId);
+        }
+    }
+
+    public void evict(Long screeningId) {
+        bumpEpoch(screeningId);
+        if (bitmaps.remove(screeningId) != null) {
+            log.debug("Seat bitmap evicted for screening {}", screeningId);
+        }
+    }
+
+    public void releaseOnRollback(Long screeningId, Long seatId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(screeningId, seatId);
+                }
+            }
+        });
+    }
+
+    public void releaseAfterCommit(Long screeningId, Long seatId) {
+        afterCommit(() -> release(screeningId, seatId));
+    }
+
+    public void markLockedAfterCommit(Long screeningId, Long seatId) {
+        afterCommit(() -> markLocked(screeningId, seatId));
+    }
+
+    public void markSoldAfterCommit(Long screeningId, Long seatId) {
+        afterCommit(() -> markSold(screeningId, seatId));
+    }
+
+    public void evictAfterCommit(Long screeningId) {
+        afterCommit(() -> evict(screeningId));
+    }
+
+    @Override
+    public Set<Long> cachedScreeningIds() {
+        Set<Long> screeningIds = new HashSet<>(bitmaps.keySet());
+        screeningIds.addAll(epochs.keySet());
+        return screeningIds;
+    }
+
+    // Drops the epoch too; a load still running compares against the removed counter and starts over
+    @Override
+    public void evictScreenings(Collection<Long> screeningIds) {
+        for (Long screeningId : screeningIds) {
+            bitmaps.remove(screeningId);
+            epochs.remove(screeningId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsExpired(ReservationsExpiredEvent event) {
+        event.seatIds().forEach(seatId -> release(event.screeningId(), seatId));
+    }
+
+    private ScreeningSeatBitmap getOrLoad(Long screeningId) {
+        while (true) {
+            ScreeningSeatBitmap bitmap = bitmaps.get(screeningId);
+            if (bitmap != null) {
+                return bitmap;
+            }
+            AtomicLong counter = epochOf(screeningId);
+            long epoch = counter.get();
+            ScreeningSeatBitmap loaded = load(screeningId);
+            ScreeningSeatBitmap existing = bitmaps.putIfAbsent(screeningId, loaded);
+            if (existing != null) {
+                return existing;
+            }
+            if (publishedCleanly(screeningId, loaded, counter, epoch)) {
+                return loaded;
+            }
+        }
+    }
+
+    // A change that bumped the epoch before this check missed the bitmap and may predate the
+    // snapshot, so the bitmap is withdrawn and loaded again; any later change finds it in the map.
+    // An evicted counter counts as a change, the bumps it took are gone with it.
+    private boolean publishedCleanly(Long screeningId, ScreeningSeatBitmap loaded, AtomicLong counter, long epoch) {
+        if (epochs.get(screeningId) == counter && counter.get() == epoch) {
+            return true;
+        }
+        bitmaps.remove(screeningId, loaded);
+        log.debug("Seat state of screening {} changed while loading, reloading", screeningId);
+        return false;
+    }
+
+    private ScreeningSeatBitmap load(Long screeningId) {
+        List<Long> seatIds = seatRepository.findSeatIdsByScreeningId(screeningId);
+        if (seatIds.isEmpty()) {
+            throw new ResourceNotFoundException("Screening not found with id: " + screeningId);
+        }
+
+        ScreeningSeatBitmap bitmap = build(seatIds,
+                temporaryReservationRepository.findReservedSeatIdsByScreeningId(screeningId),
+                ticketRepository.findSoldSeatIdsByScreeningId(screeningId));
+        log.info("Loaded seat bitmap for screening {} with {} seats", screeningId, bitmap.size());
+        return bitmap;
+    }
+
+    private void preload(List<Long> screeningIds) {
+        Map<Long, AtomicLong> counters = new HashMap<>();
+        Map<Long, Long> epochsBefore = new HashMap<>();
+        for (Long screeningId : screeningIds) {
+            AtomicLong counter = epochOf(screeningId);
+            counters.put(screeningId, counter);
+            epochsBefore.put(screeningId, counter.get());
+        }
+        Map<Long, ScreeningSeatBitmap> loaded = loadAll(screeningIds);
+        loaded.forEach((screeningId, bitmap) -> {
+            if (bitmaps.putIfAbsent(screeningId, bitmap) == null
+                    && !publishedCleanly(screeningId, bitmap, counters.get(screeningId), epochsBefore.get(screeningId))) {
+                getOrLoad(screeningId);
+            }
+        });
+        log.info("Preloaded seat bitmaps for {} screenings", loaded.size());
+    }
+
+    // Three queries for all screenings; unknown screenings are left out
+    private Map<Long, ScreeningSeatBitmap> loadAll(List<Long> screeningIds) {
+        Map<Long, List<Long>> seatIds = groupByScreening(seatRepository.findSeatIdsByScreeningIds(screeningIds));
+        Map<Long, List<Long>> reservedSeatIds = groupByScreening(temporaryReservationRepository.findReservedSeatIdsByScreeningIds(screeningIds));
+        Map<Long, List<Long>> soldSeatIds = groupByScreening(ticketRepository.findSoldSeatIdsByScreeningIds(screeningIds));
+
+        Map<Long, ScreeningSeatBitmap> loaded = new HashMap<>();
+        seatIds.forEach((screeningId, seats) -> loaded.put(screeningId, build(seats,
+                reservedSeatIds.getOrDefault(screeningId, List.of()),
+                soldSeatIds.getOrDefault(screeningId, List.of()))));
+        return loaded;
+    }
+
+    private ScreeningSeatBitmap build(List<Long> seatIds, List<Long> reservedSeatIds, List<Long> soldSeatIds) {
+        ScreeningSeatBitmap bitmap = new ScreeningSeatBitmap(seatIds.stream().mapToLong(Long::longValue).toArray(), versionClock);
+        for (Long seatId : reservedSeatIds) {
+            int index = bitmap.indexOf(seatId);
+            if (index >= 0) {
+                bitmap.set(index, SeatState.LOCKED);
+            }
+        }
+        for (Long seatId : soldSeatIds) {
+            int index = bitmap.indexOf(seatId);
+            if (index >= 0) {
+                bitmap.set(index, SeatState.SOLD);
+            }
+        }
+        return bitmap;
+    }
+
+    private static Map<Long, List<Long>> groupByScreening(List<ScreeningSeatIdDTO> rows) {
+        return rows.stream().collect(Collectors.groupingBy(ScreeningSeatIdDTO::getScreeningId,
+                Collectors.mapping(ScreeningSeatIdDTO::getSeatId, Collectors.toList())));
+    }
+
+    private SeatOccupancyDTO occupancyOf(ScreeningSeatBitmap bitmap) {
+        int occupied = bitmap.occupied();
+        int freeSeats = Math.max(bitmap.size() - occupied, 0);
+        SeatAvailability availability;
+        if (freeSeats == 0) {
+            availability = SeatAvailability.SOLD_OUT;
+        } else if (freeSeats <= fewSeatsLeftThreshold) {
+            availability = SeatAvailability.FEW_SEATS_LEFT;
+        } else {
+            availability = SeatAvailability.AVAILABLE;
+        }
+        return SeatOccupancyDTO.builder()
+                .capacity(bitmap.size())
+                .occupied(occupied)
+                .freeSeats(freeSeats)
+                .availability(availability)
+                .build();
+    }
+
+    private int indexOf(ScreeningSeatBitmap bitmap, Long seatId) {
+        int index = bitmap.indexOf(seatId);
+        if (index < 0) {
+            log.error("Seat not found with ID: {}", seatId);
+            throw new ResourceNotFoundException("Seat not found");
+        }
+        return index;
+    }
+
+    private AtomicLong epochOf(Long screeningId) {
+        return epochs.computeIfAbsent(screeningId, id -> new AtomicLong());
+    }
+
+    private void bumpEpoch(Long screeningId) {
+        epochOf(screeningId).incrementAndGet();
+    }
+
+    private void publishChange(Long screeningId) {
+        eventPublisher.publishEvent(new SeatMapChangedEvent(screeningId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.event.SeatMapChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pushes seat map deltas to browsers over SSE. Each change is turned into one delta per
+// screening no matter how many clients watch it, and every client gets its own ordered
+// mailbox drained on a virtual thread, so a slow connection never holds up the others.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatStreamService {
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final String SEATS_EVENT = "seats";
+
+    private final SeatStateService seatStateService;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(Long screeningId, Long since) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        while (true) {
+            Channel channel = channels.computeIfAbsent(screeningId,
+                    id -> new Channel(id, seatStateService.getVersion(id)));
+            synchronized (channel) {
+                if (channel.closed) {
+                    continue;
+                }
+                channel.subscribers.add(subscriber);
+                // The first delta is built under the channel lock, so no broadcast can slip in between
+                enqueue(subscriber, seatsEvent(seatStateService.getChangesSince(screeningId, since)));
+            }
+            Runnable unsubscribe = () -> unsubscribe(channel, subscriber);
+            emitter.onCompletion(unsubscribe);
+            emitter.onTimeout(unsubscribe);
+            emitter.onError(error -> unsubscribe.run());
+            log.debug("Seat stream opened for screening {}, {} subscribers", screeningId, channel.subscribers.size());
+            return emitter;
+        }
+    }
+
+    @EventListener
+    public void onSeatMapChanged(SeatMapChangedEvent event) {
+        Channel channel = channels.get(event.screeningId());
+        if (channel != null && channel.pending.compareAndSet(false, true)) {
+            executor.execute(() -> broadcast(channel));
+        }
+    }
+
+    @Scheduled(fixedRate = 15000)
+    public void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                enqueue(subscriber, heartbeat);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void broadcast(Channel channel) {
+        channel.pending.set(false);
+        synchronized (channel) {
+            if (channel.closed) {
+                return;
+            }
+            SeatMapDeltaDTO delta;
+            try {
+                delta = seatStateService.getChangesSince(channel.screeningId, channel.lastVersion);
+            } catch (RuntimeException e) {
+                log.warn("Could not build seat delta for screening {}: {}", channel.screeningId, e.getMessage());
+                return;
+            }
+            if (delta.getSeats().isEmpty()) {
+                return;
+            }
+            channel.lastVersion = delta.getVersion();
+            Set<ResponseBodyEmitter.DataWithMediaType> event = seatsEvent(delta);
+            for (Subscriber subscriber : channel.subscribers) {
+                enqueue(subscriber, event);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        subscriber.mailbox.offer(event);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = subscriber.mailbox.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Seat stream client gone: {}", e.getMessage());
+                    subscriber.mailbox.clear();
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared still needs a drainer
+        } while (!subscriber.mailbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Channel channel, Subscriber subscriber) {
+        synchronized (channel) {
+            channel.subscribers.remove(subscriber);
+            if (channel.subscribers.isEmpty()) {
+                channel.closed = true;
+                channels.remove(channel.screeningId, channel);
+            }
+        }
+    }
+
+    // Built once and shared by every subscriber of the channel
+    private Set<ResponseBodyEmitter.DataWithMediaType> seatsEvent(SeatMapDeltaDTO delta) {
+        return SseEmitter.event()
+                .name(SEATS_EVENT)
+                .id(String.valueOf(delta.getVersion()))
+                .data(delta, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private static final class Channel {
+        private final Long screeningId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private long lastVersion;
+        private boolean closed;
+
+        private Channel(Long screeningId, long lastVersion) {
+            this.screeningId = screeningId;
+            this.lastVersion = lastVersion;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
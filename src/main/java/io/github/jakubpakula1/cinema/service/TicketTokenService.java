@@ -0,0 +1,116 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.Ticket;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+
+// Signed ticket tokens printed in the QR codes. A token is a version byte, the ticket,
+// screening and seat ids as unsigned varints and a truncated HMAC-SHA256 of those bytes,
+// encoded as base45, so gates can check it without a database lookup.
+@Service
+public class TicketTokenService {
+    private static final byte TOKEN_VERSION = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${cinema.tickets.token-secret:}")
+    private String tokenSecret = "";
+
+    private SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public record TicketToken(Long ticketId, Long screeningId, Long seatId) {
+    }
+
+    @PostConstruct
+    public void init() {
+        // A generated key would silently invalidate every printed ticket on restart or on another node
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            throw new IllegalStateException("cinema.tickets.token-secret is not configured, set TICKET_TOKEN_SECRET");
+        }
+        key = new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+    }
+
+    public String issue(Ticket ticket) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(TOKEN_VERSION);
+        writeVarLong(out, ticket.getId());
+        writeVarLong(out, ticket.getScreening().getId());
+        writeVarLong(out, ticket.getSeat().getId());
+
+        byte[] payload = out.toByteArray();
+        out.write(sign(payload), 0, MAC_LENGTH);
+        return Base45.encode(out.toByteArray());
+    }
+
+    public Optional<TicketToken> verify(String token) {
+        byte[] data;
+        try {
+            data = Base45.decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (data.length < 1 + 3 + MAC_LENGTH || data[0] != TOKEN_VERSION) {
+            return Optional.empty();
+        }
+
+        int payloadLength = data.length - MAC_LENGTH;
+        byte[] expected = Arrays.copyOf(sign(Arrays.copyOf(data, payloadLength)), MAC_LENGTH);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(data, payloadLength, data.length))) {
+            return Optional.empty();
+        }
+
+        long[] ids = new long[3];
+        int position = 1;
+        for (int i = 0; i < ids.length; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position >= payloadLength || shift > 63) {
+                    return Optional.empty();
+                }
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            ids[i] = value;
+        }
+        if (position != payloadLength) {
+            return Optional.empty();
+        }
+        return Optional.of(new TicketToken(ids[0], ids[1], ids[2]));
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.ticket.TicketValidationResponseDTO;
+import io.github.jakubpakula1.cinema.enums.TicketValidationStatus;
+import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gate checks without a database round trip: the token signature proves the ticket,
+// the seat bitmap confirms the seat is still sold and a per-screening bitset indexed
+// like the seat bitmap remembers which seats were already let in. Scans are kept in
+// memory only, so a restart forgets them, and dropped once the screening has ended.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketValidationService implements ScreeningCache {
+    private final TicketTokenService ticketTokenService;
+    private final SeatStateService seatStateService;
+
+    private final Map<Long, BitSet> scannedSeats = new ConcurrentHashMap<>();
+
+    public TicketValidationResponseDTO validate(String token, Long screeningId) {
+        Optional<TicketTokenService.TicketToken> verified = ticketTokenService.verify(token);
+        if (verified.isEmpty()) {
+            log.warn("Rejected ticket token with an invalid signature");
+            return TicketValidationResponseDTO.builder().status(TicketValidationStatus.INVALID).build();
+        }
+
+        TicketTokenService.TicketToken ticket = verified.get();
+        if (screeningId != null && !screeningId.equals(ticket.screeningId())) {
+            return response(TicketValidationStatus.WRONG_SCREENING, ticket);
+        }
+
+        int seatIndex;
+        try {
+            seatIndex = seatStateService.soldSeatIndex(ticket.screeningId(), ticket.seatId());
+        } catch (ResourceNotFoundException e) {
+            seatIndex = -1;
+        }
+        if (seatIndex < 0) {
+            return response(TicketValidationStatus.INVALID, ticket);
+        }
+
+        BitSet scanned = scannedSeats.computeIfAbsent(ticket.screeningId(), id -> new BitSet());
+        synchronized (scanned) {
+            if (scanned.get(seatIndex)) {
+                return response(TicketValidationStatus.ALREADY_SCANNED, ticket);
+            }
+            scanned.set(seatIndex);
+        }
+        return response(TicketValidationStatus.VALID, ticket);
+    }
+
+    @Override
+    public Set<Long> cachedScreeningIds() {
+        return Set.copyOf(scannedSeats.keySet());
+    }
+
+    @Override
+    public void evictScreenings(Collection<Long> screeningIds) {
+        scannedSeats.keySet().removeAll(screeningIds);
+    }
+
+    private TicketValidationResponseDTO response(TicketValidationStatus status, TicketTokenService.TicketToken ticket) {
+        return TicketValidationResponseDTO.builder()
+                .status(status)
+                .ticketId(ticket.ticketId())
+                .screeningId(ticket.screeningId())
+                .seatId(ticket.seatId())
+                .build();
+    }
+}
@@ -19,6 +19,12 @@ public class UserService {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    // FK-only proxy for the signed-in user, built from the id in the principal without a query.
+    // Reading anything but the id loads the row.
+    public User getReferenceById(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
     @Transactional
     public void registerUser(UserDTO userDTO) {
         User user = new User();
@@ -0,0 +1,168 @@
+package io.github.jakubpakula1.cinema.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// One randomized greedy pass over a week: showings are taken in a shuffled, longest-first
+// order and each goes to the free (room, day, start) with the best score plus some noise.
+// Times are minutes from the start of the week. A room is a bitset of blocked minutes where
+// a screening blocks [start, end + cleaning), so a new screening fits when no bit in its own
+// [start, end + cleaning) is set - the same rule as the overlap check of single screenings.
+// Instances are immutable and shared by all workers; every pass works on its own copies.
+final class WeeklySchedulePlanner {
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int DAYS = 7;
+
+    private static final long PLACED = 1000;
+    private static final long PRIME_TIME = 100;
+    private static final long PREFERRED_WINDOW = 40;
+    private static final long SAME_DAY = 25;
+    private static final int NOISE = 30;
+    private static final int ORDER_JITTER = 60;
+
+    private final List<Demand> demands;
+    private final BitSet[] blocked;
+    private final int earliestStart;
+    private final int opening;
+    private final int closing;
+    private final int primeStart;
+    private final int primeEnd;
+    private final int slot;
+    private final int cleaning;
+
+    // Minute-of-day bounds: screenings start at opening + n * slot and end by closing
+    WeeklySchedulePlanner(List<Demand> demands, List<List<Busy>> busyPerRoom, int earliestStart,
+                          int opening, int closing, int primeStart, int primeEnd, int slot, int cleaning) {
+        this.demands = List.copyOf(demands);
+        this.earliestStart = earliestStart;
+        this.opening = opening;
+        this.closing = closing;
+        this.primeStart = primeStart;
+        this.primeEnd = primeEnd;
+        this.slot = slot;
+        this.cleaning = cleaning;
+        this.blocked = new BitSet[busyPerRoom.size()];
+        for (int room = 0; room < blocked.length; room++) {
+            blocked[room] = new BitSet(DAYS * MINUTES_PER_DAY + cleaning);
+            for (Busy busy : busyPerRoom.get(room)) {
+                int from = Math.max(0, busy.start());
+                int to = Math.min(DAYS * MINUTES_PER_DAY + cleaning, busy.end() + cleaning);
+                if (from < to) {
+                    blocked[room].set(from, to);
+                }
+            }
+        }
+    }
+
+    Plan construct(SplittableRandom random) {
+        BitSet[] rooms = new BitSet[blocked.length];
+        for (int room = 0; room < rooms.length; room++) {
+            rooms[room] = (BitSet) blocked[room].clone();
+        }
+        int[][] perDay = new int[demands.size()][DAYS];
+
+        List<int[]> order = new ArrayList<>();
+        for (int movie = 0; movie < demands.size(); movie++) {
+            for (int i = 0; i < demands.get(movie).showings(); i++) {
+                order.add(new int[]{movie, demands.get(movie).duration() + random.nextInt(ORDER_JITTER)});
+            }
+        }
+        order.sort(Comparator.comparingInt((int[] showing) -> showing[1]).reversed());
+
+        List<Placement> placements = new ArrayList<>(order.size());
+        long score = 0;
+        int primeTime = 0;
+        int inWindow = 0;
+        for (int[] showing : order) {
+            int movie = showing[0];
+            Demand demand = demands.get(movie);
+            long bestScore = Long.MIN_VALUE;
+            int bestRoom = -1;
+            int bestStart = -1;
+            for (int room = 0; room < rooms.length; room++) {
+                for (int day = 0; day < DAYS; day++) {
+                    int dayStart = day * MINUTES_PER_DAY;
+                    int minute = alignToSlot(Math.max(opening, earliestStart - dayStart));
+                    // End of the blocked stretch before the current start, or the opening time
+                    int freeFrom = Math.max(dayStart + opening, rooms[room].previousSetBit(dayStart + minute - 1) + 1);
+                    while (minute + demand.duration() <= closing) {
+                        int start = dayStart + minute;
+                        int blockedAt = rooms[room].nextSetBit(start);
+                        if (blockedAt >= 0 && blockedAt < start + demand.duration() + cleaning) {
+                            // Nothing can start before the blocked stretch ends
+                            freeFrom = rooms[room].nextClearBit(blockedAt);
+                            minute = alignToSlot(freeFrom - dayStart);
+                            continue;
+                        }
+                        // Starts right after the previous screening leave the longest free
+                        // stretches for the showings still to come
+                        long gapPenalty = (start - freeFrom) / slot;
+                        long candidate = score(demand, perDay[movie][day], minute) - gapPenalty + random.nextInt(NOISE);
+                        if (candidate > bestScore) {
+                            bestScore = candidate;
+                            bestRoom = room;
+                            bestStart = start;
+                        }
+                        minute += slot;
+                    }
+                }
+            }
+            if (bestRoom < 0) {
+                continue;
+            }
+            int day = bestStart / MINUTES_PER_DAY;
+            int minute = bestStart % MINUTES_PER_DAY;
+            rooms[bestRoom].set(bestStart, bestStart + demand.duration() + cleaning);
+            score += PLACED + score(demand, perDay[movie][day], minute);
+            perDay[movie][day]++;
+            if (isPrimeTime(minute)) {
+                primeTime++;
+            }
+            if (inWindow(demand, minute)) {
+                inWindow++;
+            }
+            placements.add(new Placement(movie, bestRoom, bestStart));
+        }
+        return new Plan(placements, score, primeTime, inWindow);
+    }
+
+    // First slot start at or after the given minute of the day
+    private int alignToSlot(int minute) {
+        return opening + Math.ceilDiv(Math.max(0, minute - opening), slot) * slot;
+    }
+
+    private long score(Demand demand, int sameDay, int minute) {
+        long score = -SAME_DAY * sameDay;
+        if (isPrimeTime(minute)) {
+            score += PRIME_TIME;
+        }
+        if (demand.windowStart() >= 0) {
+            score += inWindow(demand, minute) ? PREFERRED_WINDOW : -PREFERRED_WINDOW;
+        }
+        return score;
+    }
+
+    private boolean isPrimeTime(int minute) {
+        return minute >= primeStart && minute < primeEnd;
+    }
+
+    private boolean inWindow(Demand demand, int minute) {
+        return demand.windowStart() >= 0 && minute >= demand.windowStart() && minute < demand.windowEnd();
+    }
+
+    // windowStart/windowEnd are minutes of the day, -1 when the movie has no preferred window
+    record Demand(int duration, int showings, int windowStart, int windowEnd) {
+    }
+
+    record Busy(int start, int end) {
+    }
+
+    record Placement(int movie, int room, int start) {
+    }
+
+    record Plan(List<Placement> placements, long score, int primeTime, int inWindow) {
+    }
+}
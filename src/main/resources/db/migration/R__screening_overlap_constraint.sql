@@ -0,0 +1,48 @@
+-- Guards the in-memory overlap check against two admins committing overlapping screenings at
+-- the same time. Two screenings collide when their [start, end + cleaning) ranges intersect,
+-- which a GiST exclusion constraint enforces per room. Repeatable, so a change of
+-- cinema.cleaning-duration-minutes replaces the constraint on the next start.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Also drops the screenings_no_overlap_<minutes> constraints created before the migrations
+DO $$
+DECLARE
+    stale RECORD;
+BEGIN
+    FOR stale IN SELECT conname FROM pg_constraint
+                 WHERE conrelid = 'screenings'::regclass AND conname LIKE 'screenings_no_overlap%'
+    LOOP
+        EXECUTE format('ALTER TABLE screenings DROP CONSTRAINT %I', stale.conname);
+    END LOOP;
+END
+$$;
+
+-- Screenings that already overlap, saved before the constraint existed, would make ADD CONSTRAINT
+-- fail. They are left out of the constraint by id and reported, so an admin can reschedule them;
+-- every other screening, and every new one, is still covered.
+DO $$
+DECLARE
+    overlapping TEXT;
+BEGIN
+    SELECT string_agg(id::text, ', ' ORDER BY id) INTO overlapping
+    FROM (SELECT DISTINCT a.id
+          FROM screenings a
+          JOIN screenings b ON b.room_id = a.room_id AND b.id <> a.id
+          WHERE tsrange(a.start_time, a.end_time + make_interval(mins => ${cleaning_minutes}))
+             && tsrange(b.start_time, b.end_time + make_interval(mins => ${cleaning_minutes}))) conflicts;
+
+    IF overlapping IS NULL THEN
+        ALTER TABLE screenings ADD CONSTRAINT screenings_no_overlap EXCLUDE USING gist (
+            room_id WITH =,
+            tsrange(start_time, end_time + make_interval(mins => ${cleaning_minutes})) WITH &&
+        );
+    ELSE
+        RAISE WARNING 'Screenings % already overlap and are left out of screenings_no_overlap, only the in-memory schedule check covers them', overlapping;
+        EXECUTE format('ALTER TABLE screenings ADD CONSTRAINT screenings_no_overlap EXCLUDE USING gist ('
+                           || 'room_id WITH =, '
+                           || 'tsrange(start_time, end_time + make_interval(mins => %s)) WITH &&'
+                           || ') WHERE (id NOT IN (%s))', ${cleaning_minutes}, overlapping);
+    END IF;
+END
+$$;
@@ -0,0 +1,32 @@
+-- Fulfillment and mail outbox tables. Not part of V1, which baselined databases skip. A database
+-- that ran a build with ddl-auto: update after these entities were added may have them already.
+
+CREATE TABLE IF NOT EXISTS fulfillment_tasks (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id        BIGINT       NOT NULL UNIQUE REFERENCES orders,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'IN_PROGRESS', 'DONE', 'FAILED')),
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    completed_at    TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_fulfillment_tasks_status_next_attempt ON fulfillment_tasks (status, next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            VARCHAR(4000),
+    attachment      BYTEA,
+    attachment_name VARCHAR(255),
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'SENT', 'DEAD')),
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,90 @@
+-- Schema as Hibernate created it with ddl-auto: update before the migrations. Databases that
+-- already have it are baselined at this version (spring.flyway.baseline-version) and start from
+-- V1_1, so this file must stay exactly that schema.
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255)
+);
+
+CREATE TABLE rooms (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE seats (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    row_number  INTEGER NOT NULL,
+    seat_number INTEGER NOT NULL,
+    room_id     BIGINT  NOT NULL REFERENCES rooms
+);
+
+CREATE TABLE movies (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title               VARCHAR(255) NOT NULL,
+    description         VARCHAR(2000),
+    genre               VARCHAR(255) CHECK (genre IN ('ACTION', 'ADVENTURE', 'ANIMATION', 'COMEDY', 'DOCUMENTARY', 'DRAMA',
+                                                      'FAMILY', 'FANTASY', 'HORROR', 'ROMANCE', 'SCI_FI', 'THRILLER', 'OTHER')),
+    duration_minutes    INTEGER,
+    release_year        INTEGER      NOT NULL,
+    age_restriction     INTEGER      NOT NULL,
+    director            VARCHAR(255),
+    cast_actors         VARCHAR(255),
+    production_country  VARCHAR(255),
+    poster_file_name    VARCHAR(255),
+    backdrop_file_name  VARCHAR(255),
+    trailer_youtube_url VARCHAR(255)
+);
+
+CREATE TABLE movie_images (
+    movie_id  BIGINT NOT NULL REFERENCES movies,
+    file_name VARCHAR(255)
+);
+
+CREATE TABLE screenings (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id   BIGINT       NOT NULL REFERENCES movies,
+    room_id    BIGINT       NOT NULL REFERENCES rooms,
+    start_time TIMESTAMP(6) NOT NULL,
+    end_time   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE ticket_type (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name  VARCHAR(255),
+    price NUMERIC(38, 2)
+);
+
+CREATE TABLE orders (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT REFERENCES users,
+    total_cost NUMERIC(38, 2),
+    status     VARCHAR(255) CHECK (status IN ('PENDING', 'PAID', 'CANCELLED')),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE tickets (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id       BIGINT         NOT NULL REFERENCES orders,
+    screening_id   BIGINT         NOT NULL REFERENCES screenings,
+    seat_id        BIGINT         NOT NULL REFERENCES seats,
+    ticket_type_id BIGINT         NOT NULL REFERENCES ticket_type,
+    price          NUMERIC(38, 2) NOT NULL,
+    UNIQUE (screening_id, seat_id)
+);
+
+CREATE TABLE temporary_reservations (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    screening_id BIGINT       NOT NULL REFERENCES screenings,
+    seat_id      BIGINT       NOT NULL REFERENCES seats,
+    user_id      BIGINT       NOT NULL REFERENCES users,
+    expires_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE report_logs (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(255),
+    accessed_at TIMESTAMP(6)
+);
@@ -0,0 +1,25 @@
+-- Indexes for the hot reservation, schedule and order queries.
+
+-- A seat stays locked until its reservation row is deleted, expired or not, so a seat of a
+-- screening may have one row at most. Older duplicates win, newer ones never held the seat.
+DELETE FROM temporary_reservations newer
+    USING temporary_reservations older
+    WHERE newer.screening_id = older.screening_id
+      AND newer.seat_id = older.seat_id
+      AND newer.id > older.id;
+
+-- Also covers the seat map query, which reads the lock owner and expiry of every seat
+CREATE UNIQUE INDEX ux_temporary_reservations_screening_seat
+    ON temporary_reservations (screening_id, seat_id) INCLUDE (expires_at, user_id);
+-- Cart lookups and extensions
+CREATE INDEX idx_temporary_reservations_user_expires ON temporary_reservations (user_id, expires_at);
+-- Expiry cleanup
+CREATE INDEX idx_temporary_reservations_expires ON temporary_reservations (expires_at);
+
+-- Overlap checks and the room schedule
+CREATE INDEX idx_screenings_room_start_end ON screenings (room_id, start_time, end_time);
+-- Repertoire by day
+CREATE INDEX idx_screenings_start ON screenings (start_time);
+
+-- Order history of a user
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
@@ -0,0 +1,13 @@
+-- Orders and tickets take their ids from pooled sequences, so Hibernate can batch the ticket
+-- inserts of an order. Hibernate hands out the 50 ids up to each value it draws, so the
+-- sequences start 50 past the highest existing id. Plain inserts still get an id by default.
+
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE orders_seq INCREMENT BY 50 OWNED BY orders.id;
+SELECT setval('orders_seq', COALESCE(MAX(id), 0) + 50, false) FROM orders;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+
+ALTER TABLE tickets ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE tickets_seq INCREMENT BY 50 OWNED BY tickets.id;
+SELECT setval('tickets_seq', COALESCE(MAX(id), 0) + 50, false) FROM tickets;
+ALTER TABLE tickets ALTER COLUMN id SET DEFAULT nextval('tickets_seq');
@@ -0,0 +1,3 @@
+-- Outbox messages are claimed as SENDING for the duration of a dispatch lease
+ALTER TABLE email_outbox DROP CONSTRAINT email_outbox_status_check;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'));
@@ -0,0 +1,87 @@
+package io.github.jakubpakula1.cinema.benchmark;
+
+import io.github.jakubpakula1.cinema.model.*;
+import io.github.jakubpakula1.cinema.service.PdfService;
+import io.github.jakubpakula1.cinema.service.TicketTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Ticket PDF rendering with the cached layout against a full rebuild per call, and per-ticket
+// vector QR codes against the single PNG code of the legacy path.
+// Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PdfRenderBenchmark
+// The gc profiler reports allocation per order (gc.alloc.rate.norm); divide by ticketCount for per ticket figures.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfRenderBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cacheLayout;
+
+    @Param({"true", "false"})
+    private boolean vectorQr;
+
+    @Param({"1", "10"})
+    private int ticketCount;
+
+    private PdfService pdfService;
+    private List<Ticket> tickets;
+
+    @Setup
+    public void setUp() {
+        TicketTokenService ticketTokenService = new TicketTokenService();
+        ReflectionTestUtils.setField(ticketTokenService, "tokenSecret", "benchmark-secret");
+        ticketTokenService.init();
+        pdfService = new PdfService(ticketTokenService);
+        ReflectionTestUtils.setField(pdfService, "cacheLayout", cacheLayout);
+        ReflectionTestUtils.setField(pdfService, "vectorQr", vectorQr);
+
+        Movie movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Inception");
+
+        Room room = new Room();
+        room.setId(1L);
+        room.setName("IMAX");
+
+        Screening screening = new Screening();
+        screening.setId(1L);
+        screening.setMovie(movie);
+        screening.setRoom(room);
+        screening.setStartTime(LocalDateTime.of(2030, 1, 1, 20, 0));
+
+        TicketType ticketType = new TicketType();
+        ticketType.setId(1L);
+        ticketType.setName("Normal");
+
+        tickets = new ArrayList<>();
+        for (int i = 1; i <= ticketCount; i++) {
+            Seat seat = new Seat();
+            seat.setId((long) i);
+            seat.setRowNumber(5);
+            seat.setSeatNumber(i);
+
+            Ticket ticket = new Ticket();
+            ticket.setId((long) i);
+            ticket.setScreening(screening);
+            ticket.setSeat(seat);
+            ticket.setTicketType(ticketType);
+            ticket.setPrice(new BigDecimal("25.00"));
+            tickets.add(ticket);
+        }
+    }
+
+    @Benchmark
+    public byte[] renderOrder() {
+        return pdfService.generateTicketPdf(tickets);
+    }
+}
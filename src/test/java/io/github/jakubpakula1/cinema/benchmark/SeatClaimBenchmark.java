@@ -0,0 +1,137 @@
+package io.github.jakubpakula1.cinema.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.jakubpakula1.cinema.dao.DatabaseDialect;
+import io.github.jakubpakula1.cinema.dao.SeatClaimDAO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Seat claims under contention: eight threads claim two adjacent seats out of a hot block of a
+// room, commit and release them again. "constraint" inserts through the unique key of
+// temporary_reservations (SeatClaimDAO), "pessimistic" locks the seat rows first like the
+// PESSIMISTIC claim mode. With several screenings of the same room the seat row locks still
+// serialize claims that never conflict, the unique key only those for the same screening.
+// Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SeatClaimBenchmark
+// Runs on in-memory H2 unless BENCHMARK_JDBC_URL (with BENCHMARK_JDBC_USER and BENCHMARK_JDBC_PASSWORD)
+// points at a scratch PostgreSQL database; its tables are dropped and recreated.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SeatClaimBenchmark {
+    private static final int HOT_SEATS = 16;
+
+    @Param({"constraint", "pessimistic"})
+    private String mode;
+
+    @Param({"1", "8"})
+    private int screenings;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SeatClaimDAO seatClaimDAO;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(env("BENCHMARK_JDBC_URL", "jdbc:h2:mem:seat-claims;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"));
+        dataSource.setUsername(env("BENCHMARK_JDBC_USER", "sa"));
+        dataSource.setPassword(env("BENCHMARK_JDBC_PASSWORD", ""));
+        dataSource.setMaximumPoolSize(8);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        seatClaimDAO = new SeatClaimDAO(jdbcTemplate, new DatabaseDialect(jdbcTemplate));
+
+        for (String table : List.of("temporary_reservations", "tickets", "seats", "screenings")) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        }
+        jdbcTemplate.execute("CREATE TABLE screenings (id BIGINT PRIMARY KEY, room_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE seats (id BIGINT PRIMARY KEY, room_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE tickets (id BIGINT PRIMARY KEY, screening_id BIGINT NOT NULL, seat_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("""
+                CREATE TABLE temporary_reservations (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    screening_id BIGINT NOT NULL, seat_id BIGINT NOT NULL,
+                    user_id BIGINT NOT NULL, expires_at TIMESTAMP NOT NULL,
+                    CONSTRAINT ux_temporary_reservations_screening_seat UNIQUE (screening_id, seat_id))
+                """);
+        for (long screeningId = 1; screeningId <= screenings; screeningId++) {
+            jdbcTemplate.update("INSERT INTO screenings VALUES (?, 1)", screeningId);
+        }
+        for (long seatId = 1; seatId <= 100; seatId++) {
+            jdbcTemplate.update("INSERT INTO seats VALUES (?, 1)", seatId);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public boolean claimAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long screeningId = random.nextLong(1, screenings + 1);
+        long firstSeat = random.nextLong(1, HOT_SEATS);
+        List<Long> seatIds = List.of(firstSeat, firstSeat + 1);
+        long userId = Thread.currentThread().threadId();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+
+        boolean claimed = Boolean.TRUE.equals(transactionTemplate.execute(status -> "constraint".equals(mode)
+                ? claimByConstraint(screeningId, seatIds, userId, expiresAt)
+                : claimWithSeatLocks(screeningId, seatIds, userId, expiresAt)));
+        if (claimed) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "DELETE FROM temporary_reservations WHERE screening_id = ? AND seat_id IN (?, ?)",
+                    screeningId, seatIds.get(0), seatIds.get(1)));
+        }
+        return claimed;
+    }
+
+    private boolean claimByConstraint(long screeningId, List<Long> seatIds, long userId, LocalDateTime expiresAt) {
+        try {
+            Map<Long, Long> claimed = seatClaimDAO.insertClaims(screeningId, seatIds, userId, expiresAt);
+            if (claimed.size() == seatIds.size()) {
+                return true;
+            }
+            claimed.values().forEach(id -> jdbcTemplate.update("DELETE FROM temporary_reservations WHERE id = ?", id));
+        } catch (DuplicateKeyException e) {
+            // H2 cannot skip conflicts of an INSERT ... SELECT, it fails the statement instead
+        }
+        return false;
+    }
+
+    private boolean claimWithSeatLocks(long screeningId, List<Long> seatIds, long userId, LocalDateTime expiresAt) {
+        jdbcTemplate.queryForList("SELECT id FROM seats WHERE id IN (?, ?) ORDER BY id FOR UPDATE", Long.class, seatIds.get(0), seatIds.get(1));
+        Integer taken = jdbcTemplate.queryForObject("""
+                SELECT (SELECT COUNT(*) FROM temporary_reservations WHERE screening_id = ? AND seat_id IN (?, ?))
+                     + (SELECT COUNT(*) FROM tickets WHERE screening_id = ? AND seat_id IN (?, ?))
+                """, Integer.class, screeningId, seatIds.get(0), seatIds.get(1), screeningId, seatIds.get(0), seatIds.get(1));
+        if (taken != null && taken > 0) {
+            return false;
+        }
+        for (Long seatId : seatIds) {
+            jdbcTemplate.update("INSERT INTO temporary_reservations (screening_id, seat_id, user_id, expires_at) VALUES (?, ?, ?, ?)",
+                    screeningId, seatId, userId, expiresAt);
+        }
+        return true;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -3,7 +3,7 @@ package io.github.jakubpakula1.cinema.controller;
 import io.github.jakubpakula1.cinema.controller.view.AuthViewController;
 import io.github.jakubpakula1.cinema.dto.UserDTO;
 import io.github.jakubpakula1.cinema.model.Order;
-import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.security.SecurityConfig;
 import io.github.jakubpakula1.cinema.service.BookingService;
 import io.github.jakubpakula1.cinema.service.UserService;
@@ -12,16 +12,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -80,13 +82,10 @@ public class AuthViewControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should show user profile with orders")
     public void shouldShowUserProfileWithOrders() throws Exception {
         // Given
-        User user = new User();
-        user.setId(1L);
-        user.setEmail("user@example.com");
+        CustomUserDetails user = new CustomUserDetails(1L, "user@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
 
         Order order1 = new Order();
         order1.setId(1L);
@@ -98,40 +97,36 @@ public class AuthViewControllerTest {
 
         List<Order> orders = List.of(order1, order2);
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
         when(bookingService.getAllOrdersForUser(1L)).thenReturn(orders);
 
         // When & Then
-        mockMvc.perform(get("/profile"))
+        mockMvc.perform(get("/profile").with(user(user)))
                 .andExpect(status().isOk())
                 .andExpect(view().name("profile"))
-                .andExpect(model().attributeExists("user"))
+                .andExpect(model().attribute("email", "user@example.com"))
                 .andExpect(model().attributeExists("orders"))
-                .andExpect(model().attribute("user", user));
+                .andExpect(model().attributeDoesNotExist("user"))
+                .andExpect(content().string(containsString("user@example.com")));
 
-        verify(userService, times(1)).getUserByEmail("user@example.com");
+        verifyNoInteractions(userService);
         verify(bookingService, times(1)).getAllOrdersForUser(1L);
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should show user profile with empty orders list")
     public void shouldShowUserProfileWithNoOrders() throws Exception {
         // Given
-        User user = new User();
-        user.setId(1L);
-        user.setEmail("user@example.com");
+        CustomUserDetails user = new CustomUserDetails(1L, "user@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
         when(bookingService.getAllOrdersForUser(1L)).thenReturn(List.of());
 
         // When & Then
-        mockMvc.perform(get("/profile"))
+        mockMvc.perform(get("/profile").with(user(user)))
                 .andExpect(status().isOk())
                 .andExpect(view().name("profile"))
                 .andExpect(model().attribute("orders", List.of()));
 
-        verify(userService, times(1)).getUserByEmail("user@example.com");
+        verifyNoInteractions(userService);
         verify(bookingService, times(1)).getAllOrdersForUser(1L);
     }
 
@@ -1,11 +1,16 @@
 package io.github.jakubpakula1.cinema.controller;
 
 import io.github.jakubpakula1.cinema.controller.api.ReservationRestController;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationResponseDTO;
 import io.github.jakubpakula1.cinema.dto.reservation.ReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.SeatLockResultDTO;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
 import io.github.jakubpakula1.cinema.model.Screening;
 import io.github.jakubpakula1.cinema.model.Seat;
 import io.github.jakubpakula1.cinema.model.TemporaryReservation;
 import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.security.SecurityConfig;
 import io.github.jakubpakula1.cinema.service.ReservationService;
 import io.github.jakubpakula1.cinema.service.UserService;
@@ -15,17 +20,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,7 +52,6 @@ public class ReservationRestControllerTest {
     private ReservationService reservationService;
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should create reservation successfully")
     void shouldCreateReservationSuccessfully() throws Exception {
         // Given
@@ -72,11 +79,11 @@ public class ReservationRestControllerTest {
         tempRes.setScreening(screening);
         tempRes.setExpiresAt(expiresAt);
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        when(userService.getReferenceById(1L)).thenReturn(user);
         when(reservationService.createTemporaryReservation(any(ReservationRequestDTO.class), eq(user))).thenReturn(tempRes);
 
         // When & Then
-        mockMvc.perform(post("/api/v1/reservations/lock")
+        mockMvc.perform(post("/api/v1/reservations/lock").with(user(userDetails(1L)))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"seatId\": 1, \"screeningId\": 1}"))
                 .andExpect(status().isOk())
@@ -85,12 +92,11 @@ public class ReservationRestControllerTest {
                 .andExpect(jsonPath("$.screeningId").value(screeningId))
                 .andExpect(jsonPath("$.expiresAt").exists());
 
-        verify(userService, times(1)).getUserByEmail("user@example.com");
+        verify(userService, times(1)).getReferenceById(1L);
         verify(reservationService, times(1)).createTemporaryReservation(any(ReservationRequestDTO.class), eq(user));
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should include expiration time in response")
     void shouldIncludeExpirationTimeInResponse() throws Exception {
         // Given
@@ -116,11 +122,11 @@ public class ReservationRestControllerTest {
         tempRes.setScreening(screening);
         tempRes.setExpiresAt(expiresAt);
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        when(userService.getReferenceById(1L)).thenReturn(user);
         when(reservationService.createTemporaryReservation(any(ReservationRequestDTO.class), eq(user))).thenReturn(tempRes);
 
         // When & Then
-        mockMvc.perform(post("/api/v1/reservations/lock")
+        mockMvc.perform(post("/api/v1/reservations/lock").with(user(userDetails(1L)))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"seatId\": 1, \"screeningId\": 1}"))
                 .andExpect(status().isOk())
@@ -158,7 +164,6 @@ public class ReservationRestControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should cancel reservation successfully")
     void shouldCancelReservationSuccessfully() throws Exception {
         // Given
@@ -170,21 +175,20 @@ public class ReservationRestControllerTest {
         user.setId(1L);
         user.setEmail("user@example.com");
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        when(userService.getReferenceById(1L)).thenReturn(user);
         doNothing().when(reservationService).deleteTemporaryReservation(any(ReservationRequestDTO.class), eq(user));
 
         // When & Then
-        mockMvc.perform(delete("/api/v1/reservations/lock")
+        mockMvc.perform(delete("/api/v1/reservations/lock").with(user(userDetails(1L)))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"seatId\": 1, \"screeningId\": 1}"))
                 .andExpect(status().isOk());
 
-        verify(userService, times(1)).getUserByEmail("user@example.com");
+        verify(userService, times(1)).getReferenceById(1L);
         verify(reservationService, times(1)).deleteTemporaryReservation(any(ReservationRequestDTO.class), eq(user));
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
     @DisplayName("Should pass correct user to reservation service")
     void shouldPassCorrectUserToReservationService() throws Exception {
         // Given
@@ -202,16 +206,95 @@ public class ReservationRestControllerTest {
         tempRes.setScreening(new Screening());
         tempRes.setExpiresAt(LocalDateTime.now().plusMinutes(15));
 
-        when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        when(userService.getReferenceById(2L)).thenReturn(user);
         when(reservationService.createTemporaryReservation(any(ReservationRequestDTO.class), eq(user))).thenReturn(tempRes);
 
         // When & Then
-        mockMvc.perform(post("/api/v1/reservations/lock")
+        mockMvc.perform(post("/api/v1/reservations/lock").with(user(userDetails(2L)))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"seatId\": 1, \"screeningId\": 1}"))
                 .andExpect(status().isOk());
 
-        verify(userService, times(1)).getUserByEmail("user@example.com");
+        verify(userService, times(1)).getReferenceById(2L);
         verify(reservationService, times(1)).createTemporaryReservation(any(ReservationRequestDTO.class), eq(user));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should lock a batch of seats successfully")
+    void shouldLockBatchOfSeatsSuccessfully() throws Exception {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+
+        BatchReservationResponseDTO response = BatchReservationResponseDTO.builder()
+                .screeningId(1L)
+                .locked(true)
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .seats(List.of(
+                        SeatLockResultDTO.builder().seatId(1L).status(SeatLockStatus.LOCKED).reservationId(10L).build(),
+                        SeatLockResultDTO.builder().seatId(2L).status(SeatLockStatus.LOCKED).reservationId(11L).build()))
+                .build();
+
+        when(userService.getReferenceById(1L)).thenReturn(user);
+        when(reservationService.createTemporaryReservations(any(BatchReservationRequestDTO.class), eq(user))).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reservations/lock/batch").with(user(userDetails(1L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"screeningId\": 1, \"seatIds\": [1, 2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.locked").value(true))
+                .andExpect(jsonPath("$.seats.length()").value(2))
+                .andExpect(jsonPath("$.seats[0].status").value("LOCKED"))
+                .andExpect(jsonPath("$.seats[1].reservationId").value(11L));
+
+        verify(reservationService, times(1)).createTemporaryReservations(any(BatchReservationRequestDTO.class), eq(user));
+    }
+
+    @Test
+    @DisplayName("Should return 409 with per-seat results when a seat in the batch is taken")
+    void shouldReturnConflictWhenBatchSeatTaken() throws Exception {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+
+        BatchReservationResponseDTO response = BatchReservationResponseDTO.builder()
+                .screeningId(1L)
+                .locked(false)
+                .seats(List.of(
+                        SeatLockResultDTO.builder().seatId(1L).status(SeatLockStatus.AVAILABLE).build(),
+                        SeatLockResultDTO.builder().seatId(2L).status(SeatLockStatus.TAKEN).build()))
+                .build();
+
+        when(userService.getReferenceById(1L)).thenReturn(user);
+        when(reservationService.createTemporaryReservations(any(BatchReservationRequestDTO.class), eq(user))).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reservations/lock/batch").with(user(userDetails(1L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"screeningId\": 1, \"seatIds\": [1, 2]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.locked").value(false))
+                .andExpect(jsonPath("$.seats[1].status").value("TAKEN"));
+    }
+
+    @Test
+    @DisplayName("Should reject batch lock without seats")
+    void shouldRejectBatchWithoutSeats() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/reservations/lock/batch").with(user(userDetails(1L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"screeningId\": 1, \"seatIds\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.fieldErrors.seatIds").exists());
+
+        verifyNoInteractions(reservationService);
+    }
+
+    private static CustomUserDetails userDetails(Long userId) {
+        return new CustomUserDetails(userId, "user@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
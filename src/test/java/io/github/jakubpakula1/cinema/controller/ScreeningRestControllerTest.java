@@ -2,23 +2,40 @@ package io.github.jakubpakula1.cinema.controller;
 
 import io.github.jakubpakula1.cinema.controller.api.ScreeningRestController;
 import io.github.jakubpakula1.cinema.dto.screening.CollisionDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportResultDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportRowDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatChangeDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.enums.ScreeningImportStatus;
+import io.github.jakubpakula1.cinema.enums.SeatState;
+import io.github.jakubpakula1.cinema.exception.ScreeningOverlapException;
 import io.github.jakubpakula1.cinema.security.SecurityConfig;
+import io.github.jakubpakula1.cinema.service.ScheduleOptimizerService;
+import io.github.jakubpakula1.cinema.service.ScreeningImportService;
 import io.github.jakubpakula1.cinema.service.ScreeningService;
+import io.github.jakubpakula1.cinema.service.SeatStateService;
+import io.github.jakubpakula1.cinema.service.SeatStreamService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ScreeningRestController.class)
@@ -32,6 +49,18 @@ public class ScreeningRestControllerTest {
     @MockitoBean
     private ScreeningService screeningService;
 
+    @MockitoBean
+    private SeatStateService seatStateService;
+
+    @MockitoBean
+    private SeatStreamService seatStreamService;
+
+    @MockitoBean
+    private ScreeningImportService screeningImportService;
+
+    @MockitoBean
+    private ScheduleOptimizerService scheduleOptimizerService;
+
     @Test
     @WithMockUser(roles = "USER")
     @DisplayName("Should check collisions by movie, room and start time")
@@ -235,4 +264,211 @@ public class ScreeningRestControllerTest {
         verify(screeningService, times(1)).getCollidingScreenings(2L, from, to);
         verifyNoMoreInteractions(screeningService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should return seats changed since the given version")
+    void shouldReturnSeatMapChangesSinceVersion() throws Exception {
+        // Given
+        SeatMapDeltaDTO delta = SeatMapDeltaDTO.builder()
+                .screeningId(1L)
+                .version(43L)
+                .full(false)
+                .seats(List.of(SeatChangeDTO.builder().seatId(7L).state(SeatState.LOCKED).build()))
+                .build();
+
+        when(seatStateService.getChangesSince(1L, 42L)).thenReturn(delta);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/screenings/1/seats")
+                .param("since", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(43))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.seats", hasSize(1)))
+                .andExpect(jsonPath("$.seats[0].seatId").value(7))
+                .andExpect(jsonPath("$.seats[0].state").value("LOCKED"));
+
+        verify(seatStateService, times(1)).getChangesSince(1L, 42L);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should request the full seat map when no version is given")
+    void shouldRequestFullSeatMapWithoutVersion() throws Exception {
+        // Given
+        when(seatStateService.getChangesSince(1L, null)).thenReturn(SeatMapDeltaDTO.builder()
+                .screeningId(1L)
+                .version(1L)
+                .full(true)
+                .seats(List.of())
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/screenings/1/seats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true));
+
+        verify(seatStateService, times(1)).getChangesSince(1L, null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should open a seat stream from the page version")
+    void shouldOpenSeatStreamFromPageVersion() throws Exception {
+        // Given
+        when(seatStreamService.subscribe(1L, 42L)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/screenings/1/seats/stream")
+                .param("since", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(seatStreamService, times(1)).subscribe(1L, 42L);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should resume a seat stream from the last event id")
+    void shouldResumeSeatStreamFromLastEventId() throws Exception {
+        // Given
+        when(seatStreamService.subscribe(1L, 50L)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/screenings/1/seats/stream")
+                .param("since", "42")
+                .header("Last-Event-ID", "50"))
+                .andExpect(request().asyncStarted());
+
+        verify(seatStreamService, times(1)).subscribe(1L, 50L);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should import a JSON list of screenings as admin")
+    void shouldImportScreeningsAsAdmin() throws Exception {
+        // Given
+        when(screeningImportService.importScreenings(anyList(), eq(true))).thenReturn(ScreeningImportResultDTO.builder()
+                .dryRun(true)
+                .accepted(1)
+                .rows(List.of(ScreeningImportRowDTO.builder().row(1).status(ScreeningImportStatus.VALID).build()))
+                .build());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/screenings/bulk")
+                .param("dryRun", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"movieId\":1,\"roomId\":1,\"screeningTime\":\"2030-01-01T18:00:00\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("VALID"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should import a CSV body of screenings as admin")
+    void shouldImportCsvAsAdmin() throws Exception {
+        // Given
+        String csv = "1,1,2030-01-01T18:00\n";
+        when(screeningImportService.importCsv(csv, false)).thenReturn(ScreeningImportResultDTO.builder()
+                .accepted(1)
+                .rows(List.of())
+                .build());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/screenings/bulk")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1));
+
+        verify(screeningImportService, times(1)).importCsv(csv, false);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject a recurrence above the import limit")
+    void shouldRejectOversizedRecurrence() throws Exception {
+        // Given
+        when(screeningImportService.importRecurrence(any(), eq(false))).thenThrow(new IllegalArgumentException("Recurrence exceeds the import limit"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/screenings/bulk/recurrence")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieId\":1,\"roomId\":1,\"startDate\":\"2030-01-01\",\"endDate\":\"2040-01-01\",\"times\":[\"18:00\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Recurrence exceeds the import limit"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return the overlap when an import collides with another screening")
+    void shouldReturnConflictOnOverlap() throws Exception {
+        // Given
+        when(screeningImportService.importScreenings(anyList(), eq(false)))
+                .thenThrow(new ScreeningOverlapException("Room 1 is busy at 2030-01-01T18:00"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/screenings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"movieId\":1,\"roomId\":1,\"screeningTime\":\"2030-01-01T18:00:00\"}]"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Room 1 is busy at 2030-01-01T18:00"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should forbid bulk scheduling for regular users")
+    void shouldForbidBulkImportForUser() throws Exception {
+        mockMvc.perform(post("/api/v1/screenings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(screeningImportService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return a weekly plan preview as admin")
+    void shouldPlanWeekAsAdmin() throws Exception {
+        // Given
+        when(scheduleOptimizerService.plan(any())).thenReturn(SchedulePlanDTO.builder()
+                .requestedShowings(1)
+                .plannedShowings(1)
+                .screenings(List.of(ScreeningDTO.builder().movieId(1L).roomId(2L).screeningTime(LocalDateTime.of(2030, 1, 7, 18, 0)).build()))
+                .build());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/screenings/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"weekStart\":\"2030-01-07\",\"movies\":[{\"movieId\":1,\"showings\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plannedShowings").value(1))
+                .andExpect(jsonPath("$.screenings[0].roomId").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject a plan request without movies")
+    void shouldRejectPlanWithoutMovies() throws Exception {
+        mockMvc.perform(post("/api/v1/screenings/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"weekStart\":\"2030-01-07\",\"movies\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request."))
+                .andExpect(jsonPath("$.fieldErrors.movies").exists());
+
+        verifyNoInteractions(scheduleOptimizerService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Should forbid schedule planning for regular users")
+    void shouldForbidPlanningForUser() throws Exception {
+        mockMvc.perform(post("/api/v1/screenings/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"weekStart\":\"2030-01-07\",\"movies\":[{\"movieId\":1,\"showings\":1}]}"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -8,15 +8,18 @@ import io.github.jakubpakula1.cinema.enums.ReservationStatus;
 import io.github.jakubpakula1.cinema.exception.EmptyCartException;
 import io.github.jakubpakula1.cinema.exception.ReservationExpiredException;
 import io.github.jakubpakula1.cinema.model.*;
+import io.github.jakubpakula1.cinema.security.CustomUserDetails;
 import io.github.jakubpakula1.cinema.service.BookingService;
 import io.github.jakubpakula1.cinema.service.ReservationService;
 import io.github.jakubpakula1.cinema.service.ScreeningService;
+import io.github.jakubpakula1.cinema.service.SeatStateService;
 import io.github.jakubpakula1.cinema.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,6 +31,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,7 +53,12 @@ public class ScreeningViewControllerTest {
 
     @MockitoBean
     private UserService userService;
+
+    @MockitoBean
+    private SeatStateService seatStateService;
     private User testUser;
+    private final CustomUserDetails userDetails =
+            new CustomUserDetails(1L, "user@test.com", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
     private Movie testMovie;
     private Screening testScreening;
     private Order testOrder;
@@ -104,7 +113,7 @@ public class ScreeningViewControllerTest {
                 .screening(testScreening)
                 .movie(testMovie)
                 .ticketTypes(List.of())
-                .user(testUser)
+                .userEmail(testUser.getEmail())
                 .expirationTime(LocalDateTime.now().plusMinutes(15))
                 .build();
     }
@@ -130,27 +139,26 @@ public class ScreeningViewControllerTest {
 
         when(screeningService.getScreeningEntityById(screeningId)).thenReturn(screening);
         when(screeningService.getSeatsWithStatus(screeningId)).thenReturn(seatsStatus);
+        when(seatStateService.getVersion(screeningId)).thenReturn(7L);
 
         // when & then
         mockMvc.perform(get("/screenings/booking/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("screening/seat-view"))
-                .andExpect(model().attributeExists("seats", "movie", "screeningTime", "screeningId"))
+                .andExpect(model().attributeExists("seats", "movie", "screeningTime", "screeningId", "seatMapVersion"))
                 .andExpect(model().attribute("movie", movie))
+                .andExpect(model().attribute("seatMapVersion", 7L))
                 .andExpect(model().attribute("screeningId", screeningId));
     }
 
     @Test
     @DisplayName("Should show booking summary when cart is not empty")
-    @WithMockUser(username = "user@test.com", roles = "USER")
     void shouldShowBookingSummary() throws Exception {
         // given
-
-
-        when(reservationService.prepareSummary("user@test.com")).thenReturn(testBookingSummary);
+        when(reservationService.prepareSummary(1L, "user@test.com")).thenReturn(testBookingSummary);
 
         // when & then
-        mockMvc.perform(get("/screenings/booking/summary"))
+        mockMvc.perform(get("/screenings/booking/summary").with(user(userDetails)))
                 .andExpect(status().isOk())
                 .andExpect(view().name("screening/booking-summary"))
                 .andExpect(model().attribute("summary", testBookingSummary));
@@ -158,29 +166,27 @@ public class ScreeningViewControllerTest {
 
     @Test
     @DisplayName("Should redirect to repertoire when booking summary cart is empty")
-    @WithMockUser(username = "user@test.com", roles = "USER")
     void shouldRedirectWhenCartEmpty() throws Exception {
         // given
-        when(reservationService.prepareSummary("user@test.com"))
+        when(reservationService.prepareSummary(1L, "user@test.com"))
                 .thenThrow(new EmptyCartException("Cart is empty"));
 
         // when & then
-        mockMvc.perform(get("/screenings/booking/summary"))
+        mockMvc.perform(get("/screenings/booking/summary").with(user(userDetails)))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/repertoire"));
     }
 
     @Test
     @DisplayName("Should successfully process booking and show success page")
-    @WithMockUser(username = "user@test.com", roles = "USER")
     void shouldProcessBookingSuccessfully() throws Exception {
         // given
-        when(userService.getUserByEmail("user@test.com")).thenReturn(testUser);
+        when(userService.getReferenceById(1L)).thenReturn(testUser);
         when(bookingService.finalizeOrder(any(BookingRequestDTO.class), any(User.class)))
                 .thenReturn(1L);
 
         // when & then
-        mockMvc.perform(post("/screenings/booking/process")
+        mockMvc.perform(post("/screenings/booking/process").with(user(userDetails))
                 .with(csrf())
                 .param("seatIds", "1", "2")
                 .param("screeningId", "1"))
@@ -190,15 +196,14 @@ public class ScreeningViewControllerTest {
 
     @Test
     @DisplayName("Should handle reservation expired exception during booking")
-    @WithMockUser(username = "user@test.com", roles = "USER")
     void shouldHandleReservationExpired() throws Exception {
         // given
-        when(userService.getUserByEmail("user@test.com")).thenReturn(testUser);
+        when(userService.getReferenceById(1L)).thenReturn(testUser);
         when(bookingService.finalizeOrder(any(BookingRequestDTO.class), any(User.class)))
                 .thenThrow(new ReservationExpiredException("Reservation expired"));
 
         // when & then
-        mockMvc.perform(post("/screenings/booking/process")
+        mockMvc.perform(post("/screenings/booking/process").with(user(userDetails))
                 .with(csrf())
                 .param("seatIds", "1")
                 .param("screeningId", "1"))
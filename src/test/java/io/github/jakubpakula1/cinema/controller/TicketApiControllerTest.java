@@ -1,9 +1,12 @@
 package io.github.jakubpakula1.cinema.controller;
 
 import io.github.jakubpakula1.cinema.controller.api.TicketRestController;
+import io.github.jakubpakula1.cinema.dto.ticket.TicketValidationResponseDTO;
+import io.github.jakubpakula1.cinema.enums.TicketValidationStatus;
 import io.github.jakubpakula1.cinema.security.SecurityConfig;
 import io.github.jakubpakula1.cinema.service.PdfService;
 import io.github.jakubpakula1.cinema.service.TicketService;
+import io.github.jakubpakula1.cinema.service.TicketValidationService;
 import io.github.jakubpakula1.cinema.service.UserService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +22,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TicketRestController.class)
@@ -37,6 +41,9 @@ class TicketApiControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private TicketValidationService ticketValidationService;
+
     // --- Pobranie PDF (Sukces) ---
     @Test
     @DisplayName("Should return PDF when user is authorized")
@@ -60,4 +67,43 @@ class TicketApiControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/login"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should validate a ticket token for door staff")
+    @WithMockUser(roles = "ADMIN")
+    void shouldValidateTicketForAdmin() throws Exception {
+        when(ticketValidationService.validate("TOKEN", 7L)).thenReturn(TicketValidationResponseDTO.builder()
+                .status(TicketValidationStatus.VALID)
+                .ticketId(1L)
+                .screeningId(7L)
+                .seatId(3L)
+                .build());
+
+        mockMvc.perform(post("/api/v1/tickets/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"TOKEN\",\"screeningId\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("VALID"))
+                .andExpect(jsonPath("$.seatId").value(3));
+    }
+
+    @Test
+    @DisplayName("Should reject a blank ticket token")
+    @WithMockUser(roles = "ADMIN")
+    void shouldRejectBlankToken() throws Exception {
+        mockMvc.perform(post("/api/v1/tickets/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should forbid ticket validation for regular users")
+    @WithMockUser(roles = "USER")
+    void shouldForbidValidationForUser() throws Exception {
+        mockMvc.perform(post("/api/v1/tickets/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"TOKEN\"}"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The H2 cases again on PostgreSQL with the Flyway schema, where the DAO deletes with
+// DELETE ... RETURNING and skips locked rows. Skipped when Docker is not available.
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExpiredReservationDAO.class, DatabaseDialect.class})
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class ExpiredReservationDAOPostgresTest extends ExpiredReservationDAOTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine");
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Test
+    @DisplayName("Should take the PostgreSQL statements")
+    void testDialect() {
+        assertThat(databaseDialect.isPostgres()).isTrue();
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import io.github.jakubpakula1.cinema.dao.ExpiredReservationDAO.ExpiredReservation;
+import io.github.jakubpakula1.cinema.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ExpiredReservationDAO.class, DatabaseDialect.class})
+class ExpiredReservationDAOTest {
+
+    @Autowired
+    private ExpiredReservationDAO expiredReservationDAO;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final List<TemporaryReservation> expired = new ArrayList<>();
+    private TemporaryReservation alive;
+    private Screening screening;
+
+    @BeforeEach
+    void setUp() {
+        Room room = new Room();
+        room.setName("Sala 1");
+        entityManager.persist(room);
+
+        Movie movie = new Movie();
+        movie.setTitle("Test Movie");
+        movie.setDurationInMinutes(120);
+        entityManager.persist(movie);
+
+        screening = new Screening();
+        screening.setMovie(movie);
+        screening.setRoom(room);
+        screening.setStartTime(now.plusDays(1));
+        screening.setEndTime(now.plusDays(1).plusHours(2));
+        entityManager.persist(screening);
+
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        for (int i = 1; i <= 5; i++) {
+            expired.add(reservation(room, user, i, now.minusMinutes(i)));
+        }
+        alive = reservation(room, user, 6, now.plusMinutes(10));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should delete expired reservations in bounded chunks and return their seats")
+    void testDeleteExpired_Chunks() {
+        // when
+        List<ExpiredReservation> first = expiredReservationDAO.deleteExpired(now, 3);
+        List<ExpiredReservation> second = expiredReservationDAO.deleteExpired(now, 3);
+        List<ExpiredReservation> third = expiredReservationDAO.deleteExpired(now, 3);
+
+        // then
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(third).isEmpty();
+        assertThat(first).extracting(ExpiredReservation::screeningId).containsOnly(screening.getId());
+        assertThat(remainingIds()).containsExactly(alive.getId());
+    }
+
+    @Test
+    @DisplayName("Should delete only the given reservations that have expired")
+    void testDeleteExpired_ByIds() {
+        // when
+        List<ExpiredReservation> deleted = expiredReservationDAO.deleteExpired(
+                List.of(expired.get(0).getId(), expired.get(1).getId(), alive.getId()), now);
+
+        // then
+        assertThat(deleted)
+                .extracting(ExpiredReservation::id)
+                .containsExactlyInAnyOrder(expired.get(0).getId(), expired.get(1).getId());
+        assertThat(deleted)
+                .extracting(ExpiredReservation::seatId)
+                .containsExactlyInAnyOrder(expired.get(0).getSeat().getId(), expired.get(1).getSeat().getId());
+        assertThat(remainingIds()).hasSize(4).contains(alive.getId());
+    }
+
+    private List<Long> remainingIds() {
+        entityManager.clear();
+        return entityManager.getEntityManager()
+                .createQuery("SELECT tr.id FROM TemporaryReservation tr", Long.class)
+                .getResultList();
+    }
+
+    private TemporaryReservation reservation(Room room, User user, int seatNumber, LocalDateTime expiresAt) {
+        Seat seat = new Seat();
+        seat.setRoom(room);
+        seat.setRowNumber(1);
+        seat.setSeatNumber(seatNumber);
+        entityManager.persist(seat);
+
+        TemporaryReservation reservation = new TemporaryReservation();
+        reservation.setSeat(seat);
+        reservation.setScreening(screening);
+        reservation.setUser(user);
+        reservation.setExpiresAt(expiresAt);
+        entityManager.persist(reservation);
+        return reservation;
+    }
+}
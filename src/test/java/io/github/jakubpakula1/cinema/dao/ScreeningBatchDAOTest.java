@@ -0,0 +1,58 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import io.github.jakubpakula1.cinema.dao.ScreeningBatchDAO.NewScreening;
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.model.Screening;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ScreeningBatchDAO.class)
+class ScreeningBatchDAOTest {
+
+    @Autowired
+    private ScreeningBatchDAO screeningBatchDAO;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should insert screenings in one batch and return their ids in order")
+    void testInsertAll() {
+        // given
+        Room room = new Room();
+        room.setName("Sala 1");
+        entityManager.persist(room);
+
+        Movie movie = new Movie();
+        movie.setTitle("Test Movie");
+        movie.setDurationInMinutes(120);
+        entityManager.persist(movie);
+        entityManager.flush();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        // when
+        List<Long> ids = screeningBatchDAO.insertAll(List.of(
+                new NewScreening(movie.getId(), room.getId(), start, start.plusMinutes(120)),
+                new NewScreening(movie.getId(), room.getId(), start.plusHours(3), start.plusHours(5))));
+
+        // then
+        assertThat(ids).hasSize(2).doesNotContainNull();
+        entityManager.clear();
+        Screening second = entityManager.find(Screening.class, ids.get(1));
+        assertThat(second.getStartTime()).isEqualTo(start.plusHours(3));
+        assertThat(second.getRoom().getId()).isEqualTo(room.getId());
+        assertThat(second.getMovie().getTitle()).isEqualTo("Test Movie");
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The H2 cases again on PostgreSQL with the Flyway schema, where the claim INSERT carries
+// ON CONFLICT DO NOTHING and the unique key rejects a duplicate. Skipped when Docker is not available.
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SeatClaimDAO.class, DatabaseDialect.class})
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class SeatClaimDAOPostgresTest extends SeatClaimDAOTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine");
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Test
+    @DisplayName("Should take the PostgreSQL statements")
+    void testDialect() {
+        assertThat(databaseDialect.isPostgres()).isTrue();
+    }
+
+    // PostgreSQL aborts the test transaction with the failed statement, so the rows are not read back
+    @Override
+    @Test
+    @DisplayName("Should fail the whole insert when a seat is already reserved")
+    void testInsertReservations_Duplicate() {
+        // given
+        seatClaimDAO.insertReservations(screening.getId(), List.of(seats.get(0).getId()), user.getId(), expiresAt);
+
+        // when & then
+        assertThatThrownBy(() -> seatClaimDAO.insertReservations(screening.getId(),
+                List.of(seats.get(1).getId(), seats.get(0).getId()), user.getId(), expiresAt))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.jakubpakula1.cinema.dao;
+
+import io.github.jakubpakula1.cinema.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({SeatClaimDAO.class, DatabaseDialect.class})
+class SeatClaimDAOTest {
+
+    @Autowired
+    SeatClaimDAO seatClaimDAO;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    final LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+    final List<Seat> seats = new ArrayList<>();
+    Screening screening;
+    User user;
+    private Seat otherRoomSeat;
+
+    @BeforeEach
+    void setUp() {
+        Room room = room("Sala 1");
+        Room otherRoom = room("Sala 2");
+
+        Movie movie = new Movie();
+        movie.setTitle("Test Movie");
+        movie.setDurationInMinutes(120);
+        entityManager.persist(movie);
+
+        screening = new Screening();
+        screening.setMovie(movie);
+        screening.setRoom(room);
+        screening.setStartTime(LocalDateTime.now().plusDays(1));
+        screening.setEndTime(LocalDateTime.now().plusDays(1).plusHours(2));
+        entityManager.persist(screening);
+
+        user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        for (int i = 1; i <= 4; i++) {
+            seats.add(seat(room, i));
+        }
+        otherRoomSeat = seat(otherRoom, 1);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should insert a reservation for every free seat of the screening's room")
+    void testInsertClaims() {
+        // when
+        Map<Long, Long> claimed = seatClaimDAO.insertClaims(screening.getId(),
+                List.of(seats.get(0).getId(), seats.get(1).getId(), otherRoomSeat.getId()), user.getId(), expiresAt);
+
+        // then
+        assertThat(claimed).containsOnlyKeys(seats.get(0).getId(), seats.get(1).getId());
+        assertThat(reservedSeatIds()).containsExactlyInAnyOrderElementsOf(claimed.keySet());
+        assertThat(claimed.values()).containsExactlyInAnyOrderElementsOf(reservationIds());
+    }
+
+    @Test
+    @DisplayName("Should skip reserved and sold seats instead of failing")
+    void testInsertClaims_SkipsTakenSeats() {
+        // given
+        seatClaimDAO.insertClaims(screening.getId(), List.of(seats.get(0).getId()), user.getId(), expiresAt);
+
+        TicketType ticketType = new TicketType();
+        ticketType.setName("Normal");
+        ticketType.setPrice(BigDecimal.TEN);
+        entityManager.persist(ticketType);
+
+        Order order = new Order();
+        order.setUser(user);
+        entityManager.persist(order);
+
+        Ticket ticket = new Ticket();
+        ticket.setOrder(order);
+        ticket.setTicketType(ticketType);
+        ticket.setPrice(BigDecimal.TEN);
+        ticket.setScreening(screening);
+        ticket.setSeat(seats.get(1));
+        entityManager.persist(ticket);
+        entityManager.flush();
+
+        // when
+        Map<Long, Long> claimed = seatClaimDAO.insertClaims(screening.getId(),
+                List.of(seats.get(0).getId(), seats.get(1).getId(), seats.get(2).getId()), user.getId(), expiresAt);
+
+        // then
+        assertThat(claimed).containsOnlyKeys(seats.get(2).getId());
+        assertThat(reservedSeatIds()).containsExactlyInAnyOrder(seats.get(0).getId(), seats.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("Should insert the reservations of an arbitrated claim in one statement")
+    void testInsertReservations() {
+        // when
+        Map<Long, Long> inserted = seatClaimDAO.insertReservations(screening.getId(),
+                List.of(seats.get(2).getId(), seats.get(0).getId()), user.getId(), expiresAt);
+
+        // then
+        assertThat(inserted).containsOnlyKeys(seats.get(2).getId(), seats.get(0).getId());
+        assertThat(inserted.values()).containsExactlyInAnyOrderElementsOf(reservationIds());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole insert when a seat is already reserved")
+    void testInsertReservations_Duplicate() {
+        // given
+        seatClaimDAO.insertReservations(screening.getId(), List.of(seats.get(0).getId()), user.getId(), expiresAt);
+
+        // when & then
+        assertThatThrownBy(() -> seatClaimDAO.insertReservations(screening.getId(),
+                List.of(seats.get(1).getId(), seats.get(0).getId()), user.getId(), expiresAt))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(reservedSeatIds()).containsExactly(seats.get(0).getId());
+    }
+
+    private List<Long> reservedSeatIds() {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT tr.seat.id FROM TemporaryReservation tr", Long.class)
+                .getResultList();
+    }
+
+    private List<Long> reservationIds() {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT tr.id FROM TemporaryReservation tr", Long.class)
+                .getResultList();
+    }
+
+    private Room room(String name) {
+        Room room = new Room();
+        room.setName(name);
+        entityManager.persist(room);
+        return room;
+    }
+
+    private Seat seat(Room room, int seatNumber) {
+        Seat seat = new Seat();
+        seat.setRoom(room);
+        seat.setRowNumber(1);
+        seat.setSeatNumber(seatNumber);
+        entityManager.persist(seat);
+        return seat;
+    }
+}
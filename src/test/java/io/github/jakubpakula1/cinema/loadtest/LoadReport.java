@@ -0,0 +1,127 @@
+package io.github.jakubpakula1.cinema.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies per step plus the outcome counters of one run. Saved as a flat properties file so
+// a later run can be compared against it key by key.
+class LoadReport {
+    static final String BROWSE = "browse";
+    static final String LOCK = "lock";
+    static final String SUMMARY = "summary";
+    static final String FINALIZE = "finalize";
+
+    private static final List<String> STEPS = List.of(BROWSE, LOCK, SUMMARY, FINALIZE);
+
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    final LongAdder orders = new LongAdder();
+    final LongAdder ticketsSold = new LongAdder();
+    final LongAdder lockAttempts = new LongAdder();
+    final LongAdder lockConflicts = new LongAdder();
+    final LongAdder deadlocks = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder soldOut = new LongAdder();
+
+    LoadReport() {
+        STEPS.forEach(step -> latencies.put(step, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3)));
+    }
+
+    void record(String step, long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencies.get(step).recordValue(Math.min(micros, latencies.get(step).getHighestTrackableValue()));
+    }
+
+    Properties toProperties(int users, long elapsedMillis) {
+        Properties properties = new Properties();
+        double seconds = elapsedMillis / 1000.0;
+        properties.setProperty("users", String.valueOf(users));
+        properties.setProperty("elapsed.ms", String.valueOf(elapsedMillis));
+        properties.setProperty("orders", String.valueOf(orders.sum()));
+        properties.setProperty("orders.per.second", format(orders.sum() / seconds));
+        properties.setProperty("tickets.sold", String.valueOf(ticketsSold.sum()));
+        properties.setProperty("lock.attempts", String.valueOf(lockAttempts.sum()));
+        properties.setProperty("lock.conflict.rate", format(lockAttempts.sum() == 0 ? 0 : (double) lockConflicts.sum() / lockAttempts.sum()));
+        properties.setProperty("deadlocks", String.valueOf(deadlocks.sum()));
+        properties.setProperty("errors", String.valueOf(errors.sum()));
+        properties.setProperty("sold.out", String.valueOf(soldOut.sum()));
+        latencies.forEach((step, histogram) -> {
+            properties.setProperty(step + ".count", String.valueOf(histogram.getTotalCount()));
+            properties.setProperty(step + ".per.second", format(histogram.getTotalCount() / seconds));
+            properties.setProperty(step + ".p50.ms", millis(histogram.getValueAtPercentile(50)));
+            properties.setProperty(step + ".p99.ms", millis(histogram.getValueAtPercentile(99)));
+            properties.setProperty(step + ".p999.ms", millis(histogram.getValueAtPercentile(99.9)));
+            properties.setProperty(step + ".max.ms", millis(histogram.getMaxValue()));
+        });
+        return properties;
+    }
+
+    static String describe(Properties report) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%d users in %s ms: %s orders (%s/s), %s tickets, lock conflict rate %s, %s deadlocks, %s errors, %s sold out%n",
+                Integer.parseInt(report.getProperty("users")), report.getProperty("elapsed.ms"), report.getProperty("orders"),
+                report.getProperty("orders.per.second"), report.getProperty("tickets.sold"), report.getProperty("lock.conflict.rate"),
+                report.getProperty("deadlocks"), report.getProperty("errors"), report.getProperty("sold.out")));
+        text.append(String.format(Locale.ROOT, "%-9s %8s %9s %9s %9s %9s %9s%n", "step", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (String step : STEPS) {
+            text.append(String.format(Locale.ROOT, "%-9s %8s %9s %9s %9s %9s %9s%n", step,
+                    report.getProperty(step + ".count"), report.getProperty(step + ".per.second"),
+                    report.getProperty(step + ".p50.ms"), report.getProperty(step + ".p99.ms"),
+                    report.getProperty(step + ".p999.ms"), report.getProperty(step + ".max.ms")));
+        }
+        return text.toString();
+    }
+
+    // Steps whose p99 grew by more than the allowed fraction over the baseline
+    static List<String> regressions(Properties baseline, Properties report, double allowedIncrease) {
+        List<String> regressions = new ArrayList<>();
+        for (String step : STEPS) {
+            String key = step + ".p99.ms";
+            if (baseline.getProperty(key) == null) {
+                continue;
+            }
+            double before = Double.parseDouble(baseline.getProperty(key));
+            double after = Double.parseDouble(report.getProperty(key));
+            if (after > before * (1 + allowedIncrease)) {
+                regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms -> %.2f ms", step, before, after));
+            }
+        }
+        return regressions;
+    }
+
+    static void write(Properties report, Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            report.store(writer, "Premiere rush load test");
+        }
+    }
+
+    static Properties read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static String millis(long micros) {
+        return format(micros / 1000.0);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
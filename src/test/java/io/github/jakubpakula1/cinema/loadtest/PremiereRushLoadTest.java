@@ -0,0 +1,302 @@
+package io.github.jakubpakula1.cinema.loadtest;
+
+import io.github.jakubpakula1.cinema.dto.booking.BookingRequestDTO;
+import io.github.jakubpakula1.cinema.dto.booking.TicketSelectionDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatStatusDTO;
+import io.github.jakubpakula1.cinema.model.TicketType;
+import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.service.BookingService;
+import io.github.jakubpakula1.cinema.service.ReferenceDataService;
+import io.github.jakubpakula1.cinema.service.ReservationService;
+import io.github.jakubpakula1.cinema.service.ScreeningService;
+import io.github.jakubpakula1.cinema.service.UserService;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// Premiere night: a crowd of users arrives within the ramp-up and rushes one screening, each
+// browsing the seat map, locking a group of adjacent seats, opening the summary and buying.
+// Runs against PostgreSQL in a container with the Flyway schema, only with the loadtest profile:
+//   mvn -Ploadtest test -Dloadtest.users=5000 -Dloadtest.baseline=target/loadtest/baseline.properties
+// Any loadtest.* or cinema.* property (e.g. -Dcinema.seats.claim-mode=constraint) can be set the same way.
+// The report is written to loadtest.report; with a baseline the run fails when a step's p99 grew
+// by more than loadtest.max-p99-increase.
+@Slf4j
+@Tag("load")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=${loadtest.pool-size:20}",
+        "spring.devtools.restart.enabled=false",
+        "management.health.mail.enabled=false"
+})
+class PremiereRushLoadTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withUrlParam("reWriteBatchedInserts", "true");
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ScreeningService screeningService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${loadtest.users:5000}")
+    private int users;
+    @Value("${loadtest.rows:20}")
+    private int rows;
+    @Value("${loadtest.seats-per-row:25}")
+    private int seatsPerRow;
+    @Value("${loadtest.max-group-size:4}")
+    private int maxGroupSize;
+    @Value("${loadtest.ramp-up-seconds:10}")
+    private long rampUpSeconds;
+    @Value("${loadtest.think-time-ms:1000}")
+    private long thinkTimeMs;
+    @Value("${loadtest.lock-attempts:3}")
+    private int lockAttempts;
+    // Share of users going for the middle of the room
+    @Value("${loadtest.hot-seat-share:0.7}")
+    private double hotSeatShare;
+    @Value("${loadtest.timeout-minutes:30}")
+    private long timeoutMinutes;
+    @Value("${loadtest.report:target/loadtest/premiere-rush.properties}")
+    private Path reportPath;
+    @Value("${loadtest.baseline:}")
+    private String baseline;
+    @Value("${loadtest.max-p99-increase:0.25}")
+    private double maxP99Increase;
+
+    @Test
+    @DisplayName("Premiere night seat rush")
+    void premiereRush() throws Exception {
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        long screeningId = seedScreening();
+        Map<Long, String> audience = seedUsers();
+        referenceDataService.refresh();
+        List<Long> ticketTypeIds = referenceDataService.getTicketTypes().stream().map(TicketType::getId).toList();
+
+        LoadReport report = new LoadReport();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            audience.forEach((userId, email) -> executor.submit(() -> attend(screeningId, userId, email, ticketTypeIds, report)));
+            executor.shutdown();
+            assertThat(executor.awaitTermination(timeoutMinutes, TimeUnit.MINUTES)).as("users finished in time").isTrue();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Properties result = report.toProperties(users, elapsedMillis);
+        LoadReport.write(result, reportPath);
+        log.info("Premiere rush finished, report in {}\n{}", reportPath.toAbsolutePath(), LoadReport.describe(result));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT seat_id FROM tickets WHERE screening_id = ? GROUP BY seat_id HAVING COUNT(*) > 1) doubles",
+                Long.class, screeningId)).as("seats sold twice").isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets WHERE screening_id = ?", Long.class, screeningId))
+                .as("tickets in the database").isEqualTo(report.ticketsSold.sum());
+        if (!baseline.isBlank()) {
+            assertThat(LoadReport.regressions(LoadReport.read(Path.of(baseline)), result, maxP99Increase))
+                    .as("p99 regressions against %s", baseline).isEmpty();
+        }
+    }
+
+    private void attend(long screeningId, long userId, String email, List<Long> ticketTypeIds, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(random.nextLong(TimeUnit.SECONDS.toMillis(rampUpSeconds) + 1));
+            User user = userService.getReferenceById(userId);
+            int groupSize = random.nextInt(1, maxGroupSize + 1);
+
+            List<Long> seatIds = null;
+            for (int attempt = 0; attempt < lockAttempts && seatIds == null; attempt++) {
+                think();
+                long start = System.nanoTime();
+                List<SeatStatusDTO> seats = screeningService.getSeatsWithStatus(screeningId);
+                report.record(LoadReport.BROWSE, start);
+
+                List<Long> wanted = pickSeats(seats, groupSize);
+                if (wanted.isEmpty()) {
+                    report.soldOut.increment();
+                    return;
+                }
+
+                think();
+                report.lockAttempts.increment();
+                start = System.nanoTime();
+                try {
+                    boolean locked = reservationService.createTemporaryReservations(new BatchReservationRequestDTO(screeningId, wanted), user).isLocked();
+                    if (locked) {
+                        seatIds = wanted;
+                    } else {
+                        report.lockConflicts.increment();
+                    }
+                } catch (IllegalStateException e) {
+                    // another instance claimed the seat first
+                    report.lockConflicts.increment();
+                }
+                report.record(LoadReport.LOCK, start);
+            }
+            if (seatIds == null) {
+                return;
+            }
+
+            think();
+            long start = System.nanoTime();
+            reservationService.prepareSummary(userId, email);
+            report.record(LoadReport.SUMMARY, start);
+
+            BookingRequestDTO booking = new BookingRequestDTO();
+            booking.setTickets(seatIds.stream().map(seatId -> {
+                TicketSelectionDTO selection = new TicketSelectionDTO();
+                selection.setSeatId(seatId);
+                selection.setTypeId(ticketTypeIds.get(random.nextInt(ticketTypeIds.size())));
+                return selection;
+            }).toList());
+
+            think();
+            start = System.nanoTime();
+            bookingService.finalizeOrder(booking, user);
+            report.record(LoadReport.FINALIZE, start);
+            report.orders.increment();
+            report.ticketsSold.add(seatIds.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (isDeadlock(e)) {
+                report.deadlocks.increment();
+            } else {
+                report.errors.increment();
+                log.warn("User {} failed: {}", userId, e.toString());
+            }
+        }
+    }
+
+    // A random run of free adjacent seats in one row, most users aiming for the middle of the room
+    private List<Long> pickSeats(List<SeatStatusDTO> seats, int groupSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> free = IntStream.range(0, seats.size()).filter(i -> seats.get(i).isAvailable()).boxed().toList();
+        if (free.isEmpty()) {
+            return List.of();
+        }
+        if (random.nextDouble() < hotSeatShare) {
+            List<Integer> middle = free.stream().filter(i -> i >= seats.size() / 4 && i < seats.size() * 3 / 4).toList();
+            if (!middle.isEmpty()) {
+                free = middle;
+            }
+        }
+
+        int first = free.get(random.nextInt(free.size()));
+        List<Long> seatIds = new ArrayList<>();
+        for (int i = first; i < seats.size() && seatIds.size() < groupSize; i++) {
+            SeatStatusDTO seat = seats.get(i);
+            if (!seat.isAvailable() || seat.getRowNumber() != seats.get(first).getRowNumber()) {
+                break;
+            }
+            seatIds.add(seat.getSeatId());
+        }
+        return seatIds;
+    }
+
+    // Exponentially distributed around the configured mean, cut off at five times the mean
+    private void think() throws InterruptedException {
+        if (thinkTimeMs > 0) {
+            double sample = -thinkTimeMs * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+            Thread.sleep((long) Math.min(sample, thinkTimeMs * 5.0));
+        }
+    }
+
+    private static boolean isDeadlock(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockingFailureException
+                    || cause instanceof SQLException sql && "40P01".equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long seedScreening() {
+        Long movieId = jdbcTemplate.queryForObject("""
+                INSERT INTO movies (title, genre, duration_minutes, release_year, age_restriction)
+                VALUES ('Premiere', 'SCI_FI', 150, 2026, 12) RETURNING id""", Long.class);
+        Long roomId = jdbcTemplate.queryForObject("INSERT INTO rooms (name) VALUES ('Premiere Hall') RETURNING id", Long.class);
+        List<Object[]> seats = new ArrayList<>();
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                seats.add(new Object[]{row, seat, roomId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seats (row_number, seat_number, room_id) VALUES (?, ?, ?)", seats);
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_type", Long.class) == 0) {
+            jdbcTemplate.update("INSERT INTO ticket_type (name, price) VALUES (?, ?), (?, ?)",
+                    "Normal", new BigDecimal("32.00"), "Reduced", new BigDecimal("24.00"));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(20).withMinute(0).withSecond(0).withNano(0);
+        return jdbcTemplate.queryForObject("INSERT INTO screenings (movie_id, room_id, start_time, end_time) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, movieId, roomId, start, start.plusMinutes(150));
+    }
+
+    private Map<Long, String> seedUsers() {
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, role) VALUES (?, 'not-used', 'ROLE_USER')",
+                IntStream.range(0, users).mapToObj(i -> new Object[]{"rush" + i + "@example.com"}).toList());
+        Map<Long, String> audience = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email LIKE 'rush%@example.com'",
+                (RowCallbackHandler) rs -> audience.put(rs.getLong("id"), rs.getString("email")));
+        return audience;
+    }
+}
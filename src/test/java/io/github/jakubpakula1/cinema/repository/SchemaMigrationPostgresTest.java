@@ -0,0 +1,64 @@
+package io.github.jakubpakula1.cinema.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Smoke test of the production schema: the Flyway migrations run on an empty PostgreSQL and
+// Hibernate validates the entities against the result while the context starts. The H2 tests
+// build their schema from the entities and never see the migrations. Skipped without Docker.
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class SchemaMigrationPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should apply every migration and leave none pending")
+    void testMigrationsApplied() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied).isNotEmpty();
+        assertThat(Arrays.stream(applied).map(MigrationInfo::getState)).containsOnly(MigrationState.SUCCESS);
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should create the screening overlap constraint")
+    void testOverlapConstraint() {
+        Integer constraints = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conname = 'screenings_no_overlap'", Integer.class);
+
+        assertThat(constraints).isEqualTo(1);
+    }
+}
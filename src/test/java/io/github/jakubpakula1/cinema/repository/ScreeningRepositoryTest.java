@@ -0,0 +1,132 @@
+package io.github.jakubpakula1.cinema.repository;
+
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.model.Screening;
+import io.github.jakubpakula1.cinema.repository.projection.RepertoireScreeningDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class ScreeningRepositoryTest {
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should return flat repertoire rows for one day ordered by start time")
+    void testFindRepertoireByStartTimeBetween() {
+        // given
+        LocalDate day = LocalDate.now().plusDays(2);
+        Room room = new Room();
+        room.setName("Room A");
+        entityManager.persist(room);
+
+        Movie movie = new Movie();
+        movie.setTitle("Inception");
+        movie.setDurationInMinutes(148);
+        movie.setPosterFileName("inception.jpg");
+        movie.setDescription("A long description the repertoire never shows");
+        entityManager.persist(movie);
+
+        Screening evening = persistScreening(movie, room, day.atTime(20, 0));
+        Screening afternoon = persistScreening(movie, room, day.atTime(15, 0));
+        persistScreening(movie, room, day.plusDays(1).atTime(15, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<RepertoireScreeningDTO> rows = screeningRepository.findRepertoireByStartTimeBetween(day.atStartOfDay(), day.atTime(LocalTime.MAX));
+
+        // then
+        assertThat(rows)
+                .extracting(RepertoireScreeningDTO::getScreeningId, RepertoireScreeningDTO::getRoomName)
+                .containsExactly(tuple(afternoon.getId(), "Room A"), tuple(evening.getId(), "Room A"));
+        assertThat(rows.getFirst())
+                .extracting("movieId", "title", "durationInMinutes", "posterFileName")
+                .containsExactly(movie.getId(), "Inception", 148, "inception.jpg");
+    }
+
+    @Test
+    @DisplayName("Should return the schedule of one room only, without screenings ended before the cutoff")
+    void testFindScheduleByRoomId() {
+        // given
+        LocalDate day = LocalDate.now().plusDays(2);
+        Room roomA = new Room();
+        roomA.setName("Room A");
+        entityManager.persist(roomA);
+        Room roomB = new Room();
+        roomB.setName("Room B");
+        entityManager.persist(roomB);
+
+        Movie movie = new Movie();
+        movie.setTitle("Inception");
+        movie.setDurationInMinutes(148);
+        entityManager.persist(movie);
+
+        Screening screening = persistScreening(movie, roomA, day.atTime(15, 0));
+        persistScreening(movie, roomA, day.minusDays(4).atTime(15, 0));
+        persistScreening(movie, roomB, day.atTime(15, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<ScheduledScreeningDTO> schedule = screeningRepository.findScheduleByRoomId(roomA.getId(), LocalDateTime.now());
+
+        // then
+        assertThat(schedule)
+                .extracting("screeningId", "roomId", "startTime", "endTime", "movieTitle", "roomName")
+                .containsExactly(tuple(screening.getId(), roomA.getId(), day.atTime(15, 0), day.atTime(17, 28), "Inception", "Room A"));
+    }
+
+    @Test
+    @DisplayName("Should return only the given screenings that end after the cutoff")
+    void testFindIdsEndingAfter() {
+        // given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Room room = new Room();
+        room.setName("Room A");
+        entityManager.persist(room);
+
+        Movie movie = new Movie();
+        movie.setTitle("Inception");
+        movie.setDurationInMinutes(148);
+        entityManager.persist(movie);
+
+        Screening ended = persistScreening(movie, room, now.minusHours(3));
+        Screening running = persistScreening(movie, room, now.minusHours(1));
+        Screening notAsked = persistScreening(movie, room, now.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<Long> ids = screeningRepository.findIdsEndingAfter(List.of(ended.getId(), running.getId(), -1L), now);
+
+        // then
+        assertThat(ids).containsExactly(running.getId()).doesNotContain(notAsked.getId());
+    }
+
+    private Screening persistScreening(Movie movie, Room room, LocalDateTime startTime) {
+        Screening screening = new Screening();
+        screening.setMovie(movie);
+        screening.setRoom(room);
+        screening.setStartTime(startTime);
+        screening.setEndTime(startTime.plusMinutes(movie.getDurationInMinutes()));
+        return entityManager.persist(screening);
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.jakubpakula1.cinema.repository;
+
+import io.github.jakubpakula1.cinema.model.*;
+import io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class SeatRepositoryTest {
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Room room;
+    private Screening screening;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        room = new Room();
+        room.setName("Room A");
+        entityManager.persist(room);
+
+        Movie movie = new Movie();
+        movie.setTitle("Inception");
+        movie.setDurationInMinutes(148);
+        entityManager.persist(movie);
+
+        screening = new Screening();
+        screening.setMovie(movie);
+        screening.setRoom(room);
+        screening.setStartTime(LocalDateTime.now().plusDays(1));
+        screening.setEndTime(LocalDateTime.now().plusDays(1).plusMinutes(148));
+        entityManager.persist(screening);
+
+        user = new User();
+        user.setEmail("user@example.com");
+        user.setPassword("secret");
+        entityManager.persist(user);
+    }
+
+    @Test
+    @DisplayName("Should return sold seats and live locks of a screening in one query")
+    void testFindOccupiedSeatsByScreeningId() {
+        // given
+        Seat soldSeat = persistSeat(1, 2);
+        Seat lockedSeat = persistSeat(2, 1);
+        Seat expiredLockSeat = persistSeat(1, 1);
+        Seat freeSeat = persistSeat(1, 3);
+
+        TicketType ticketType = new TicketType();
+        ticketType.setName("Normal");
+        ticketType.setPrice(BigDecimal.TEN);
+        entityManager.persist(ticketType);
+
+        Order order = new Order();
+        order.setUser(user);
+        entityManager.persist(order);
+
+        Ticket ticket = new Ticket();
+        ticket.setOrder(order);
+        ticket.setTicketType(ticketType);
+        ticket.setPrice(BigDecimal.TEN);
+        ticket.setScreening(screening);
+        ticket.setSeat(soldSeat);
+        entityManager.persist(ticket);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10).truncatedTo(ChronoUnit.SECONDS);
+        persistReservation(lockedSeat, expiresAt);
+        persistReservation(expiredLockSeat, LocalDateTime.now().minusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<OccupiedSeatDTO> result = seatRepository.findOccupiedSeatsByScreeningId(screening.getId());
+
+        // then
+        assertThat(result)
+                .extracting(OccupiedSeatDTO::getSeatId, OccupiedSeatDTO::isSold, OccupiedSeatDTO::getUserId, OccupiedSeatDTO::getExpiresAt)
+                .containsExactlyInAnyOrder(
+                        tuple(soldSeat.getId(), true, null, null),
+                        tuple(lockedSeat.getId(), false, user.getId(), expiresAt)
+                );
+        assertThat(freeSeat.getId()).isNotIn(result.stream().map(OccupiedSeatDTO::getSeatId).toList());
+    }
+
+    @Test
+    @DisplayName("Should return no occupied seats for unknown screening")
+    void testFindOccupiedSeatsByScreeningId_UnknownScreening() {
+        // given
+        persistSeat(1, 1);
+        entityManager.flush();
+
+        // when
+        List<OccupiedSeatDTO> result = seatRepository.findOccupiedSeatsByScreeningId(999L);
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the seat ids of several screenings in one query")
+    void testFindSeatIdsByScreeningIds() {
+        // given
+        Seat first = persistSeat(1, 1);
+        Seat second = persistSeat(1, 2);
+        entityManager.flush();
+
+        // when
+        List<ScreeningSeatIdDTO> result = seatRepository.findSeatIdsByScreeningIds(List.of(screening.getId(), 999L));
+
+        // then
+        assertThat(result)
+                .extracting(ScreeningSeatIdDTO::getScreeningId, ScreeningSeatIdDTO::getSeatId)
+                .containsExactlyInAnyOrder(
+                        tuple(screening.getId(), first.getId()),
+                        tuple(screening.getId(), second.getId())
+                );
+    }
+
+    private Seat persistSeat(int rowNumber, int seatNumber) {
+        Seat seat = new Seat();
+        seat.setRoom(room);
+        seat.setRowNumber(rowNumber);
+        seat.setSeatNumber(seatNumber);
+        return entityManager.persist(seat);
+    }
+
+    private void persistReservation(Seat seat, LocalDateTime expiresAt) {
+        TemporaryReservation reservation = new TemporaryReservation();
+        reservation.setSeat(seat);
+        reservation.setScreening(screening);
+        reservation.setUser(user);
+        reservation.setExpiresAt(expiresAt);
+        entityManager.persist(reservation);
+    }
+}
@@ -7,12 +7,12 @@ import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.OrderRepository;
 import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
-import io.github.jakubpakula1.cinema.repository.TicketTypeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -35,16 +35,16 @@ class BookingServiceTest {
     private TemporaryReservationRepository temporaryReservationRepository;
 
     @Mock
-    private TicketTypeRepository ticketTypeRepository;
+    private ReferenceDataService referenceDataService;
 
     @Mock
     private OrderRepository orderRepository;
 
     @Mock
-    private PdfService pdfService;
+    private FulfillmentService fulfillmentService;
 
     @Mock
-    private EmailService emailService;
+    private SeatStateService seatStateService;
 
     @InjectMocks
     private BookingService bookingService;
@@ -149,8 +149,7 @@ class BookingServiceTest {
                 eq(List.of(1L)),
                 any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation));
-        when(ticketTypeRepository.findById(1L)).thenReturn(Optional.of(testTicketType));
-        when(pdfService.generateTicketPdf(any())).thenReturn(new byte[]{1, 2, 3});
+        when(referenceDataService.findTicketType(1L)).thenReturn(Optional.of(testTicketType));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setId(1L);
@@ -163,11 +162,11 @@ class BookingServiceTest {
         // then
         assertThat(orderId).isEqualTo(1L);
         verify(temporaryReservationRepository).findByUserAndSeatIdInAndExpiresAtAfter(eq(testUser), eq(List.of(1L)), any(LocalDateTime.class));
-        verify(ticketTypeRepository).findById(1L);
-        verify(pdfService).generateTicketPdf(any());
+        verify(referenceDataService).findTicketType(1L);
         verify(orderRepository).save(any(Order.class));
-        verify(emailService).sendEmailWithAttachment(eq("test@example.com"), anyString(), anyString(), any(byte[].class), anyString());
-        verify(temporaryReservationRepository).deleteAll(List.of(testReservation));
+        verify(fulfillmentService).enqueue(any(Order.class));
+        verify(temporaryReservationRepository).deleteAllInBatch(List.of(testReservation));
+        verify(seatStateService).markSoldAfterCommit(1L, 1L);
     }
 
     @Test
@@ -196,8 +195,7 @@ class BookingServiceTest {
                 eq(List.of(1L, 2L)),
                 any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation, reservation2));
-        when(ticketTypeRepository.findById(1L)).thenReturn(Optional.of(testTicketType));
-        when(pdfService.generateTicketPdf(any())).thenReturn(new byte[]{});
+        when(referenceDataService.findTicketType(1L)).thenReturn(Optional.of(testTicketType));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setId(2L);
@@ -218,6 +216,50 @@ class BookingServiceTest {
                 .containsExactly(new BigDecimal("50.00"), ReservationStatus.PAID);
     }
 
+    @Test
+    @DisplayName("Should look up all ticket types of the order at once")
+    void testFinalizeOrder_MixedTicketTypes() {
+        // given
+        Seat seat2 = new Seat();
+        seat2.setId(2L);
+        Seat seat3 = new Seat();
+        seat3.setId(3L);
+        TemporaryReservation reservation2 = new TemporaryReservation();
+        reservation2.setSeat(seat2);
+        reservation2.setScreening(testScreening);
+        TemporaryReservation reservation3 = new TemporaryReservation();
+        reservation3.setSeat(seat3);
+        reservation3.setScreening(testScreening);
+
+        TicketType reducedType = new TicketType();
+        reducedType.setId(2L);
+        reducedType.setPrice(new BigDecimal("15.00"));
+
+        BookingRequestDTO bookingRequestDTO = new BookingRequestDTO();
+        bookingRequestDTO.setTickets(List.of(selection(3L, 2L), selection(1L, 1L), selection(2L, 2L)));
+
+        when(temporaryReservationRepository.findByUserAndSeatIdInAndExpiresAtAfter(eq(testUser),
+                eq(List.of(3L, 1L, 2L)),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(testReservation, reservation2, reservation3));
+        when(referenceDataService.findTicketType(1L)).thenReturn(Optional.of(testTicketType));
+        when(referenceDataService.findTicketType(2L)).thenReturn(Optional.of(reducedType));
+
+        // when
+        bookingService.finalizeOrder(bookingRequestDTO, testUser);
+
+        // then
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(orderCaptor.capture());
+        assertThat(orderCaptor.getValue().getTotalCost()).isEqualByComparingTo("55.00");
+        assertThat(orderCaptor.getValue().getTickets())
+                .extracting(ticket -> ticket.getSeat().getId(), Ticket::getPrice)
+                .containsExactly(
+                        tuple(3L, new BigDecimal("15.00")),
+                        tuple(1L, new BigDecimal("25.00")),
+                        tuple(2L, new BigDecimal("15.00")));
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when reservation not found")
     void testFinalizeOrder_ReservationNotFound() {
@@ -253,7 +295,7 @@ class BookingServiceTest {
                 eq(List.of(1L)),
                 any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation));
-        when(ticketTypeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(referenceDataService.findTicketType(999L)).thenReturn(Optional.empty());
 
         // when & then
         assertThatThrownBy(() -> bookingService.finalizeOrder(bookingRequestDTO, testUser))
@@ -297,8 +339,8 @@ class BookingServiceTest {
     }
 
     @Test
-    @DisplayName("Should send email with PDF after successful order finalization")
-    void testFinalizeOrder_SendsEmail() {
+    @DisplayName("Should queue ticket delivery for the saved order instead of rendering it")
+    void testFinalizeOrder_QueuesFulfillment() {
         // given
         BookingRequestDTO bookingRequestDTO = new BookingRequestDTO();
         TicketSelectionDTO ticketSelection = new TicketSelectionDTO();
@@ -306,13 +348,11 @@ class BookingServiceTest {
         ticketSelection.setTypeId(1L);
         bookingRequestDTO.setTickets(List.of(ticketSelection));
 
-        byte[] pdfBytes = {1, 2, 3, 4, 5};
         when(temporaryReservationRepository.findByUserAndSeatIdInAndExpiresAtAfter(eq(testUser),
                 eq(List.of(1L)),
                 any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation));
-        when(ticketTypeRepository.findById(1L)).thenReturn(Optional.of(testTicketType));
-        when(pdfService.generateTicketPdf(any())).thenReturn(pdfBytes);
+        when(referenceDataService.findTicketType(1L)).thenReturn(Optional.of(testTicketType));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setId(5L);
@@ -323,20 +363,19 @@ class BookingServiceTest {
         bookingService.finalizeOrder(bookingRequestDTO, testUser);
 
         // then
-        ArgumentCaptor<String> emailCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<byte[]> pdfCaptor = ArgumentCaptor.forClass(byte[].class);
-        ArgumentCaptor<String> fileNameCaptor = ArgumentCaptor.forClass(String.class);
-
-        verify(emailService).sendEmailWithAttachment(
-                emailCaptor.capture(),
-                anyString(),
-                anyString(),
-                pdfCaptor.capture(),
-                fileNameCaptor.capture()
-        );
-
-        assertThat(emailCaptor.getValue()).isEqualTo("test@example.com");
-        assertThat(pdfCaptor.getValue()).isEqualTo(pdfBytes);
-        assertThat(fileNameCaptor.getValue()).contains("tickets_order_5.pdf");
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        InOrder inOrder = inOrder(orderRepository, fulfillmentService);
+        inOrder.verify(orderRepository).save(any(Order.class));
+        inOrder.verify(fulfillmentService).enqueue(orderCaptor.capture());
+
+        assertThat(orderCaptor.getValue().getId()).isEqualTo(5L);
+        assertThat(orderCaptor.getValue().getTickets()).hasSize(1);
+    }
+
+    private TicketSelectionDTO selection(Long seatId, Long typeId) {
+        TicketSelectionDTO selection = new TicketSelectionDTO();
+        selection.setSeatId(seatId);
+        selection.setTypeId(typeId);
+        return selection;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.mail.MailQueueStatsDTO;
+import io.github.jakubpakula1.cinema.enums.EmailStatus;
+import io.github.jakubpakula1.cinema.model.EmailOutboxMessage;
+import io.github.jakubpakula1.cinema.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDispatchService Unit Tests")
+class EmailDispatchServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private EmailDispatchService emailDispatchService;
+
+    private EmailOutboxMessage first;
+    private EmailOutboxMessage second;
+    private MimeMessage firstMime;
+    private MimeMessage secondMime;
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        ReflectionTestUtils.setField(emailDispatchService, "batchSize", 50);
+        ReflectionTestUtils.setField(emailDispatchService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailDispatchService, "retryDelaySeconds", 60L);
+        ReflectionTestUtils.setField(emailDispatchService, "leaseSeconds", 300L);
+
+        first = outboxMessage(1L, "first@example.com");
+        second = outboxMessage(2L, "second@example.com");
+        firstMime = new MimeMessage(Session.getInstance(new Properties()));
+        secondMime = new MimeMessage(Session.getInstance(new Properties()));
+
+        lenient().when(emailService.createMessage(eq("first@example.com"), anyString(), anyString(), any(), anyString())).thenReturn(firstMime);
+        lenient().when(emailService.createMessage(eq("second@example.com"), anyString(), anyString(), any(), anyString())).thenReturn(secondMime);
+    }
+
+    @Test
+    @DisplayName("Should send the claimed batch in one call and mark it sent")
+    void testDispatchDueMessages_Success() {
+        // given
+        claim(first, second);
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        verify(emailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        verify(emailOutboxRepository).markSent(eq(2L), any(LocalDateTime.class));
+        verify(emailOutboxRepository, never()).markAttemptFailed(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip messages another dispatcher claimed first")
+    void testDispatchDueMessages_LostClaim() throws MessagingException {
+        // given
+        when(emailOutboxRepository.findDueMessageIds(anyList(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(emailOutboxRepository.claim(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(emailOutboxRepository.claim(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        when(emailOutboxRepository.findAllById(List.of(1L))).thenReturn(List.of(first));
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        verify(emailService, never()).createMessage(eq("second@example.com"), anyString(), anyString(), any(), anyString());
+        verify(emailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        verify(emailOutboxRepository, never()).markSent(eq(2L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should claim with a lease before sending")
+    void testDispatchDueMessages_ClaimsLease() {
+        // given
+        claim(first);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        InOrder inOrder = inOrder(emailOutboxRepository, mailSender);
+        inOrder.verify(emailOutboxRepository).claim(eq(1L), now.capture(), leaseUntil.capture());
+        inOrder.verify(mailSender).send(any(MimeMessage[].class));
+        inOrder.verify(emailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        assertThat(leaseUntil.getValue()).isEqualTo(now.getValue().plusSeconds(300));
+    }
+
+    @Test
+    @DisplayName("Should retry only the messages the server rejected")
+    void testDispatchDueMessages_PartialFailure() {
+        // given
+        claim(first, second);
+        doThrow(new MailSendException(Map.of(secondMime, new MessagingException("Mailbox unavailable"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        verify(emailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).markAttemptFailed(eq(2L), eq(EmailStatus.PENDING), nextAttemptAt.capture(), eq("Mailbox unavailable"));
+        assertThat(nextAttemptAt.getValue()).isAfter(LocalDateTime.now().plusSeconds(50));
+    }
+
+    @Test
+    @DisplayName("Should back off the whole batch when the server cannot be reached")
+    void testDispatchDueMessages_ConnectionFailure() {
+        // given
+        second.setAttempts(2);
+        claim(first, second);
+        doThrow(new MailAuthenticationException("Authentication failed"))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        ArgumentCaptor<LocalDateTime> firstRetry = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> secondRetry = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).markAttemptFailed(eq(1L), eq(EmailStatus.PENDING), firstRetry.capture(), anyString());
+        verify(emailOutboxRepository).markAttemptFailed(eq(2L), eq(EmailStatus.PENDING), secondRetry.capture(), anyString());
+        assertThat(firstRetry.getValue()).isAfter(LocalDateTime.now().plusSeconds(50));
+        assertThat(secondRetry.getValue()).isAfter(LocalDateTime.now().plusSeconds(110));
+        verify(emailOutboxRepository, never()).markSent(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should move a message to dead letters after the last attempt")
+    void testDispatchDueMessages_DeadLetter() {
+        // given
+        first.setAttempts(3);
+        claim(first);
+        doThrow(new MailSendException(Map.of(firstMime, new MessagingException("Invalid address"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        verify(emailOutboxRepository).markAttemptFailed(eq(1L), eq(EmailStatus.DEAD), any(LocalDateTime.class), eq("Invalid address"));
+    }
+
+    @Test
+    @DisplayName("Should not contact the mail server when nothing is due")
+    void testDispatchDueMessages_NothingDue() {
+        // given
+        when(emailOutboxRepository.findDueMessageIds(anyList(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        // when
+        emailDispatchService.dispatchDueMessages();
+
+        // then
+        verifyNoInteractions(mailSender, emailService);
+    }
+
+    @Test
+    @DisplayName("Should report queue depth and recent dead letters")
+    void testGetQueueStats() {
+        // given
+        LocalDateTime oldest = LocalDateTime.now().minusMinutes(3);
+        first.setStatus(EmailStatus.DEAD);
+        first.setLastError("Invalid address");
+        when(emailOutboxRepository.countByStatus(EmailStatus.PENDING)).thenReturn(3L);
+        when(emailOutboxRepository.countByStatus(EmailStatus.SENDING)).thenReturn(1L);
+        when(emailOutboxRepository.countByStatus(EmailStatus.SENT)).thenReturn(120L);
+        when(emailOutboxRepository.countByStatus(EmailStatus.DEAD)).thenReturn(1L);
+        when(emailOutboxRepository.findOldestPendingCreatedAt()).thenReturn(Optional.of(oldest));
+        when(emailOutboxRepository.findTop20ByStatusOrderByCreatedAtDesc(EmailStatus.DEAD)).thenReturn(List.of(first));
+
+        // when
+        MailQueueStatsDTO stats = emailDispatchService.getQueueStats();
+
+        // then
+        assertThat(stats)
+                .extracting("pending", "sent", "dead", "oldestPendingAt")
+                .containsExactly(4L, 120L, 1L, oldest);
+        assertThat(stats.getRecentDeadLetters())
+                .extracting("id", "recipient", "lastError")
+                .containsExactly(tuple(1L, "first@example.com", "Invalid address"));
+    }
+
+    // Stubs the due ids and a won claim for every message; the loaded rows carry the counted attempt
+    private void claim(EmailOutboxMessage... messages) {
+        List<Long> ids = Arrays.stream(messages).map(EmailOutboxMessage::getId).toList();
+        when(emailOutboxRepository.findDueMessageIds(eq(List.of(EmailStatus.PENDING, EmailStatus.SENDING)), any(LocalDateTime.class), any(Pageable.class))).thenReturn(ids);
+        when(emailOutboxRepository.claim(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(emailOutboxRepository.findAllById(ids)).thenReturn(List.of(messages));
+    }
+
+    private EmailOutboxMessage outboxMessage(Long id, String recipient) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setRecipient(recipient);
+        message.setSubject("Your Cinema Tickets");
+        message.setBody("Your cinema tickets are attached.");
+        message.setAttachment(new byte[]{1, 2, 3});
+        message.setAttachmentName("tickets.pdf");
+        message.setStatus(EmailStatus.SENDING);
+        message.setAttempts(1);
+        message.setCreatedAt(LocalDateTime.now());
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+}
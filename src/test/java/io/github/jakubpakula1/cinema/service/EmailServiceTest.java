@@ -1,7 +1,11 @@
 package io.github.jakubpakula1.cinema.service;
 
+import io.github.jakubpakula1.cinema.enums.EmailStatus;
+import io.github.jakubpakula1.cinema.model.EmailOutboxMessage;
+import io.github.jakubpakula1.cinema.repository.EmailOutboxRepository;
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.*;
@@ -23,6 +29,9 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
     @InjectMocks
     private EmailService emailService;
 
@@ -30,15 +39,26 @@ class EmailServiceTest {
         return new MimeMessage(Session.getInstance(new Properties()));
     }
 
+    private List<String> attachmentNames(MimeMessage message) throws Exception {
+        message.saveChanges();
+        MimeMultipart mixed = (MimeMultipart) message.getContent();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < mixed.getCount(); i++) {
+            if (mixed.getBodyPart(i).getFileName() != null) {
+                names.add(mixed.getBodyPart(i).getFileName());
+            }
+        }
+        return names;
+    }
+
     @Test
-    @DisplayName("Should send email with attachment successfully")
-    void testSendEmailWithAttachment_Success() {
+    @DisplayName("Should build email with attachment")
+    void testCreateMessage_Success() throws Exception {
         // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mailSender.createMimeMessage()).thenReturn(createRealMimeMessage());
 
         // when
-        emailService.sendEmailWithAttachment(
+        MimeMessage message = emailService.createMessage(
                 "user@example.com",
                 "Test Subject",
                 "Test Body",
@@ -46,19 +66,20 @@ class EmailServiceTest {
                 "document.pdf");
 
         // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
+        assertThat(message.getSubject()).isEqualTo("Test Subject");
+        assertThat(message.getAllRecipients()).extracting(Object::toString).containsExactly("user@example.com");
+        assertThat(attachmentNames(message)).containsExactly("document.pdf");
+        verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
     @Test
-    @DisplayName("Should send email with empty attachment")
-    void testSendEmailWithAttachment_EmptyAttachment() {
+    @DisplayName("Should build email with empty attachment")
+    void testCreateMessage_EmptyAttachment() throws Exception {
         // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mailSender.createMimeMessage()).thenReturn(createRealMimeMessage());
 
         // when
-        emailService.sendEmailWithAttachment(
+        MimeMessage message = emailService.createMessage(
                 "test@example.com",
                 "Empty Attachment",
                 "Body",
@@ -66,44 +87,17 @@ class EmailServiceTest {
                 "empty.pdf");
 
         // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
+        assertThat(attachmentNames(message)).containsExactly("empty.pdf");
     }
 
     @Test
-    @DisplayName("Should send email with large attachment")
-    void testSendEmailWithAttachment_LargeAttachment() {
+    @DisplayName("Should build email with special characters in subject and body")
+    void testCreateMessage_SpecialCharacters() throws Exception {
         // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
-        byte[] largeAttachment = new byte[1024 * 1024];
-        for (int i = 0; i < largeAttachment.length; i++) {
-            largeAttachment[i] = (byte) (i % 256);
-        }
+        when(mailSender.createMimeMessage()).thenReturn(createRealMimeMessage());
 
         // when
-        emailService.sendEmailWithAttachment(
-                "user@example.com",
-                "Large File",
-                "Here is your large file",
-                largeAttachment,
-                "largefile.pdf");
-
-        // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
-    }
-
-    @Test
-    @DisplayName("Should send email with special characters in subject and body")
-    void testSendEmailWithAttachment_SpecialCharacters() {
-        // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
-        // when
-        emailService.sendEmailWithAttachment(
+        MimeMessage message = emailService.createMessage(
                 "user@example.com",
                 "Test Subject with Ąćęłńóśźż characters",
                 "Test Body with <html> & special !@#$%^&*() characters",
@@ -111,61 +105,36 @@ class EmailServiceTest {
                 "test.pdf");
 
         // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
+        assertThat(message.getSubject()).isEqualTo("Test Subject with Ąćęłńóśźż characters");
     }
 
     @Test
-    @DisplayName("Should send email with valid recipient address")
-    void testSendEmailWithAttachment_ValidEmail() {
+    @DisplayName("Should build plain email without attachment")
+    void testCreateMessage_NoAttachment() throws Exception {
         // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mailSender.createMimeMessage()).thenReturn(createRealMimeMessage());
 
         // when
-        emailService.sendEmailWithAttachment(
+        MimeMessage message = emailService.createMessage(
                 "user@example.com",
                 "Subject",
                 "Body",
-                new byte[]{1, 2, 3},
-                "file.pdf");
-
-        // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
-    }
-
-    @Test
-    @DisplayName("Should verify attachment is added to email")
-    void testSendEmailWithAttachment_VerifyAttachmentName() {
-        // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
-        byte[] pdfContent = {0x25, 0x50, 0x44, 0x46};
-
-        // when
-        emailService.sendEmailWithAttachment(
-                "user@example.com",
-                "Your Tickets",
-                "Please find your tickets attached",
-                pdfContent,
-                "tickets_order_123.pdf");
+                null,
+                null);
+        message.saveChanges();
 
         // then
-        verify(mailSender).createMimeMessage();
-        verify(mailSender).send(any(MimeMessage.class));
+        assertThat(message.getContent()).isEqualTo("Body");
     }
 
     @Test
     @DisplayName("Should reject null body with validation error")
-    void testSendEmailWithAttachment_NullBody() {
+    void testCreateMessage_NullBody() {
         // given
-        MimeMessage mimeMessage = createRealMimeMessage();
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mailSender.createMimeMessage()).thenReturn(createRealMimeMessage());
 
         // when & then
-        assertThatThrownBy(() -> emailService.sendEmailWithAttachment(
+        assertThatThrownBy(() -> emailService.createMessage(
                 "user@example.com",
                 "Subject",
                 null,
@@ -174,4 +143,26 @@ class EmailServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Text must not be null");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should queue email in the outbox without contacting the mail server")
+    void testQueueEmailWithAttachment() {
+        // given
+        when(emailOutboxRepository.save(any(EmailOutboxMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        EmailOutboxMessage message = emailService.queueEmailWithAttachment(
+                "user@example.com",
+                "Your Tickets",
+                "Body",
+                new byte[]{1, 2, 3},
+                "tickets_order_1.pdf");
+
+        // then
+        assertThat(message)
+                .extracting("recipient", "attachmentName", "status", "attempts")
+                .containsExactly("user@example.com", "tickets_order_1.pdf", EmailStatus.PENDING, 0);
+        assertThat(message.getNextAttemptAt()).isNotNull();
+        verifyNoInteractions(mailSender);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.enums.FulfillmentStatus;
+import io.github.jakubpakula1.cinema.model.FulfillmentTask;
+import io.github.jakubpakula1.cinema.model.Order;
+import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.repository.EmailOutboxRepository;
+import io.github.jakubpakula1.cinema.repository.FulfillmentTaskRepository;
+import io.github.jakubpakula1.cinema.repository.OrderRepository;
+import io.github.jakubpakula1.cinema.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Runs outside a test transaction, so the completion commits or rolls back on its own
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FulfillmentCompletionService.class, EmailService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FulfillmentCompletionServiceTest {
+
+    @Autowired
+    private FulfillmentCompletionService fulfillmentCompletionService;
+
+    @MockitoSpyBean
+    private FulfillmentTaskRepository fulfillmentTaskRepository;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Order order;
+    private FulfillmentTask task;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        order = new Order();
+        order.setUser(user);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setTotalCost(BigDecimal.TEN);
+        orderRepository.save(order);
+
+        task = new FulfillmentTask();
+        task.setOrder(order);
+        task.setStatus(FulfillmentStatus.IN_PROGRESS);
+        task.setAttempts(1);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        fulfillmentTaskRepository.save(task);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailOutboxRepository.deleteAll();
+        fulfillmentTaskRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should queue the email and complete the task together")
+    void testComplete() {
+        // when
+        fulfillmentCompletionService.complete(task.getId(), order, new byte[]{1, 2, 3});
+
+        // then
+        assertThat(emailOutboxRepository.findAll())
+                .extracting("recipient", "attachmentName")
+                .containsExactly(tuple("test@example.com", "tickets_order_" + order.getId() + ".pdf"));
+        assertThat(fulfillmentTaskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(FulfillmentStatus.DONE);
+    }
+
+    @Test
+    @DisplayName("Should not leave the email in the outbox when completing the task fails")
+    void testComplete_MarkDoneFails() {
+        // given
+        doThrow(new IllegalStateException("Connection lost"))
+                .when(fulfillmentTaskRepository).markDone(eq(task.getId()), any(LocalDateTime.class));
+
+        // when
+        assertThatThrownBy(() -> fulfillmentCompletionService.complete(task.getId(), order, new byte[]{1, 2, 3}))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(emailOutboxRepository.count()).isZero();
+        assertThat(fulfillmentTaskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(FulfillmentStatus.IN_PROGRESS);
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.enums.FulfillmentStatus;
+import io.github.jakubpakula1.cinema.model.FulfillmentTask;
+import io.github.jakubpakula1.cinema.model.Order;
+import io.github.jakubpakula1.cinema.model.Ticket;
+import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.repository.FulfillmentTaskRepository;
+import io.github.jakubpakula1.cinema.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FulfillmentService Unit Tests")
+class FulfillmentServiceTest {
+
+    @Mock
+    private FulfillmentTaskRepository fulfillmentTaskRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PdfService pdfService;
+
+    @Mock
+    private FulfillmentCompletionService fulfillmentCompletionService;
+
+    @InjectMocks
+    private FulfillmentService fulfillmentService;
+
+    private Order testOrder;
+    private FulfillmentTask testTask;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fulfillmentService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(fulfillmentService, "retryDelaySeconds", 30L);
+        ReflectionTestUtils.setField(fulfillmentService, "leaseMinutes", 5L);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+
+        testOrder = new Order();
+        testOrder.setId(5L);
+        testOrder.setUser(user);
+        testOrder.setTickets(List.of(new Ticket()));
+
+        testTask = new FulfillmentTask();
+        testTask.setId(10L);
+        testTask.setOrder(testOrder);
+        testTask.setStatus(FulfillmentStatus.IN_PROGRESS);
+        testTask.setAttempts(1);
+    }
+
+    @Test
+    @DisplayName("Should save a pending task for the order")
+    void testEnqueue() {
+        // when
+        FulfillmentTask task = fulfillmentService.enqueue(testOrder);
+
+        // then
+        assertThat(task)
+                .extracting("order", "status", "attempts")
+                .containsExactly(testOrder, FulfillmentStatus.PENDING, 0);
+        assertThat(task.getNextAttemptAt()).isNotNull();
+        verify(fulfillmentTaskRepository).save(task);
+        verifyNoInteractions(pdfService, fulfillmentCompletionService);
+    }
+
+    @Test
+    @DisplayName("Should render the PDF and hand it to the completion")
+    void testProcess_Success() {
+        // given
+        byte[] pdfBytes = {1, 2, 3, 4, 5};
+        when(fulfillmentTaskRepository.claim(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(fulfillmentTaskRepository.findById(10L)).thenReturn(Optional.of(testTask));
+        when(orderRepository.findForFulfillmentById(5L)).thenReturn(Optional.of(testOrder));
+        when(pdfService.generateTicketPdf(testOrder.getTickets())).thenReturn(pdfBytes);
+
+        // when
+        fulfillmentService.process(10L);
+
+        // then
+        verify(fulfillmentCompletionService).complete(10L, testOrder, pdfBytes);
+        verify(fulfillmentTaskRepository, never()).markAttemptFailed(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip a task another worker already claimed")
+    void testProcess_AlreadyClaimed() {
+        // given
+        when(fulfillmentTaskRepository.claim(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+
+        // when
+        fulfillmentService.process(10L);
+
+        // then
+        verify(fulfillmentTaskRepository, never()).findById(anyLong());
+        verifyNoInteractions(orderRepository, pdfService, fulfillmentCompletionService);
+    }
+
+    @Test
+    @DisplayName("Should reschedule a failed delivery with backoff")
+    void testProcess_RetriesOnFailure() {
+        // given
+        testTask.setAttempts(2);
+        when(fulfillmentTaskRepository.claim(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(fulfillmentTaskRepository.findById(10L)).thenReturn(Optional.of(testTask));
+        when(orderRepository.findForFulfillmentById(5L)).thenReturn(Optional.of(testOrder));
+        when(pdfService.generateTicketPdf(any())).thenReturn(new byte[]{1});
+        doThrow(new RuntimeException("Failed to queue email"))
+                .when(fulfillmentCompletionService).complete(eq(10L), eq(testOrder), any(byte[].class));
+
+        // when
+        fulfillmentService.process(10L);
+
+        // then
+        ArgumentCaptor<LocalDateTime> nextAttemptCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(fulfillmentTaskRepository).markAttemptFailed(eq(10L), eq(FulfillmentStatus.PENDING), nextAttemptCaptor.capture(), eq("Failed to queue email"));
+        assertThat(nextAttemptCaptor.getValue()).isAfter(LocalDateTime.now().plusSeconds(50));
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt")
+    void testProcess_FailsPermanently() {
+        // given
+        testTask.setAttempts(3);
+        when(fulfillmentTaskRepository.claim(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(fulfillmentTaskRepository.findById(10L)).thenReturn(Optional.of(testTask));
+        when(orderRepository.findForFulfillmentById(5L)).thenReturn(Optional.of(testOrder));
+        when(pdfService.generateTicketPdf(any())).thenThrow(new RuntimeException("Failed to generate PDF"));
+
+        // when
+        fulfillmentService.process(10L);
+
+        // then
+        verify(fulfillmentTaskRepository).markAttemptFailed(eq(10L), eq(FulfillmentStatus.FAILED), any(LocalDateTime.class), eq("Failed to generate PDF"));
+        verifyNoInteractions(fulfillmentCompletionService);
+    }
+}
@@ -2,6 +2,7 @@ package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.MovieFormDTO;
 import io.github.jakubpakula1.cinema.enums.MovieGenre;
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.Movie;
 import io.github.jakubpakula1.cinema.repository.MovieRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -37,6 +39,9 @@ class MovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private MovieService movieService;
 
     @TempDir
@@ -49,7 +54,7 @@ class MovieServiceTest {
 
     @BeforeEach
     void setUp() {
-        movieService = new MovieService(movieRepository, tempDir.toString());
+        movieService = new MovieService(movieRepository, tempDir.toString(), eventPublisher);
 
         testMovie = Movie.builder()
                 .id(1L)
@@ -201,6 +206,7 @@ class MovieServiceTest {
         assertThat(result).extracting("title", "director").containsExactly("New Movie", "New Director");
         verify(movieRepository).findById(1L);
         verify(movieRepository).save(any(Movie.class));
+        verify(eventPublisher).publishEvent(new MovieChangedEvent(1L));
     }
 
     @Test
@@ -221,6 +227,7 @@ class MovieServiceTest {
         assertThat(result).isEqualTo(testMovie);
         verify(movieRepository).findById(1L);
         verify(movieRepository).delete(testMovie);
+        verify(eventPublisher).publishEvent(new MovieChangedEvent(1L));
     }
 
     @Test
@@ -1,15 +1,18 @@
 package io.github.jakubpakula1.cinema.service;
 
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
 import io.github.jakubpakula1.cinema.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -18,7 +21,6 @@ import static org.assertj.core.api.Assertions.*;
 @DisplayName("PdfService Unit Tests")
 public class PdfServiceTest {
 
-    @InjectMocks
     private PdfService pdfService;
 
     private Movie testMovie;
@@ -31,6 +33,11 @@ public class PdfServiceTest {
 
     @BeforeEach
     void setUp() {
+        TicketTokenService ticketTokenService = new TicketTokenService();
+        ReflectionTestUtils.setField(ticketTokenService, "tokenSecret", "test-secret");
+        ticketTokenService.init();
+        pdfService = new PdfService(ticketTokenService);
+
         futureDateTime = LocalDateTime.now().plusDays(7);
 
         testMovie = new Movie();
@@ -194,4 +201,69 @@ public class PdfServiceTest {
                 .isNotNull()
                 .isNotEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should not reuse a cached screening block after the screening changed")
+    void testGenerateTicketPdf_CachedLayoutFollowsScreeningChanges() throws Exception {
+        pdfService.generateTicketPdf(List.of(testTicket));
+        testMovie.setTitle("Renamed Movie");
+
+        byte[] pdfBytes = pdfService.generateTicketPdf(List.of(testTicket));
+
+        String text = new PdfTextExtractor(new PdfReader(pdfBytes)).getTextFromPage(1);
+        assertThat(text).contains("Renamed Movie").doesNotContain("Test Movie");
+    }
+
+    @Test
+    @DisplayName("Should render the same content with the layout cache disabled")
+    void testGenerateTicketPdf_WithoutLayoutCache() throws Exception {
+        ReflectionTestUtils.setField(pdfService, "cacheLayout", false);
+
+        byte[] pdfBytes = pdfService.generateTicketPdf(List.of(testTicket));
+
+        String text = new PdfTextExtractor(new PdfReader(pdfBytes)).getTextFromPage(1);
+        assertThat(text).contains("Test Movie", "Room A", "Standard");
+    }
+
+    @Test
+    @DisplayName("Should render one labelled QR code per ticket")
+    void testGenerateTicketPdf_QrCodePerTicket() throws Exception {
+        List<Ticket> tickets = new ArrayList<>(List.of(testTicket));
+        for (int seatNumber = 11; seatNumber <= 14; seatNumber++) {
+            Seat seat = new Seat();
+            seat.setId((long) seatNumber);
+            seat.setRowNumber(5);
+            seat.setSeatNumber(seatNumber);
+            seat.setRoom(testRoom);
+
+            Ticket ticket = new Ticket();
+            ticket.setId((long) seatNumber);
+            ticket.setScreening(testScreening);
+            ticket.setSeat(seat);
+            ticket.setTicketType(testTicketType);
+            ticket.setPrice(BigDecimal.valueOf(25.00));
+            tickets.add(ticket);
+        }
+
+        byte[] pdfBytes = pdfService.generateTicketPdf(tickets);
+
+        PdfReader reader = new PdfReader(pdfBytes);
+        PdfTextExtractor extractor = new PdfTextExtractor(reader);
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+            text.append(extractor.getTextFromPage(page));
+        }
+        assertThat(text.toString()).contains("Row 5, Seat 10", "Row 5, Seat 11", "Row 5, Seat 14");
+    }
+
+    @Test
+    @DisplayName("Should fall back to a single QR code with vector QR codes disabled")
+    void testGenerateTicketPdf_WithoutVectorQr() throws Exception {
+        ReflectionTestUtils.setField(pdfService, "vectorQr", false);
+
+        byte[] pdfBytes = pdfService.generateTicketPdf(List.of(testTicket));
+
+        String text = new PdfTextExtractor(new PdfReader(pdfBytes)).getTextFromPage(1);
+        assertThat(text).contains("Test Movie").doesNotContain("Row 5, Seat 10", "QR Code generation failed");
+    }
+}
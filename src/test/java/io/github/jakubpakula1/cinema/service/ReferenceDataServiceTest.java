@@ -0,0 +1,97 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.TicketType;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TicketTypeRepository;
+import io.github.jakubpakula1.cinema.repository.projection.SeatLayoutDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceDataService Unit Tests")
+class ReferenceDataServiceTest {
+
+    @Mock
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @InjectMocks
+    private ReferenceDataService referenceDataService;
+
+    @Test
+    @DisplayName("Should load the reference data once and serve it from memory")
+    void testLoadsOnce() {
+        // given
+        TicketType normal = new TicketType(1L, "Normal", new BigDecimal("25.00"));
+        when(ticketTypeRepository.findAll(Sort.by("id"))).thenReturn(List.of(normal));
+        when(seatRepository.findAllLayouts()).thenReturn(List.of());
+
+        // when
+        List<TicketType> ticketTypes = referenceDataService.getTicketTypes();
+        referenceDataService.findTicketType(1L);
+        referenceDataService.getRoomLayout(1L);
+
+        // then
+        assertThat(ticketTypes).extracting(TicketType::getId, TicketType::getName).containsExactly(tuple(1L, "Normal"));
+        assertThat(ticketTypes.getFirst()).isNotSameAs(normal);
+        assertThat(referenceDataService.findTicketType(2L)).isEmpty();
+        assertThat(referenceDataService.getVersion()).isEqualTo(1);
+        verify(ticketTypeRepository, times(1)).findAll(Sort.by("id"));
+        verify(seatRepository, times(1)).findAllLayouts();
+    }
+
+    @Test
+    @DisplayName("Should pack every room's seats into its own layout")
+    void testRoomLayouts() {
+        // given
+        when(ticketTypeRepository.findAll(Sort.by("id"))).thenReturn(List.of());
+        when(seatRepository.findAllLayouts()).thenReturn(List.of(
+                new SeatLayoutDTO(1L, 10L, 1, 1),
+                new SeatLayoutDTO(1L, 11L, 1, 2),
+                new SeatLayoutDTO(1L, 12L, 2, 1),
+                new SeatLayoutDTO(2L, 20L, 1, 1)));
+
+        // when
+        RoomLayout layout = referenceDataService.getRoomLayout(1L);
+
+        // then
+        assertThat(layout.size()).isEqualTo(3);
+        assertThat(layout.seatIds()).containsExactly(10L, 11L, 12L);
+        assertThat(layout.rowNumberAt(2)).isEqualTo(2);
+        assertThat(layout.seatNumberAt(1)).isEqualTo(2);
+        assertThat(referenceDataService.getRoomLayout(2L).seatIds()).containsExactly(20L);
+        assertThat(referenceDataService.getRoomLayout(3L).size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should swap in a new version on refresh")
+    void testRefresh() {
+        // given
+        when(ticketTypeRepository.findAll(Sort.by("id")))
+                .thenReturn(List.of(new TicketType(1L, "Normal", new BigDecimal("25.00"))))
+                .thenReturn(List.of(new TicketType(1L, "Normal", new BigDecimal("27.00"))));
+        when(seatRepository.findAllLayouts()).thenReturn(List.of());
+        assertThat(referenceDataService.findTicketType(1L)).get().extracting(TicketType::getPrice).isEqualTo(new BigDecimal("25.00"));
+
+        // when
+        long version = referenceDataService.refresh();
+
+        // then
+        assertThat(version).isEqualTo(2);
+        assertThat(referenceDataService.findTicketType(1L)).get().extracting(TicketType::getPrice).isEqualTo(new BigDecimal("27.00"));
+    }
+}
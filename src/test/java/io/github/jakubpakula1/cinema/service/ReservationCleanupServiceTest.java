@@ -1,77 +1,156 @@
 package io.github.jakubpakula1.cinema.service;
 
+import io.github.jakubpakula1.cinema.dao.ExpiredReservationDAO;
+import io.github.jakubpakula1.cinema.dao.ExpiredReservationDAO.ExpiredReservation;
+import io.github.jakubpakula1.cinema.event.ReservationsExpiredEvent;
 import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ReservationCleanupService Unit Tests")
 class ReservationCleanupServiceTest {
 
+    @Mock
+    private ExpiredReservationDAO expiredReservationDAO;
+
     @Mock
     private TemporaryReservationRepository temporaryReservationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ReservationCleanupService reservationCleanupService;
 
     @Test
-    @DisplayName("Should cleanup expired reservations")
+    @DisplayName("Should delete expired reservations chunk by chunk until a chunk comes back short")
     void testCleanupExpiredReservations() {
         // given
-        doNothing().when(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        ReflectionTestUtils.setField(reservationCleanupService, "batchSize", 2);
+        when(expiredReservationDAO.deleteExpired(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(expired(1L, 3L, 7L), expired(2L, 3L, 8L)))
+                .thenReturn(List.of(expired(3L, 3L, 9L)));
 
         // when
         reservationCleanupService.cleanupExpiredReservations();
 
         // then
-        verify(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        verify(expiredReservationDAO, times(2)).deleteExpired(any(LocalDateTime.class), eq(2));
+        assertThat(meterRegistry.counter(ReservationCleanupService.EXPIRED_METRIC, "trigger", "sweep").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer(ReservationCleanupService.DURATION_METRIC, "trigger", "sweep").count()).isEqualTo(1);
     }
 
     @Test
-    @DisplayName("Should handle no expired reservations")
+    @DisplayName("Should do nothing when no reservations have expired")
     void testCleanupExpiredReservations_NoExpiredReservations() {
         // given
-        doNothing().when(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        when(expiredReservationDAO.deleteExpired(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
 
         // when
         reservationCleanupService.cleanupExpiredReservations();
 
         // then
-        verify(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        verify(expiredReservationDAO, times(1)).deleteExpired(any(LocalDateTime.class), anyInt());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    @DisplayName("Should delete reservations before current time")
+    @DisplayName("Should delete reservations expired by the same instant in every chunk")
     void testCleanupExpiredReservations_VerifyTimeParameter() {
         // given
-        doNothing().when(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        ReflectionTestUtils.setField(reservationCleanupService, "batchSize", 1);
+        LocalDateTime before = LocalDateTime.now();
+        when(expiredReservationDAO.deleteExpired(any(LocalDateTime.class), eq(1)))
+                .thenReturn(List.of(expired(1L, 3L, 7L)))
+                .thenReturn(List.of());
 
         // when
         reservationCleanupService.cleanupExpiredReservations();
 
         // then
-        verify(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        verify(expiredReservationDAO, times(2)).deleteExpired(argThat((LocalDateTime now) ->
+                !now.isBefore(before) && !now.isAfter(LocalDateTime.now())), eq(1));
     }
 
     @Test
-    @DisplayName("Should be called on schedule")
-    void testCleanupExpiredReservations_ScheduledExecution() {
+    @DisplayName("Should publish one expiry event per screening")
+    void testCleanupExpiredReservations_PublishesEvents() {
         // given
-        doNothing().when(temporaryReservationRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        when(expiredReservationDAO.deleteExpired(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(expired(1L, 3L, 7L), expired(2L, 4L, 9L), expired(3L, 3L, 8L)));
 
         // when
         reservationCleanupService.cleanupExpiredReservations();
 
         // then
-        verify(temporaryReservationRepository, times(1)).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(new ReservationsExpiredEvent(3L, List.of(7L, 8L)));
+        verify(eventPublisher).publishEvent(new ReservationsExpiredEvent(4L, List.of(9L)));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should expire due reservations and hand back the extended ones")
+    void testExpire_ReturnsExtendedReservations() {
+        // given
+        LocalDateTime extendedUntil = LocalDateTime.now().plusMinutes(15);
+        when(expiredReservationDAO.deleteExpired(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(expired(1L, 3L, 7L)));
+        when(temporaryReservationRepository.findExpiriesByIds(List.of(2L, 3L)))
+                .thenReturn(List.of(new ReservationExpiryDTO(2L, extendedUntil)));
+
+        // when
+        List<ReservationExpiryDTO> alive = reservationCleanupService.expire(List.of(1L, 2L, 3L));
+
+        // then
+        assertThat(alive).extracting(ReservationExpiryDTO::getId).containsExactly(2L);
+        verify(eventPublisher).publishEvent(new ReservationsExpiredEvent(3L, List.of(7L)));
+        assertThat(meterRegistry.counter(ReservationCleanupService.EXPIRED_METRIC, "trigger", "timer").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should expire a large batch of due reservations in chunks")
+    void testExpire_Chunks() {
+        // given
+        ReflectionTestUtils.setField(reservationCleanupService, "batchSize", 2);
+        when(expiredReservationDAO.deleteExpired(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(expired(1L, 3L, 7L), expired(2L, 3L, 8L)));
+        when(expiredReservationDAO.deleteExpired(eq(List.of(3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(expired(3L, 3L, 9L)));
+
+        // when
+        List<ReservationExpiryDTO> alive = reservationCleanupService.expire(List.of(1L, 2L, 3L));
+
+        // then
+        assertThat(alive).isEmpty();
+        verify(temporaryReservationRepository, never()).findExpiriesByIds(anyCollection());
+        assertThat(meterRegistry.counter(ReservationCleanupService.EXPIRED_METRIC, "trigger", "timer").count()).isEqualTo(3);
+    }
+
+    private ExpiredReservation expired(Long id, Long screeningId, Long seatId) {
+        return new ExpiredReservation(id, screeningId, seatId);
     }
-}
\ No newline at end of file
+}
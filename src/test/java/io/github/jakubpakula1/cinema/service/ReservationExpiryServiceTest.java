@@ -0,0 +1,146 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.TemporaryReservation;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ReservationExpiryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReservationExpiryService Unit Tests")
+class ReservationExpiryServiceTest {
+
+    private static final long NOW = 1_800_000_000_000L;
+
+    @Mock
+    private TemporaryReservationRepository temporaryReservationRepository;
+
+    @Mock
+    private ReservationCleanupService reservationCleanupService;
+
+    @InjectMocks
+    private ReservationExpiryService reservationExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        // The wheel is driven by hand instead of by the ticker thread
+        ReflectionTestUtils.setField(reservationExpiryService, "wheel", new HierarchicalTimerWheel(100, NOW));
+    }
+
+    @Test
+    @DisplayName("Should expire a reservation on the first tick after its expiry, never before")
+    void testTick_ExpiresOnTime() {
+        // given
+        reservationExpiryService.scheduleAfterCommit(List.of(reservation(1L, NOW + 1_050)));
+
+        // when
+        reservationExpiryService.tick(NOW + 1_000);
+        reservationExpiryService.tick(NOW + 1_099);
+        verifyNoInteractions(reservationCleanupService);
+        reservationExpiryService.tick(NOW + 1_100);
+
+        // then
+        verify(reservationCleanupService).expire(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should expire reservations far in the future after cascading down the wheel")
+    void testTick_ExpiresAfterCascading() {
+        // given - beyond the first two levels of 64 and 4096 ticks
+        long expiresAt = NOW + 100L * 5_000;
+        reservationExpiryService.scheduleAfterCommit(List.of(reservation(1L, expiresAt), reservation(2L, NOW + 200)));
+
+        // when
+        for (long now = NOW; now < expiresAt; now += 100) {
+            reservationExpiryService.tick(now);
+        }
+        verify(reservationCleanupService).expire(List.of(2L));
+        reservationExpiryService.tick(expiresAt);
+
+        // then
+        verify(reservationCleanupService).expire(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should put extended reservations back with their new expiry")
+    void testTick_ReschedulesExtended() {
+        // given
+        reservationExpiryService.scheduleAfterCommit(List.of(reservation(1L, NOW + 100)));
+        when(reservationCleanupService.expire(List.of(1L)))
+                .thenReturn(List.of(new ReservationExpiryDTO(1L, toLocal(NOW + 60_000))))
+                .thenReturn(List.of());
+
+        // when
+        reservationExpiryService.tick(NOW + 100);
+        reservationExpiryService.tick(NOW + 59_900);
+        verify(reservationCleanupService, times(1)).expire(List.of(1L));
+        reservationExpiryService.tick(NOW + 60_000);
+
+        // then
+        verify(reservationCleanupService, times(2)).expire(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should retry reservations whose expiry failed")
+    void testTick_RetriesAfterFailure() {
+        // given
+        ReflectionTestUtils.setField(reservationExpiryService, "retryMillis", 1_000L);
+        reservationExpiryService.scheduleAfterCommit(List.of(reservation(1L, NOW + 100)));
+        when(reservationCleanupService.expire(List.of(1L)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"))
+                .thenReturn(List.of());
+
+        // when
+        reservationExpiryService.tick(NOW + 100);
+        reservationExpiryService.tick(NOW + 1_000);
+        verify(reservationCleanupService, times(1)).expire(List.of(1L));
+        reservationExpiryService.tick(NOW + 1_100);
+
+        // then
+        verify(reservationCleanupService, times(2)).expire(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should schedule reservations left over from before the start")
+    void testSchedulePending() {
+        // given
+        when(temporaryReservationRepository.findAllExpiries()).thenReturn(List.of(
+                new ReservationExpiryDTO(1L, toLocal(NOW - 60_000)),
+                new ReservationExpiryDTO(2L, toLocal(NOW + 60_000))));
+
+        // when
+        reservationExpiryService.schedulePending();
+        reservationExpiryService.tick(NOW + 100);
+
+        // then
+        verify(reservationCleanupService).expire(List.of(1L));
+        verify(reservationCleanupService, never()).expire(List.of(2L));
+        verify(reservationCleanupService, times(1)).expire(any());
+    }
+
+    private TemporaryReservation reservation(Long id, long expiresAtMillis) {
+        TemporaryReservation reservation = new TemporaryReservation();
+        reservation.setId(id);
+        reservation.setExpiresAt(toLocal(expiresAtMillis));
+        return reservation;
+    }
+
+    private LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -1,11 +1,15 @@
 package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.booking.BookingSummaryDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationRequestDTO;
+import io.github.jakubpakula1.cinema.dto.reservation.BatchReservationResponseDTO;
 import io.github.jakubpakula1.cinema.dto.reservation.ReservationRequestDTO;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
 import io.github.jakubpakula1.cinema.exception.EmptyCartException;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.*;
+import io.github.jakubpakula1.cinema.service.SeatClaimService.SeatClaim;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,8 +19,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,22 +32,19 @@ import static org.mockito.Mockito.*;
 class ReservationServiceTest {
 
     @Mock
-    private SeatRepository seatRepository;
-
-    @Mock
-    private TicketRepository ticketRepository;
+    private TemporaryReservationRepository temporaryReservationRepository;
 
     @Mock
-    private ScreeningRepository screeningRepository;
+    private ReferenceDataService referenceDataService;
 
     @Mock
-    private TemporaryReservationRepository temporaryReservationRepository;
+    private SeatStateService seatStateService;
 
     @Mock
-    private UserService userService;
+    private SeatClaimService seatClaimService;
 
     @Mock
-    private TicketTypeRepository ticketTypeRepository;
+    private ReservationExpiryService reservationExpiryService;
 
     @InjectMocks
     private ReservationService reservationService;
@@ -93,15 +95,8 @@ class ReservationServiceTest {
     @DisplayName("Should create temporary reservation successfully")
     void testCreateTemporaryReservation_Success() {
         // given
-        when(seatRepository.findSeatWithLock(1L)).thenReturn(Optional.of(testSeat));
-        when(temporaryReservationRepository.existsBySeatIdAndScreeningIdAndExpiresAtAfter(eq(1L), eq(1L), any(LocalDateTime.class)))
-                .thenReturn(false);
-        when(ticketRepository.existsBySeatIdAndScreeningId(1L, 1L))
-                .thenReturn(false);
-        when(screeningRepository.getReferenceById(1L)).thenReturn(testScreening);
-        when(temporaryReservationRepository.save(any(TemporaryReservation.class))).thenReturn(testReservation);
-        when(temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class)))
-                .thenReturn(List.of(testReservation));
+        when(seatClaimService.claim(eq(1L), eq(List.of(1L)), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(new SeatClaim(Map.of(1L, SeatLockStatus.LOCKED), List.of(testReservation)));
 
         // when
         TemporaryReservation result = reservationService.createTemporaryReservation(reservationRequest, testUser);
@@ -112,59 +107,97 @@ class ReservationServiceTest {
                 .extracting( "seat", "screening", "user")
                 .containsExactly(testSeat, testScreening, testUser);
 
-        verify(seatRepository).findSeatWithLock(1L);
-        verify(temporaryReservationRepository).existsBySeatIdAndScreeningIdAndExpiresAtAfter(eq(1L), eq(1L), any(LocalDateTime.class));
-        verify(ticketRepository).existsBySeatIdAndScreeningId(1L, 1L);
-        verify(temporaryReservationRepository).save(any(TemporaryReservation.class));
+        verify(reservationExpiryService).scheduleAfterCommit(List.of(testReservation));
+        verify(temporaryReservationRepository).extendActiveReservations(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(temporaryReservationRepository, never()).findAllByUserIdAndExpiresAtAfter(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when seat not found")
     void testCreateTemporaryReservation_SeatNotFound() {
         // given
-        when(seatRepository.findSeatWithLock(1L)).thenReturn(Optional.empty());
+        when(seatClaimService.claim(eq(1L), eq(List.of(1L)), eq(testUser), any(LocalDateTime.class)))
+                .thenThrow(new ResourceNotFoundException("Seat not found"));
 
         // when & then
         assertThatThrownBy(() -> reservationService.createTemporaryReservation(reservationRequest, testUser))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Seat not found");
 
-        verify(seatRepository).findSeatWithLock(1L);
-        verify(temporaryReservationRepository, never()).save(any());
+        verify(reservationExpiryService, never()).scheduleAfterCommit(any());
     }
 
     @Test
     @DisplayName("Should throw IllegalStateException when seat is already reserved")
     void testCreateTemporaryReservation_SeatAlreadyReserved() {
         // given
-        when(seatRepository.findSeatWithLock(1L)).thenReturn(Optional.of(testSeat));
-        when(temporaryReservationRepository.existsBySeatIdAndScreeningIdAndExpiresAtAfter(eq(1L), eq(1L), any(LocalDateTime.class)))
-                .thenReturn(true);
+        when(seatClaimService.claim(eq(1L), eq(List.of(1L)), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(new SeatClaim(Map.of(1L, SeatLockStatus.TAKEN), List.of()));
 
         // when & then
         assertThatThrownBy(() -> reservationService.createTemporaryReservation(reservationRequest, testUser))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Seat is already reserved");
 
-        verify(seatRepository).findSeatWithLock(1L);
-        verify(temporaryReservationRepository, never()).save(any());
+        verify(reservationExpiryService, never()).scheduleAfterCommit(any());
+        verify(temporaryReservationRepository, never()).extendActiveReservations(anyLong(), any(), any());
     }
 
     @Test
-    @DisplayName("Should throw IllegalStateException when seat is already sold")
-    void testCreateTemporaryReservation_SeatAlreadySold() {
+    @DisplayName("Should lock a batch of seats in one claim")
+    void testCreateTemporaryReservations_Success() {
         // given
-        when(seatRepository.findSeatWithLock(1L)).thenReturn(Optional.of(testSeat));
-        when(temporaryReservationRepository.existsBySeatIdAndScreeningIdAndExpiresAtAfter(eq(1L), eq(1L), any(LocalDateTime.class)))
-                .thenReturn(false);
-        when(ticketRepository.existsBySeatIdAndScreeningId(1L, 1L)).thenReturn(true);
+        Seat seat2 = new Seat();
+        seat2.setId(2L);
+        TemporaryReservation reservation2 = new TemporaryReservation();
+        reservation2.setId(2L);
+        reservation2.setSeat(seat2);
+        BatchReservationRequestDTO request = new BatchReservationRequestDTO(1L, List.of(1L, 2L));
+        Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+        statuses.put(1L, SeatLockStatus.LOCKED);
+        statuses.put(2L, SeatLockStatus.LOCKED);
 
-        // when & then
-        assertThatThrownBy(() -> reservationService.createTemporaryReservation(reservationRequest, testUser))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Seat is already reserved");
+        when(seatClaimService.claim(eq(1L), eq(List.of(1L, 2L)), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(new SeatClaim(statuses, List.of(testReservation, reservation2)));
+
+        // when
+        BatchReservationResponseDTO result = reservationService.createTemporaryReservations(request, testUser);
 
-        verify(temporaryReservationRepository, never()).save(any());
+        // then
+        assertThat(result.isLocked()).isTrue();
+        assertThat(result.getExpiresAt()).isNotNull();
+        assertThat(result.getSeats())
+                .extracting("seatId", "status", "reservationId")
+                .containsExactly(tuple(1L, SeatLockStatus.LOCKED, 1L), tuple(2L, SeatLockStatus.LOCKED, 2L));
+
+        verify(reservationExpiryService).scheduleAfterCommit(argThat(reservations -> reservations.size() == 2));
+        verify(temporaryReservationRepository).extendActiveReservations(eq(1L), any(LocalDateTime.class), eq(result.getExpiresAt()));
+    }
+
+    @Test
+    @DisplayName("Should report every seat when a seat in the batch is taken")
+    void testCreateTemporaryReservations_Conflict() {
+        // given
+        BatchReservationRequestDTO request = new BatchReservationRequestDTO(1L, List.of(1L, 2L));
+        Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+        statuses.put(1L, SeatLockStatus.AVAILABLE);
+        statuses.put(2L, SeatLockStatus.TAKEN);
+
+        when(seatClaimService.claim(eq(1L), eq(List.of(1L, 2L)), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(new SeatClaim(statuses, List.of()));
+
+        // when
+        BatchReservationResponseDTO result = reservationService.createTemporaryReservations(request, testUser);
+
+        // then
+        assertThat(result.isLocked()).isFalse();
+        assertThat(result.getExpiresAt()).isNull();
+        assertThat(result.getSeats())
+                .extracting("seatId", "status")
+                .containsExactly(tuple(1L, SeatLockStatus.AVAILABLE), tuple(2L, SeatLockStatus.TAKEN));
+
+        verify(reservationExpiryService, never()).scheduleAfterCommit(any());
+        verify(temporaryReservationRepository, never()).extendActiveReservations(anyLong(), any(), any());
     }
 
     @Test
@@ -180,6 +213,7 @@ class ReservationServiceTest {
         // then
         verify(temporaryReservationRepository).findByUserIdAndSeatIdAndScreeningId(1L, 1L, 1L);
         verify(temporaryReservationRepository).deleteAll(List.of(testReservation));
+        verify(seatStateService).releaseAfterCommit(1L, 1L);
     }
 
     @Test
@@ -195,6 +229,7 @@ class ReservationServiceTest {
                 .hasMessageContaining("Temporary reservation not found");
 
         verify(temporaryReservationRepository, never()).deleteAll(any());
+        verify(seatStateService, never()).releaseAfterCommit(anyLong(), anyLong());
     }
 
     @Test
@@ -207,42 +242,42 @@ class ReservationServiceTest {
 
          testScreening.setMovie(testMovie);
 
-        when(userService.getUserByEmail("test@test.com")).thenReturn(testUser);
+        when(temporaryReservationRepository.extendActiveReservations(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
         when(temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation));
-        when(ticketTypeRepository.findAll()).thenReturn(List.of(ticketType));
+        when(referenceDataService.getTicketTypes()).thenReturn(List.of(ticketType));
 
         // when
-        BookingSummaryDTO result = reservationService.prepareSummary("test@test.com");
+        BookingSummaryDTO result = reservationService.prepareSummary(1L, "test@test.com");
 
         // then
         assertThat(result)
                 .isNotNull()
-                .extracting("user", "screening", "movie")
-                .containsExactly(testUser, testScreening, testMovie);
+                .extracting("userEmail", "screening", "movie")
+                .containsExactly("test@test.com", testScreening, testMovie);
 
         assertThat(result.getReservations()).hasSize(1).contains(testReservation);
         assertThat(result.getTicketTypes()).hasSize(1).contains(ticketType);
 
-        verify(userService).getUserByEmail("test@test.com");
         verify(temporaryReservationRepository).findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class));
-        verify(ticketTypeRepository).findAll();
+        verify(referenceDataService).getTicketTypes();
     }
 
     @Test
     @DisplayName("Should throw EmptyCartException when no reservations found")
     void testPrepareSummary_EmptyCart() {
         // given
-        when(userService.getUserByEmail("test@test.com")).thenReturn(testUser);
-        when(temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class)))
-                .thenReturn(List.of());
+        when(temporaryReservationRepository.extendActiveReservations(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
 
         // when & then
-        assertThatThrownBy(() -> reservationService.prepareSummary("test@test.com"))
+        assertThatThrownBy(() -> reservationService.prepareSummary(1L, "test@test.com"))
                 .isInstanceOf(EmptyCartException.class)
                 .hasMessageContaining("Your cart is empty!");
 
-        verify(ticketTypeRepository, never()).findAll();
+        verify(temporaryReservationRepository, never()).findAllByUserIdAndExpiresAtAfter(anyLong(), any(LocalDateTime.class));
+        verifyNoInteractions(referenceDataService);
     }
 
     @Test
@@ -259,17 +294,19 @@ class ReservationServiceTest {
         reservation2.setScreening(testScreening);
         reservation2.setUser(testUser);
 
-        when(userService.getUserByEmail("test@test.com")).thenReturn(testUser);
+        when(temporaryReservationRepository.extendActiveReservations(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(2);
         when(temporaryReservationRepository.findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class)))
                 .thenReturn(List.of(testReservation, reservation2));
-        when(ticketTypeRepository.findAll()).thenReturn(List.of(ticketType));
+        when(referenceDataService.getTicketTypes()).thenReturn(List.of(ticketType));
 
         // when
-        BookingSummaryDTO result = reservationService.prepareSummary("test@test.com");
+        BookingSummaryDTO result = reservationService.prepareSummary(1L, "test@test.com");
 
         // then
         assertThat(result.getReservations()).hasSize(2);
 
+        verify(temporaryReservationRepository).extendActiveReservations(eq(1L), any(LocalDateTime.class), eq(result.getExpirationTime()));
         verify(temporaryReservationRepository).findAllByUserIdAndExpiresAtAfter(eq(1L), any(LocalDateTime.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoomScheduleService Unit Tests")
+class RoomScheduleServiceTest {
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @InjectMocks
+    private RoomScheduleService roomScheduleService;
+
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should find screenings overlapping the range and ignore touching ones")
+    void testFindOverlapping() {
+        // given
+        when(screeningRepository.findScheduleByRoomId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of(
+                screening(1L, 10, 0, 120),
+                screening(2L, 13, 0, 90),
+                screening(3L, 16, 0, 180)));
+
+        // when / then
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(11), day.withHour(14))))
+                .containsExactly(1L, 2L);
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(12), day.withHour(13))))
+                .isEmpty();
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(18), day.withHour(19))))
+                .containsExactly(3L);
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(11), day.withHour(14), 1L)))
+                .containsExactly(2L);
+        verify(screeningRepository, times(1)).findScheduleByRoomId(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should find a long screening that starts well before the range")
+    void testFindOverlapping_LongScreening() {
+        // given
+        when(screeningRepository.findScheduleByRoomId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of(
+                screening(1L, 8, 0, 600),
+                screening(2L, 9, 0, 30)));
+
+        // when
+        List<ScheduledScreeningDTO> result = roomScheduleService.findOverlapping(1L, day.withHour(17), day.withHour(18));
+
+        // then
+        assertThat(ids(result)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply committed changes to a loaded room without reloading it")
+    void testPutAndRemoveAfterCommit() {
+        // given
+        when(screeningRepository.findScheduleByRoomId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of(screening(1L, 10, 0, 120)));
+        roomScheduleService.findOverlapping(1L, day, day.plusDays(1));
+
+        // when
+        roomScheduleService.putAfterCommit(screening(2L, 15, 0, 120));
+        roomScheduleService.putAfterCommit(screening(1L, 20, 0, 120));
+        roomScheduleService.removeAfterCommit(1L, 2L);
+
+        // then
+        assertThat(roomScheduleService.hasOverlap(1L, day.withHour(10), day.withHour(12), null)).isFalse();
+        assertThat(roomScheduleService.hasOverlap(1L, day.withHour(15), day.withHour(17), null)).isFalse();
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(21), day.withHour(22)))).containsExactly(1L);
+        verify(screeningRepository, times(1)).findScheduleByRoomId(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should leave rooms that are not loaded to the next load")
+    void testPutAfterCommit_RoomNotLoaded() {
+        // given
+        roomScheduleService.putAfterCommit(screening(1L, 10, 0, 120));
+        when(screeningRepository.findScheduleByRoomId(eq(1L), any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+
+        // when
+        boolean overlap = roomScheduleService.hasOverlap(1L, day.withHour(10), day.withHour(12), null);
+
+        // then
+        assertThat(overlap).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reload room schedules after a movie change")
+    void testOnMovieChanged_ReloadsRooms() {
+        // given
+        when(screeningRepository.findScheduleByRoomId(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(screening(1L, 10, 0, 120)))
+                .thenReturn(List.of());
+        assertThat(roomScheduleService.hasOverlap(1L, day.withHour(10), day.withHour(12), null)).isTrue();
+
+        // when
+        roomScheduleService.onMovieChanged(new MovieChangedEvent(1L));
+
+        // then
+        assertThat(roomScheduleService.hasOverlap(1L, day.withHour(10), day.withHour(12), null)).isFalse();
+        verify(screeningRepository, times(2)).findScheduleByRoomId(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should look up the room of a screening once and follow committed moves")
+    void testFindRoomId() {
+        // given
+        when(screeningRepository.findRoomIdById(1L)).thenReturn(Optional.of(1L));
+        when(screeningRepository.findRoomIdById(2L)).thenReturn(Optional.of(1L));
+        when(screeningRepository.findRoomIdById(99L)).thenReturn(Optional.empty());
+
+        // when
+        roomScheduleService.findRoomId(1L);
+        roomScheduleService.findRoomId(2L);
+        roomScheduleService.putAfterCommit(new ScheduledScreeningDTO(1L, 3L, day, day.plusHours(2), "Movie 1", "Room C"));
+        roomScheduleService.removeAfterCommit(1L, 2L);
+
+        // then
+        assertThat(roomScheduleService.findRoomId(1L)).contains(3L);
+        assertThat(roomScheduleService.findRoomId(2L)).contains(1L);
+        assertThat(roomScheduleService.findRoomId(99L)).isEmpty();
+        verify(screeningRepository, times(1)).findRoomIdById(1L);
+        verify(screeningRepository, times(2)).findRoomIdById(2L);
+    }
+
+    @Test
+    @DisplayName("Should look up the room of an evicted screening again")
+    void testEvictScreenings_ScreeningRooms() {
+        // given
+        when(screeningRepository.findRoomIdById(1L)).thenReturn(Optional.of(1L));
+        when(screeningRepository.findRoomIdById(2L)).thenReturn(Optional.of(1L));
+        roomScheduleService.findRoomId(1L);
+        roomScheduleService.findRoomId(2L);
+
+        // when
+        roomScheduleService.evictScreenings(List.of(1L));
+
+        // then
+        assertThat(roomScheduleService.cachedScreeningIds()).containsOnly(2L);
+        roomScheduleService.findRoomId(1L);
+        verify(screeningRepository, times(2)).findRoomIdById(1L);
+    }
+
+    @Test
+    @DisplayName("Should load only screenings whose cleaning is not over and drop evicted ones")
+    void testEvictScreenings_Schedules() {
+        // given
+        ReflectionTestUtils.setField(roomScheduleService, "cleaningDurationInMinutes", 15L);
+        ArgumentCaptor<LocalDateTime> endingAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(screeningRepository.findScheduleByRoomId(eq(1L), endingAfter.capture())).thenReturn(List.of(
+                screening(1L, 10, 0, 120),
+                screening(2L, 13, 0, 90)));
+        assertThat(roomScheduleService.hasOverlap(1L, day.withHour(11), day.withHour(14), null)).isTrue();
+        assertThat(roomScheduleService.cachedScreeningIds()).containsOnly(1L, 2L);
+
+        // when
+        roomScheduleService.evictScreenings(List.of(1L));
+
+        // then
+        assertThat(endingAfter.getValue()).isBetween(
+                LocalDateTime.now().minusMinutes(16), LocalDateTime.now().minusMinutes(15));
+        assertThat(ids(roomScheduleService.findOverlapping(1L, day.withHour(11), day.withHour(14))))
+                .containsExactly(2L);
+        assertThat(roomScheduleService.cachedScreeningIds()).containsOnly(2L);
+        verify(screeningRepository, times(1)).findScheduleByRoomId(eq(1L), any(LocalDateTime.class));
+    }
+
+    private ScheduledScreeningDTO screening(Long id, int hour, int minute, int durationInMinutes) {
+        LocalDateTime start = day.withHour(hour).withMinute(minute);
+        return new ScheduledScreeningDTO(id, 1L, start, start.plusMinutes(durationInMinutes), "Movie " + id, "Room A");
+    }
+
+    private List<Long> ids(List<ScheduledScreeningDTO> screenings) {
+        return screenings.stream().map(ScheduledScreeningDTO::getScreeningId).toList();
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.screening.MovieDemandDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanDTO;
+import io.github.jakubpakula1.cinema.dto.screening.SchedulePlanRequestDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.repository.MovieRepository;
+import io.github.jakubpakula1.cinema.repository.RoomRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleOptimizerService Unit Tests")
+class ScheduleOptimizerServiceTest {
+
+    private static final long CLEANING = 25;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private RoomScheduleService roomScheduleService;
+
+    @InjectMocks
+    private ScheduleOptimizerService scheduleOptimizerService;
+
+    private LocalDate monday;
+    private Movie drama;
+    private Movie epic;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduleOptimizerService, "cleaningDurationInMinutes", CLEANING);
+        ReflectionTestUtils.setField(scheduleOptimizerService, "timeBudgetMs", 50L);
+        ReflectionTestUtils.setField(scheduleOptimizerService, "workers", 2);
+        scheduleOptimizerService.start();
+
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        drama = movie(1L, 120);
+        epic = movie(2L, 180);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduleOptimizerService.stop();
+    }
+
+    @Test
+    @DisplayName("Should place every showing without overlaps and around existing screenings")
+    void testPlan_ConflictFree() {
+        // given
+        Room roomA = room(1L);
+        Room roomB = room(2L);
+        when(movieRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(drama, epic));
+        when(roomRepository.findAll()).thenReturn(List.of(roomB, roomA));
+        ScheduledScreeningDTO existing = new ScheduledScreeningDTO(9L, 1L, monday.atTime(18, 0), monday.atTime(21, 0), "Existing", "Room 1");
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(existing));
+        when(roomScheduleService.findOverlapping(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // when
+        SchedulePlanDTO plan = scheduleOptimizerService.plan(request(
+                MovieDemandDTO.builder().movieId(1L).showings(20).build(),
+                MovieDemandDTO.builder().movieId(2L).showings(10).build()));
+
+        // then
+        assertThat(plan.getPlannedShowings()).isEqualTo(30);
+        assertThat(plan.getMissingShowings()).isEmpty();
+        assertThat(plan.getCandidatePlans()).isGreaterThanOrEqualTo(2);
+        assertNoOverlaps(plan.getScreenings(), List.of(existing));
+        assertThat(plan.getScreenings()).allSatisfy(screening -> {
+            assertThat(screening.getScreeningTime().toLocalDate()).isBetween(monday, monday.plusDays(6));
+            assertThat(screening.getScreeningTime().toLocalTime()).isAfterOrEqualTo(LocalTime.of(10, 0));
+        });
+    }
+
+    @Test
+    @DisplayName("Should put showings into prime time when there is room for them")
+    void testPlan_PrefersPrimeTime() {
+        // given
+        when(movieRepository.findAllById(List.of(1L))).thenReturn(List.of(drama));
+        when(roomRepository.findAllById(List.of(1L))).thenReturn(List.of(room(1L)));
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        SchedulePlanRequestDTO request = request(MovieDemandDTO.builder().movieId(1L).showings(7).build());
+        request.setRoomIds(List.of(1L));
+
+        // when
+        SchedulePlanDTO plan = scheduleOptimizerService.plan(request);
+
+        // then
+        assertThat(plan.getPrimeTimeShowings()).isEqualTo(7);
+        assertThat(plan.getScreenings())
+                .extracting(screening -> screening.getScreeningTime().toLocalTime())
+                .allSatisfy(time -> assertThat(time).isBetween(LocalTime.of(18, 0), LocalTime.of(21, 59)));
+    }
+
+    @Test
+    @DisplayName("Should honour preferred start windows")
+    void testPlan_PreferredWindow() {
+        // given
+        when(movieRepository.findAllById(List.of(1L))).thenReturn(List.of(drama));
+        when(roomRepository.findAll()).thenReturn(List.of(room(1L)));
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // when
+        SchedulePlanDTO plan = scheduleOptimizerService.plan(request(MovieDemandDTO.builder()
+                .movieId(1L)
+                .showings(5)
+                .preferredFrom(LocalTime.of(10, 0))
+                .preferredTo(LocalTime.of(12, 0))
+                .build()));
+
+        // then
+        assertThat(plan.getPreferredWindowShowings()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should report showings that do not fit into the week")
+    void testPlan_ReportsMissingShowings() {
+        // given
+        when(movieRepository.findAllById(List.of(2L))).thenReturn(List.of(epic));
+        when(roomRepository.findAll()).thenReturn(List.of(room(1L)));
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // when
+        SchedulePlanDTO plan = scheduleOptimizerService.plan(request(MovieDemandDTO.builder().movieId(2L).showings(40).build()));
+
+        // then
+        assertThat(plan.getPlannedShowings()).isBetween(1, 28);
+        assertThat(plan.getMissingShowings()).isEqualTo(Map.of(2L, 40 - plan.getPlannedShowings()));
+        assertNoOverlaps(plan.getScreenings(), List.of());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown movies")
+    void testPlan_UnknownMovie() {
+        // given
+        when(movieRepository.findAllById(List.of(99L))).thenReturn(List.of());
+
+        // when / then
+        assertThatThrownBy(() -> scheduleOptimizerService.plan(request(MovieDemandDTO.builder().movieId(99L).showings(1).build())))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(roomScheduleService, never()).findOverlapping(anyLong(), any(), any());
+    }
+
+    private void assertNoOverlaps(List<ScreeningDTO> planned, List<ScheduledScreeningDTO> existing) {
+        Map<Long, Integer> durations = Map.of(1L, 120, 2L, 180);
+        List<long[]> intervals = new ArrayList<>();
+        for (ScreeningDTO screening : planned) {
+            long start = minutes(screening.getScreeningTime());
+            intervals.add(new long[]{screening.getRoomId(), start, start + durations.get(screening.getMovieId())});
+        }
+        for (ScheduledScreeningDTO screening : existing) {
+            intervals.add(new long[]{screening.getRoomId(), minutes(screening.getStartTime()), minutes(screening.getEndTime())});
+        }
+        intervals.sort(Comparator.comparingLong((long[] interval) -> interval[0]).thenComparingLong(interval -> interval[1]));
+        for (int i = 1; i < intervals.size(); i++) {
+            long[] previous = intervals.get(i - 1);
+            long[] current = intervals.get(i);
+            if (previous[0] == current[0]) {
+                assertThat(current[1]).isGreaterThanOrEqualTo(previous[2] + CLEANING);
+            }
+        }
+    }
+
+    private long minutes(LocalDateTime time) {
+        return Duration.between(monday.atStartOfDay(), time).toMinutes();
+    }
+
+    private SchedulePlanRequestDTO request(MovieDemandDTO... demands) {
+        return SchedulePlanRequestDTO.builder()
+                .weekStart(monday)
+                .movies(List.of(demands))
+                .build();
+    }
+
+    private Movie movie(Long id, int duration) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setDurationInMinutes(duration);
+        return movie;
+    }
+
+    private Room room(Long id) {
+        Room room = new Room();
+        room.setId(id);
+        room.setName("Room " + id);
+        return room;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreeningCacheEvictionService Unit Tests")
+class ScreeningCacheEvictionServiceTest {
+
+    @Mock
+    private ScreeningCache seatMaps;
+
+    @Mock
+    private ScreeningCache scans;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    private ScreeningCacheEvictionService evictionService;
+
+    @BeforeEach
+    void setUp() {
+        evictionService = new ScreeningCacheEvictionService(List.of(seatMaps, scans), screeningRepository);
+    }
+
+    @Test
+    @DisplayName("Should evict ended and deleted screenings from every cache")
+    void testEvictEndedScreenings() {
+        // given: 1 is still running, 2 has ended and 3 no longer exists
+        when(seatMaps.cachedScreeningIds()).thenReturn(Set.of(1L, 2L));
+        when(scans.cachedScreeningIds()).thenReturn(Set.of(1L, 3L));
+        ReflectionTestUtils.setField(evictionService, "cleaningDurationInMinutes", 15L);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(screeningRepository.findIdsEndingAfter(anyCollection(), cutoff.capture())).thenReturn(List.of(1L));
+
+        // when
+        evictionService.evictEndedScreenings();
+
+        // then: a screening counts as ended once its room has been cleaned
+        assertThat(cutoff.getValue()).isBetween(
+                LocalDateTime.now().minusMinutes(16), LocalDateTime.now().minusMinutes(15));
+        verify(seatMaps).evictScreenings(Set.of(2L, 3L));
+        verify(scans).evictScreenings(Set.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should look the cached screenings up in chunks")
+    void testEvictEndedScreenings_Chunked() {
+        // given
+        ReflectionTestUtils.setField(evictionService, "batchSize", 2);
+        when(seatMaps.cachedScreeningIds()).thenReturn(Set.of(1L, 2L, 3L));
+        when(scans.cachedScreeningIds()).thenReturn(Set.of());
+        when(screeningRepository.findIdsEndingAfter(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // when
+        evictionService.evictEndedScreenings();
+
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(screeningRepository, times(2)).findIdsEndingAfter(chunks.capture(), any(LocalDateTime.class));
+        assertThat(chunks.getAllValues()).extracting(Collection::size).containsExactly(2, 1);
+        verify(seatMaps).evictScreenings(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should leave the caches alone while every screening is still running")
+    void testEvictEndedScreenings_NothingEnded() {
+        // given
+        when(seatMaps.cachedScreeningIds()).thenReturn(Set.of(1L));
+        when(scans.cachedScreeningIds()).thenReturn(Set.of());
+        when(screeningRepository.findIdsEndingAfter(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(1L));
+
+        // when
+        evictionService.evictEndedScreenings();
+
+        // then
+        verify(seatMaps, never()).evictScreenings(any());
+        verify(scans, never()).evictScreenings(any());
+    }
+
+    @Test
+    @DisplayName("Should not query the database when nothing is cached")
+    void testEvictEndedScreenings_EmptyCaches() {
+        // given
+        when(seatMaps.cachedScreeningIds()).thenReturn(Set.of());
+        when(scans.cachedScreeningIds()).thenReturn(Set.of());
+
+        // when
+        evictionService.evictEndedScreenings();
+
+        // then
+        verifyNoInteractions(screeningRepository);
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dao.ScreeningBatchDAO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningImportResultDTO;
+import io.github.jakubpakula1.cinema.dto.screening.ScreeningRecurrenceDTO;
+import io.github.jakubpakula1.cinema.enums.ScreeningImportStatus;
+import io.github.jakubpakula1.cinema.event.ScreeningScheduleChangedEvent;
+import io.github.jakubpakula1.cinema.model.Movie;
+import io.github.jakubpakula1.cinema.model.Room;
+import io.github.jakubpakula1.cinema.repository.MovieRepository;
+import io.github.jakubpakula1.cinema.repository.RoomRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreeningImportService Unit Tests")
+class ScreeningImportServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private RoomScheduleService roomScheduleService;
+
+    @Mock
+    private ScreeningBatchDAO screeningBatchDAO;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ScreeningImportService screeningImportService;
+
+    private Movie movie;
+    private Room room;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(screeningImportService, "cleaningDurationInMinutes", 30L);
+
+        movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Test Movie");
+        movie.setDurationInMinutes(120);
+
+        room = new Room();
+        room.setId(1L);
+        room.setName("Room A");
+
+        day = LocalDate.now().plusDays(3);
+    }
+
+    @Test
+    @DisplayName("Should insert rows that fit and report rows overlapping each other")
+    void testImportScreenings_ConflictBetweenRows() {
+        // given
+        stubMovieAndRoom();
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        when(screeningBatchDAO.insertAll(anyList())).thenReturn(List.of(10L, 11L));
+
+        // when
+        ScreeningImportResultDTO result = screeningImportService.importScreenings(List.of(
+                screening(day.atTime(10, 0)),
+                screening(day.atTime(12, 10)),
+                screening(day.atTime(12, 30))), false);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRows())
+                .extracting("row", "status", "screeningId", "conflictingRow")
+                .containsExactly(
+                        tuple(1, ScreeningImportStatus.CREATED, 10L, null),
+                        tuple(2, ScreeningImportStatus.CONFLICT, null, 1),
+                        tuple(3, ScreeningImportStatus.CREATED, 11L, null));
+        verify(screeningBatchDAO).insertAll(argThat(rows -> rows.size() == 2));
+        verify(roomScheduleService, times(2)).putAfterCommit(any(ScheduledScreeningDTO.class));
+        verify(eventPublisher).publishEvent(new ScreeningScheduleChangedEvent(Set.of(day)));
+    }
+
+    @Test
+    @DisplayName("Should report rows overlapping existing screenings before and after them")
+    void testImportScreenings_ConflictWithExisting() {
+        // given
+        stubMovieAndRoom();
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(
+                new ScheduledScreeningDTO(5L, 1L, day.atTime(9, 0), day.atTime(11, 0), "Morning", "Room A"),
+                new ScheduledScreeningDTO(6L, 1L, day.atTime(18, 0), day.atTime(20, 0), "Evening", "Room A")));
+        when(screeningBatchDAO.insertAll(anyList())).thenReturn(List.of(12L));
+
+        // when
+        ScreeningImportResultDTO result = screeningImportService.importScreenings(List.of(
+                screening(day.atTime(11, 20)),
+                screening(day.atTime(14, 0)),
+                screening(day.atTime(16, 40))), false);
+
+        // then
+        assertThat(result.getRows())
+                .extracting("status", "conflictingScreeningId")
+                .containsExactly(
+                        tuple(ScreeningImportStatus.CONFLICT, 5L),
+                        tuple(ScreeningImportStatus.CREATED, null),
+                        tuple(ScreeningImportStatus.CONFLICT, 6L));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown movies, past times and unreadable CSV lines")
+    void testImportCsv_InvalidRows() {
+        // given
+        when(movieRepository.findAllById(anyCollection())).thenReturn(List.of(movie));
+        when(roomRepository.findAllById(anyCollection())).thenReturn(List.of(room));
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        String csv = """
+                movieId,roomId,screeningTime
+                1,1,%s
+
+                2,1,%s
+                1,1,%s
+                1,1,tomorrow
+                """.formatted(day.atTime(10, 0), day.atTime(14, 0), LocalDate.now().minusDays(1).atTime(10, 0));
+
+        // when
+        ScreeningImportResultDTO result = screeningImportService.importCsv(csv, true);
+
+        // then
+        assertThat(result.isDryRun()).isTrue();
+        assertThat(result.getRows())
+                .extracting("row", "status")
+                .containsExactly(
+                        tuple(2, ScreeningImportStatus.VALID),
+                        tuple(4, ScreeningImportStatus.INVALID),
+                        tuple(5, ScreeningImportStatus.INVALID),
+                        tuple(6, ScreeningImportStatus.INVALID));
+        assertThat(result.getRows().get(1).getMessage()).contains("Invalid movie ID");
+        verifyNoInteractions(screeningBatchDAO, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should expand a recurrence on the chosen weekdays")
+    void testImportRecurrence_DryRun() {
+        // given
+        stubMovieAndRoom();
+        when(roomScheduleService.findOverlapping(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        LocalDate monday = day.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        ScreeningRecurrenceDTO recurrence = ScreeningRecurrenceDTO.builder()
+                .movieId(1L)
+                .roomId(1L)
+                .startDate(monday)
+                .endDate(monday.plusDays(13))
+                .daysOfWeek(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))
+                .times(List.of(LocalTime.of(20, 0), LocalTime.of(16, 0)))
+                .build();
+
+        // when
+        ScreeningImportResultDTO result = screeningImportService.importRecurrence(recurrence, true);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(8);
+        assertThat(result.getRows().subList(0, 2))
+                .extracting("screeningTime")
+                .containsExactly(monday.atTime(16, 0), monday.atTime(20, 0));
+        verifyNoInteractions(screeningBatchDAO);
+    }
+
+    @Test
+    @DisplayName("Should refuse imports above the row limit")
+    void testImportRecurrence_TooManyRows() {
+        // given
+        ReflectionTestUtils.setField(screeningImportService, "maxRows", 10);
+        ScreeningRecurrenceDTO recurrence = ScreeningRecurrenceDTO.builder()
+                .movieId(1L)
+                .roomId(1L)
+                .startDate(day)
+                .endDate(day.plusYears(1))
+                .times(List.of(LocalTime.of(20, 0)))
+                .build();
+
+        // when / then
+        assertThatThrownBy(() -> screeningImportService.importRecurrence(recurrence, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(movieRepository, screeningBatchDAO);
+    }
+
+    private void stubMovieAndRoom() {
+        when(movieRepository.findAllById(Set.of(1L))).thenReturn(List.of(movie));
+        when(roomRepository.findAllById(Set.of(1L))).thenReturn(List.of(room));
+    }
+
+    private ScreeningDTO screening(LocalDateTime time) {
+        return ScreeningDTO.builder().movieId(1L).roomId(1L).screeningTime(time).build();
+    }
+}
@@ -1,14 +1,20 @@
 package io.github.jakubpakula1.cinema.service;
 
 import io.github.jakubpakula1.cinema.dto.screening.*;
+import io.github.jakubpakula1.cinema.dto.seat.SeatOccupancyDTO;
 import io.github.jakubpakula1.cinema.dto.seat.SeatStatusDTO;
-import io.github.jakubpakula1.cinema.dto.seat.SeatUserLockDTO;
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
 import io.github.jakubpakula1.cinema.enums.MovieGenre;
+import io.github.jakubpakula1.cinema.event.MovieChangedEvent;
+import io.github.jakubpakula1.cinema.event.ScreeningScheduleChangedEvent;
 import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
 import io.github.jakubpakula1.cinema.exception.ScreeningDateInPastException;
 import io.github.jakubpakula1.cinema.exception.ScreeningOverlapException;
 import io.github.jakubpakula1.cinema.model.*;
 import io.github.jakubpakula1.cinema.repository.*;
+import io.github.jakubpakula1.cinema.repository.projection.OccupiedSeatDTO;
+import io.github.jakubpakula1.cinema.repository.projection.RepertoireScreeningDTO;
+import io.github.jakubpakula1.cinema.repository.projection.ScheduledScreeningDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,11 +22,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,13 +52,19 @@ public class ScreeningServiceTest {
     private RoomRepository roomRepository;
 
     @Mock
-    private TicketRepository ticketRepository;
+    private SeatRepository seatRepository;
 
     @Mock
-    private TemporaryReservationRepository temporaryReservationRepository;
+    private ReferenceDataService referenceDataService;
 
     @Mock
-    private SeatRepository seatRepository;
+    private SeatStateService seatStateService;
+
+    @Mock
+    private RoomScheduleService roomScheduleService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ScreeningService screeningService;
@@ -92,15 +109,17 @@ public class ScreeningServiceTest {
 
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
-                any(LocalDateTime.class)
+                any(LocalDateTime.class),
+                isNull()
         )).thenReturn(false);
 
         screeningService.createScreening(screeningDTO);
 
-        verify(screeningRepository).save(any(Screening.class));
+        verify(screeningRepository).saveAndFlush(any(Screening.class));
+        verify(eventPublisher).publishEvent(new ScreeningScheduleChangedEvent(Set.of(futureDateTime.toLocalDate())));
     }
 
     @Test
@@ -115,7 +134,7 @@ public class ScreeningServiceTest {
         assertThatThrownBy(() -> screeningService.createScreening(screeningDTO))
                 .isInstanceOf(ScreeningDateInPastException.class);
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -129,17 +148,64 @@ public class ScreeningServiceTest {
 
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
-                any(LocalDateTime.class)
+                any(LocalDateTime.class),
+                isNull()
         )).thenReturn(true);
 
         assertThatThrownBy(() -> screeningService.createScreening(screeningDTO))
                 .isInstanceOf(ScreeningOverlapException.class)
                 .hasMessageContaining("overlaps");
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should map an exclusion constraint violation to ScreeningOverlapException")
+    void testCreateScreening_ConcurrentOverlap_ThrowsException() {
+        ScreeningDTO screeningDTO = ScreeningDTO.builder()
+                .movieId(1L)
+                .roomId(1L)
+                .screeningTime(futureDateTime)
+                .build();
+
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+        when(roomScheduleService.hasOverlap(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
+                .thenReturn(false);
+        when(screeningRepository.saveAndFlush(any(Screening.class))).thenThrow(new DataIntegrityViolationException(
+                "conflicting key value violates exclusion constraint \"screenings_no_overlap_25\""));
+
+        assertThatThrownBy(() -> screeningService.createScreening(screeningDTO))
+                .isInstanceOf(ScreeningOverlapException.class);
+
+        verify(roomScheduleService, never()).putAfterCommit(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should add a created screening to the room schedule")
+    void testCreateScreening_UpdatesRoomSchedule() {
+        ScreeningDTO screeningDTO = ScreeningDTO.builder()
+                .movieId(1L)
+                .roomId(1L)
+                .screeningTime(futureDateTime)
+                .build();
+
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+        when(roomScheduleService.hasOverlap(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
+                .thenReturn(false);
+
+        screeningService.createScreening(screeningDTO);
+
+        verify(roomScheduleService).putAfterCommit(argThat(screening ->
+                screening.getRoomId().equals(1L)
+                        && screening.getStartTime().equals(futureDateTime)
+                        && screening.getEndTime().equals(futureDateTime.plusMinutes(120))
+                        && screening.getMovieTitle().equals("Test Movie")));
     }
 
     @Test
@@ -157,7 +223,7 @@ public class ScreeningServiceTest {
         assertThatThrownBy(() -> screeningService.createScreening(screeningDTO))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
     @Test
     @DisplayName("Should throw ResourceNotFoundException when room does not exist")
@@ -173,7 +239,7 @@ public class ScreeningServiceTest {
         assertThatThrownBy(() -> screeningService.createScreening(screeningDTO))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
 
@@ -242,64 +308,55 @@ public class ScreeningServiceTest {
     // ==================== SEAT STATUS TESTS ====================
 
     @Test
-    @DisplayName("Should calculate correct seat status with mixed sold and available seats")
+    @DisplayName("Should build the seat map from the room layout, sold seats and live locks")
     void testGetSeatsWithStatus_Success() {
-        Seat seat1 = new Seat();
-        seat1.setId(1L);
-        seat1.setRowNumber(1);
-        seat1.setSeatNumber(1);
-
-        Seat seat2 = new Seat();
-        seat2.setId(2L);
-        seat2.setRowNumber(1);
-        seat2.setSeatNumber(2);
-
-        when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
-        when(seatRepository.findAllByRoomId(1L)).thenReturn(List.of(seat1, seat2));
-        when(ticketRepository.findSoldSeatIdsByScreeningId(1L)).thenReturn(List.of(1L));
-        when(temporaryReservationRepository.findLockedSeatIdsByScreeningId(1L)).thenReturn(List.of());
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        when(roomScheduleService.findRoomId(1L)).thenReturn(Optional.of(4L));
+        when(referenceDataService.getRoomLayout(4L))
+                .thenReturn(new RoomLayout(new int[]{1, 1, 1}, new int[]{1, 2, 3}, new long[]{1L, 2L, 3L}));
+        when(seatRepository.findOccupiedSeatsByScreeningId(1L)).thenReturn(List.of(
+                new OccupiedSeatDTO(1L, true, null, null),
+                new OccupiedSeatDTO(2L, false, 5L, expiresAt)));
 
         List<SeatStatusDTO> result = screeningService.getSeatsWithStatus(1L);
 
         assertThat(result)
                 .isNotNull()
-                .hasSize(2)
-                .extracting("seatId", "isAvailable", "isSold")
-                .containsExactlyInAnyOrder(
-                        tuple(1L, false, true),
-                        tuple(2L, true, false)
+                .hasSize(3)
+                .extracting("seatId", "seatNumber", "isAvailable", "isSold", "userId", "expiresAt")
+                .containsExactly(
+                        tuple(1L, 1, false, true, null, null),
+                        tuple(2L, 2, false, false, 5L, expiresAt),
+                        tuple(3L, 3, true, false, null, null)
                 );
-
-        verify(screeningRepository).findById(1L);
+        verify(screeningRepository, never()).findRoomIdById(anyLong());
     }
 
     @Test
-    @DisplayName("Should correctly identify locked seats with user and expiration info")
-    void testGetSeatsWithStatus_WithLockedSeats() {
-        Seat seat1 = new Seat();
-        seat1.setId(1L);
-        seat1.setRowNumber(1);
-        seat1.setSeatNumber(1);
-
-        SeatUserLockDTO lockDTO = new SeatUserLockDTO();
-        lockDTO.setSeatId(1L);
-        lockDTO.setUserId(5L);
-        lockDTO.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-
-        when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
-        when(seatRepository.findAllByRoomId(1L)).thenReturn(List.of(seat1));
-        when(ticketRepository.findSoldSeatIdsByScreeningId(1L)).thenReturn(List.of());
-        when(temporaryReservationRepository.findLockedSeatIdsByScreeningId(1L)).thenReturn(List.of(lockDTO));
+    @DisplayName("Should show a sold seat as sold even when a stale lock row is left")
+    void testGetSeatsWithStatus_SoldOverStaleLock() {
+        when(roomScheduleService.findRoomId(1L)).thenReturn(Optional.of(4L));
+        when(referenceDataService.getRoomLayout(4L)).thenReturn(new RoomLayout(new int[]{1}, new int[]{1}, new long[]{1L}));
+        when(seatRepository.findOccupiedSeatsByScreeningId(1L)).thenReturn(List.of(
+                new OccupiedSeatDTO(1L, false, 5L, LocalDateTime.now().plusMinutes(5)),
+                new OccupiedSeatDTO(1L, true, null, null)));
 
         List<SeatStatusDTO> result = screeningService.getSeatsWithStatus(1L);
 
         assertThat(result)
-                .isNotNull()
-                .hasSize(1)
-                .extracting("seatId", "isAvailable", "isSold", "userId")
-                .containsExactly(
-                        tuple(1L, false, false, 5L)
-                );
+                .extracting("isAvailable", "isSold", "userId")
+                .containsExactly(tuple(false, true, null));
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException for seat map of unknown screening")
+    void testGetSeatsWithStatus_ScreeningNotFound() {
+        when(roomScheduleService.findRoomId(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> screeningService.getSeatsWithStatus(999L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Screening not found");
+        verifyNoInteractions(referenceDataService, seatRepository);
     }
 
     // ==================== COLLISION DETECTION TESTS ====================
@@ -307,11 +364,11 @@ public class ScreeningServiceTest {
     @Test
     @DisplayName("Should detect overlapping screenings with cleaning duration buffer")
     void testGetCollidingScreenings_Success() {
-        List<Screening> collidingScreenings = List.of(testScreening);
+        List<ScheduledScreeningDTO> collidingScreenings = List.of(scheduled(testScreening));
         LocalDateTime proposedStart = futureDateTime;
         LocalDateTime proposedEnd = futureDateTime.plusMinutes(120);
 
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -334,9 +391,9 @@ public class ScreeningServiceTest {
     @DisplayName("Should organize repertoire by movie with screenings grouped properly")
     void testGetRepertoireForDate_Success() {
         LocalDate testDate = futureDateTime.toLocalDate();
-        List<Screening> screenings = List.of(testScreening);
+        List<RepertoireScreeningDTO> screenings = List.of(repertoireRow(testScreening));
 
-        when(screeningRepository.findAllByStartTimeBetweenOrderByStartTimeAsc(
+        when(screeningRepository.findRepertoireByStartTimeBetween(
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
         )).thenReturn(screenings);
@@ -358,7 +415,7 @@ public class ScreeningServiceTest {
     void testGetRepertoireForDate_NoScreenings_ReturnsEmptyList() {
         LocalDate testDate = futureDateTime.toLocalDate();
 
-        when(screeningRepository.findAllByStartTimeBetweenOrderByStartTimeAsc(
+        when(screeningRepository.findRepertoireByStartTimeBetween(
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
         )).thenReturn(List.of());
@@ -369,6 +426,145 @@ public class ScreeningServiceTest {
                 .isNotNull()
                 .isEmpty();
     }
+    @Test
+    @DisplayName("Should group flat rows by movie and sort movies by title")
+    void testGetRepertoireForDate_GroupsRows() {
+        LocalDate testDate = futureDateTime.toLocalDate();
+        LocalDateTime evening = testDate.atTime(20, 0);
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(
+                new RepertoireScreeningDTO(2L, "Zodiac", MovieGenre.THRILLER, 157, "z.jpg", 10L, evening.minusHours(3), "Room B"),
+                new RepertoireScreeningDTO(1L, "Alien", MovieGenre.HORROR, 117, "a.jpg", 11L, evening.minusHours(2), "Room A"),
+                new RepertoireScreeningDTO(2L, "Zodiac", MovieGenre.THRILLER, 157, "z.jpg", 12L, evening, "Room A")
+        ));
+
+        List<RepertoireMovieDTO> result = screeningService.getRepertoireForDate(testDate);
+
+        assertThat(result).extracting("title").containsExactly("Alien", "Zodiac");
+        assertThat(result.get(1).getScreenings())
+                .extracting("screeningId", "roomName")
+                .containsExactly(tuple(10L, "Room B"), tuple(12L, "Room A"));
+    }
+
+    @Test
+    @DisplayName("Should mark sold out screenings as not bookable")
+    void testGetRepertoireForDate_SeatAvailability() {
+        LocalDate testDate = futureDateTime.toLocalDate();
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+        when(seatStateService.getOccupancy(List.of(1L))).thenReturn(Map.of(1L, SeatOccupancyDTO.builder()
+                .capacity(100)
+                .occupied(100)
+                .freeSeats(0)
+                .availability(SeatAvailability.SOLD_OUT)
+                .build()));
+
+        List<RepertoireMovieDTO> result = screeningService.getRepertoireForDate(testDate);
+
+        ScreeningTimeDTO screening = result.getFirst().getScreenings().getFirst();
+        assertThat(screening.getAvailability()).isEqualTo(SeatAvailability.SOLD_OUT);
+        assertThat(screening.isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read the occupancy of a past day without loading seat maps into memory")
+    void testGetRepertoireForDate_PastDay() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+        when(seatStateService.readOccupancy(List.of(1L))).thenReturn(Map.of(1L, SeatOccupancyDTO.builder()
+                .capacity(100)
+                .occupied(100)
+                .freeSeats(0)
+                .availability(SeatAvailability.SOLD_OUT)
+                .build()));
+
+        List<RepertoireMovieDTO> result = screeningService.getRepertoireForDate(yesterday);
+
+        assertThat(result.getFirst().getScreenings().getFirst().getAvailability()).isEqualTo(SeatAvailability.SOLD_OUT);
+        verify(seatStateService, never()).getOccupancy(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated day from the cache")
+    void testGetRepertoireForDate_CachedDay() {
+        LocalDate testDate = futureDateTime.toLocalDate();
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+
+        screeningService.getRepertoireForDate(testDate);
+        List<RepertoireMovieDTO> result = screeningService.getRepertoireForDate(testDate);
+
+        assertThat(result).extracting("title").containsExactly("Test Movie");
+        assertThat(result.getFirst().getScreenings().getFirst().isAvailable()).isTrue();
+        verify(screeningRepository, times(1)).findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should apply the booking cutoff to a cached day on every request")
+    void testGetRepertoireForDate_CutoffAppliedPerRequest() {
+        testScreening.setStartTime(LocalDateTime.now().plusSeconds(2));
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+        ReflectionTestUtils.setField(screeningService, "repertoireCacheDays", 14);
+
+        List<RepertoireMovieDTO> result = screeningService.getRepertoireForDate(LocalDate.now());
+
+        assertThat(result.getFirst().getScreenings().getFirst().isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reload only the days named by a schedule change")
+    void testGetRepertoireForDate_EvictedBySchedulingChange() {
+        LocalDate testDate = futureDateTime.toLocalDate();
+        LocalDate otherDate = testDate.plusDays(1);
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+
+        screeningService.getRepertoireForDate(testDate);
+        screeningService.getRepertoireForDate(otherDate);
+        screeningService.onScreeningScheduleChanged(new ScreeningScheduleChangedEvent(Set.of(testDate)));
+        screeningService.getRepertoireForDate(testDate);
+        screeningService.getRepertoireForDate(otherDate);
+
+        verify(screeningRepository, times(2)).findRepertoireByStartTimeBetween(
+                eq(testDate.atStartOfDay()), any(LocalDateTime.class));
+        verify(screeningRepository, times(1)).findRepertoireByStartTimeBetween(
+                eq(otherDate.atStartOfDay()), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should reload days showing an edited movie")
+    void testGetRepertoireForDate_EvictedByMovieChange() {
+        LocalDate testDate = futureDateTime.toLocalDate();
+        when(screeningRepository.findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class),
+                any(LocalDateTime.class)
+        )).thenReturn(List.of(repertoireRow(testScreening)));
+
+        screeningService.getRepertoireForDate(testDate);
+        screeningService.onMovieChanged(new MovieChangedEvent(2L));
+        screeningService.getRepertoireForDate(testDate);
+        screeningService.onMovieChanged(new MovieChangedEvent(1L));
+        screeningService.getRepertoireForDate(testDate);
+
+        verify(screeningRepository, times(2)).findRepertoireByStartTimeBetween(
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
 // ==================== UPDATE SCREENING TESTS ====================
 
     @Test
@@ -383,7 +579,7 @@ public class ScreeningServiceTest {
         when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        when(roomScheduleService.hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -392,7 +588,7 @@ public class ScreeningServiceTest {
 
         screeningService.updateScreening(1L, screeningDTO);
 
-        verify(screeningRepository).save(any(Screening.class));
+        verify(screeningRepository).saveAndFlush(any(Screening.class));
         verify(screeningRepository).findById(1L);
     }
 
@@ -411,7 +607,7 @@ public class ScreeningServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("not found");
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -428,7 +624,7 @@ public class ScreeningServiceTest {
         assertThatThrownBy(() -> screeningService.updateScreening(1L, screeningDTO))
                 .isInstanceOf(ScreeningDateInPastException.class);
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -448,7 +644,7 @@ public class ScreeningServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Invalid movie ID: " + screeningDTO.getMovieId());
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -467,7 +663,7 @@ public class ScreeningServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Room Not Found");
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -482,7 +678,7 @@ public class ScreeningServiceTest {
         when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        when(roomScheduleService.hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -493,7 +689,7 @@ public class ScreeningServiceTest {
                 .isInstanceOf(ScreeningOverlapException.class)
                 .hasMessageContaining("overlaps");
 
-        verify(screeningRepository, never()).save(any());
+        verify(screeningRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -518,7 +714,7 @@ public class ScreeningServiceTest {
         when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
         when(movieRepository.findById(2L)).thenReturn(Optional.of(newMovie));
         when(roomRepository.findById(2L)).thenReturn(Optional.of(newRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        when(roomScheduleService.hasOverlap(
                 eq(2L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -527,7 +723,33 @@ public class ScreeningServiceTest {
 
         screeningService.updateScreening(1L, screeningDTO);
 
-        verify(screeningRepository).save(any(Screening.class));
+        verify(screeningRepository).saveAndFlush(any(Screening.class));
+    }
+
+    @Test
+    @DisplayName("Should move a screening between room schedules when its room changes")
+    void testUpdateScreening_RoomChange_UpdatesRoomSchedules() {
+        Room newRoom = new Room();
+        newRoom.setId(2L);
+        newRoom.setName("Room B");
+
+        ScreeningDTO screeningDTO = ScreeningDTO.builder()
+                .movieId(1L)
+                .roomId(2L)
+                .screeningTime(futureDateTime)
+                .build();
+
+        when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        when(roomRepository.findById(2L)).thenReturn(Optional.of(newRoom));
+        when(roomScheduleService.hasOverlap(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq(1L)))
+                .thenReturn(false);
+
+        screeningService.updateScreening(1L, screeningDTO);
+
+        verify(roomScheduleService).removeAfterCommit(1L, 1L);
+        verify(roomScheduleService).putAfterCommit(argThat(screening ->
+                screening.getScreeningId().equals(1L) && screening.getRoomId().equals(2L)));
     }
 
     @Test
@@ -542,7 +764,7 @@ public class ScreeningServiceTest {
         when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
-        when(screeningRepository.existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        when(roomScheduleService.hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -551,8 +773,8 @@ public class ScreeningServiceTest {
 
         screeningService.updateScreening(1L, screeningDTO);
 
-        verify(screeningRepository).save(any(Screening.class));
-        verify(screeningRepository).existsByRoomIdAndStartTimeBeforeAndEndTimeAfterAndIdNot(
+        verify(screeningRepository).saveAndFlush(any(Screening.class));
+        verify(roomScheduleService).hasOverlap(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -570,6 +792,17 @@ public class ScreeningServiceTest {
 
         verify(screeningRepository).findById(1L);
         verify(screeningRepository).delete(testScreening);
+        verify(seatStateService).evictAfterCommit(1L);
+    }
+
+    @Test
+    @DisplayName("Should remove a deleted screening from the room schedule")
+    void testDeleteScreening_UpdatesRoomSchedule() {
+        when(screeningRepository.findById(1L)).thenReturn(Optional.of(testScreening));
+
+        screeningService.deleteScreening(1L);
+
+        verify(roomScheduleService).removeAfterCommit(1L, 1L);
     }
 
     @Test
@@ -627,10 +860,10 @@ public class ScreeningServiceTest {
     @Test
     @DisplayName("Should find colliding screenings for movie in given room and time")
     void testGetCollidingScreeningsByMovie_Success() {
-        List<Screening> collidingScreenings = List.of(testScreening);
+        List<ScheduledScreeningDTO> collidingScreenings = List.of(scheduled(testScreening));
 
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -658,7 +891,7 @@ public class ScreeningServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Movie not found");
 
-        verify(screeningRepository, never()).findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        verify(roomScheduleService, never()).findOverlapping(
                 anyLong(),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -669,7 +902,7 @@ public class ScreeningServiceTest {
     @DisplayName("Should return empty list when no colliding screenings exist")
     void testGetCollidingScreeningsByMovie_NoCollisions_ReturnsEmptyList() {
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -694,7 +927,7 @@ public class ScreeningServiceTest {
         movieWith150Minutes.setGenre(MovieGenre.DRAMA);
 
         when(movieRepository.findById(2L)).thenReturn(Optional.of(movieWith150Minutes));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -702,10 +935,10 @@ public class ScreeningServiceTest {
 
         screeningService.getCollidingScreeningsByMovie(1L, 2L, futureDateTime);
 
-        verify(screeningRepository).findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        verify(roomScheduleService).findOverlapping(
                 eq(1L),
-                argThat(endTime -> endTime.isEqual(futureDateTime.plusMinutes(150))),
-                any(LocalDateTime.class)
+                any(LocalDateTime.class),
+                argThat(endTime -> endTime.isEqual(futureDateTime.plusMinutes(150)))
         );
     }
 
@@ -719,10 +952,10 @@ public class ScreeningServiceTest {
         anotherScreening.setStartTime(futureDateTime.plusMinutes(150));
         anotherScreening.setEndTime(futureDateTime.plusMinutes(270));
 
-        List<Screening> collidingScreenings = List.of(testScreening, anotherScreening);
+        List<ScheduledScreeningDTO> collidingScreenings = List.of(scheduled(testScreening), scheduled(anotherScreening));
 
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -741,11 +974,11 @@ public class ScreeningServiceTest {
     @DisplayName("Should include collision end times in result")
     void testGetCollidingScreeningsByMovie_IncludesEndTimes() {
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(1L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
-        )).thenReturn(List.of(testScreening));
+        )).thenReturn(List.of(scheduled(testScreening)));
 
         List<CollisionDTO> result = screeningService.getCollidingScreeningsByMovie(1L, 1L, futureDateTime);
 
@@ -760,7 +993,7 @@ public class ScreeningServiceTest {
     @DisplayName("Should work correctly for different rooms")
     void testGetCollidingScreeningsByMovie_DifferentRooms() {
         when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
-        when(screeningRepository.findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        when(roomScheduleService.findOverlapping(
                 eq(2L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
@@ -770,11 +1003,22 @@ public class ScreeningServiceTest {
 
         assertThat(result).isEmpty();
 
-        verify(screeningRepository).findByRoomIdAndStartTimeBeforeAndEndTimeAfter(
+        verify(roomScheduleService).findOverlapping(
                 eq(2L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
         );
     }
 
-}
\ No newline at end of file
+
+    private ScheduledScreeningDTO scheduled(Screening screening) {
+        return new ScheduledScreeningDTO(screening.getId(), screening.getRoom().getId(), screening.getStartTime(),
+                screening.getEndTime(), screening.getMovie().getTitle(), screening.getRoom().getName());
+    }
+
+    private RepertoireScreeningDTO repertoireRow(Screening screening) {
+        Movie movie = screening.getMovie();
+        return new RepertoireScreeningDTO(movie.getId(), movie.getTitle(), movie.getGenre(), movie.getDurationInMinutes(),
+                movie.getPosterFileName(), screening.getId(), screening.getStartTime(), screening.getRoom().getName());
+    }
+}
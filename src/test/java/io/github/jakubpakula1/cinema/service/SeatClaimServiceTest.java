@@ -0,0 +1,227 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dao.SeatClaimDAO;
+import io.github.jakubpakula1.cinema.enums.SeatClaimMode;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
+import io.github.jakubpakula1.cinema.model.Screening;
+import io.github.jakubpakula1.cinema.model.Seat;
+import io.github.jakubpakula1.cinema.model.TemporaryReservation;
+import io.github.jakubpakula1.cinema.model.User;
+import io.github.jakubpakula1.cinema.repository.ScreeningRepository;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.TicketRepository;
+import io.github.jakubpakula1.cinema.service.SeatClaimService.SeatClaim;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeatClaimService Unit Tests")
+class SeatClaimServiceTest {
+
+    @Mock
+    private SeatStateService seatStateService;
+
+    @Mock
+    private SeatClaimDAO seatClaimDAO;
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private TemporaryReservationRepository temporaryReservationRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private SeatClaimService seatClaimService;
+
+    private final LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+    private User user;
+    private Screening screening;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        screening = new Screening();
+        screening.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should claim through the seat map and write the reservations")
+    void testClaim_Bitmap() {
+        // given
+        when(seatStateService.tryLockAll(1L, List.of(1L, 2L))).thenReturn(statuses(SeatLockStatus.LOCKED, SeatLockStatus.LOCKED));
+        when(seatClaimDAO.insertReservations(1L, List.of(1L, 2L), 7L, expiresAt)).thenReturn(Map.of(1L, 11L, 2L, 12L));
+        stubReferences();
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(1L, 2L, 1L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isTrue();
+        assertThat(claim.reservations())
+                .extracting(reservation -> reservation.getSeat().getId(), TemporaryReservation::getId, TemporaryReservation::getUser, TemporaryReservation::getExpiresAt)
+                .containsExactly(tuple(1L, 11L, user, expiresAt), tuple(2L, 12L, user, expiresAt));
+        verify(seatStateService).releaseOnRollback(1L, 1L);
+        verify(seatStateService).releaseOnRollback(1L, 2L);
+        verify(seatStateService, never()).markLockedAfterCommit(anyLong(), anyLong());
+        verify(seatClaimDAO, never()).insertClaims(anyLong(), anyCollection(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the seat map rejects a seat")
+    void testClaim_BitmapConflict() {
+        // given
+        when(seatStateService.tryLockAll(1L, List.of(1L, 2L))).thenReturn(statuses(SeatLockStatus.AVAILABLE, SeatLockStatus.TAKEN));
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(1L, 2L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isFalse();
+        assertThat(claim.statuses()).containsExactly(entry(1L, SeatLockStatus.AVAILABLE), entry(2L, SeatLockStatus.TAKEN));
+        verifyNoInteractions(seatClaimDAO);
+        verify(seatStateService, never()).releaseOnRollback(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report a seat claimed through another instance as reserved")
+    void testClaim_BitmapUniqueViolation() {
+        // given
+        when(seatStateService.tryLockAll(1L, List.of(1L, 2L))).thenReturn(statuses(SeatLockStatus.LOCKED, SeatLockStatus.LOCKED));
+        when(seatClaimDAO.insertReservations(1L, List.of(1L, 2L), 7L, expiresAt)).thenThrow(new DuplicateKeyException("duplicate key"));
+
+        // when & then
+        assertThatThrownBy(() -> seatClaimService.claim(1L, List.of(1L, 2L), user, expiresAt))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Seat is already reserved");
+        verify(seatStateService).releaseOnRollback(1L, 1L);
+        verify(seatStateService).releaseOnRollback(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should claim through the unique key and mirror the claim after commit")
+    void testClaim_Constraint() {
+        // given
+        ReflectionTestUtils.setField(seatClaimService, "claimMode", SeatClaimMode.CONSTRAINT);
+        when(seatClaimDAO.insertClaims(1L, List.of(1L, 2L), 7L, expiresAt)).thenReturn(Map.of(1L, 11L, 2L, 12L));
+        stubReferences();
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(1L, 2L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isTrue();
+        assertThat(claim.statuses()).containsOnly(entry(1L, SeatLockStatus.LOCKED), entry(2L, SeatLockStatus.LOCKED));
+        assertThat(claim.reservations())
+                .extracting(reservation -> reservation.getSeat().getId(), TemporaryReservation::getId)
+                .containsExactly(tuple(1L, 11L), tuple(2L, 12L));
+        verify(seatStateService).markLockedAfterCommit(1L, 1L);
+        verify(seatStateService).markLockedAfterCommit(1L, 2L);
+        verify(seatStateService, never()).tryLockAll(anyLong(), anyCollection());
+        verify(seatClaimDAO, never()).insertReservations(anyLong(), anyCollection(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should undo a partial unique key claim and tell taken seats from unknown ones")
+    void testClaim_ConstraintConflict() {
+        // given
+        ReflectionTestUtils.setField(seatClaimService, "claimMode", SeatClaimMode.CONSTRAINT);
+        when(seatClaimDAO.insertClaims(1L, List.of(1L, 2L, 500L), 7L, expiresAt)).thenReturn(Map.of(1L, 11L));
+        when(seatRepository.findSeatIdsByScreeningId(1L)).thenReturn(List.of(1L, 2L, 3L));
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(1L, 2L, 500L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isFalse();
+        assertThat(claim.statuses()).containsExactly(
+                entry(1L, SeatLockStatus.AVAILABLE), entry(2L, SeatLockStatus.TAKEN), entry(500L, SeatLockStatus.NOT_FOUND));
+        verify(temporaryReservationRepository).deleteAllByIdInBatch(argThat(ids -> ids.iterator().next().equals(11L)));
+        verify(seatStateService, never()).markLockedAfterCommit(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should claim under seat row locks and check reservations and tickets")
+    void testClaim_Pessimistic() {
+        // given
+        ReflectionTestUtils.setField(seatClaimService, "claimMode", SeatClaimMode.PESSIMISTIC);
+        when(seatRepository.findSeatIdsByScreeningId(1L)).thenReturn(List.of(1L, 2L, 3L));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(1L)).thenReturn(List.of(3L));
+        when(ticketRepository.findSoldSeatIdsByScreeningId(1L)).thenReturn(List.of());
+        when(seatClaimDAO.insertReservations(1L, List.of(2L, 1L), 7L, expiresAt)).thenReturn(Map.of(2L, 12L, 1L, 11L));
+        stubReferences();
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(2L, 1L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isTrue();
+        assertThat(claim.reservations())
+                .extracting(reservation -> reservation.getSeat().getId(), TemporaryReservation::getId)
+                .containsExactly(tuple(2L, 12L), tuple(1L, 11L));
+        InOrder inOrder = inOrder(seatRepository, seatClaimDAO);
+        inOrder.verify(seatRepository).findAllWithLockByIds(List.of(2L, 1L));
+        inOrder.verify(seatClaimDAO).insertReservations(1L, List.of(2L, 1L), 7L, expiresAt);
+        verify(seatStateService).markLockedAfterCommit(1L, 1L);
+        verify(seatStateService).markLockedAfterCommit(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should write nothing under seat row locks when a seat is sold")
+    void testClaim_PessimisticConflict() {
+        // given
+        ReflectionTestUtils.setField(seatClaimService, "claimMode", SeatClaimMode.PESSIMISTIC);
+        when(seatRepository.findSeatIdsByScreeningId(1L)).thenReturn(List.of(1L, 2L, 3L));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(1L)).thenReturn(List.of());
+        when(ticketRepository.findSoldSeatIdsByScreeningId(1L)).thenReturn(List.of(2L));
+
+        // when
+        SeatClaim claim = seatClaimService.claim(1L, List.of(1L, 2L), user, expiresAt);
+
+        // then
+        assertThat(claim.locked()).isFalse();
+        assertThat(claim.statuses()).containsExactly(entry(1L, SeatLockStatus.AVAILABLE), entry(2L, SeatLockStatus.TAKEN));
+        verifyNoInteractions(seatClaimDAO);
+        verify(seatStateService, never()).markLockedAfterCommit(anyLong(), anyLong());
+    }
+
+    private void stubReferences() {
+        when(screeningRepository.getReferenceById(1L)).thenReturn(screening);
+        when(seatRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Seat seat = new Seat();
+            seat.setId(invocation.getArgument(0));
+            return seat;
+        });
+    }
+
+    private Map<Long, SeatLockStatus> statuses(SeatLockStatus first, SeatLockStatus second) {
+        Map<Long, SeatLockStatus> statuses = new LinkedHashMap<>();
+        statuses.put(1L, first);
+        statuses.put(2L, second);
+        return statuses;
+    }
+}
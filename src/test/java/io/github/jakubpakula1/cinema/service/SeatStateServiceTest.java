@@ -0,0 +1,452 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatOccupancyDTO;
+import io.github.jakubpakula1.cinema.enums.SeatAvailability;
+import io.github.jakubpakula1.cinema.enums.SeatLockStatus;
+import io.github.jakubpakula1.cinema.enums.SeatState;
+import io.github.jakubpakula1.cinema.event.ReservationsExpiredEvent;
+import io.github.jakubpakula1.cinema.event.SeatMapChangedEvent;
+import io.github.jakubpakula1.cinema.exception.ResourceNotFoundException;
+import io.github.jakubpakula1.cinema.repository.SeatRepository;
+import io.github.jakubpakula1.cinema.repository.TemporaryReservationRepository;
+import io.github.jakubpakula1.cinema.repository.TicketRepository;
+import io.github.jakubpakula1.cinema.repository.projection.ScreeningSeatIdDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeatStateService Unit Tests")
+class SeatStateServiceTest {
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TemporaryReservationRepository temporaryReservationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SeatStateService seatStateService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(seatRepository.findSeatIdsByScreeningId(1L))
+                .thenReturn(LongStream.rangeClosed(1, 100).boxed().toList());
+        lenient().when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(1L)).thenReturn(List.of(10L));
+        lenient().when(ticketRepository.findSoldSeatIdsByScreeningId(1L)).thenReturn(List.of(20L));
+    }
+
+    @Test
+    @DisplayName("Should lock a free seat only once")
+    void testTryLock_FreeSeat() {
+        assertThat(seatStateService.tryLock(1L, 5L)).isTrue();
+        assertThat(seatStateService.tryLock(1L, 5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject seats that are reserved or sold in the database")
+    void testTryLock_LoadedState() {
+        assertThat(seatStateService.tryLock(1L, 10L)).isFalse();
+        assertThat(seatStateService.tryLock(1L, 20L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report the bitmap position only for sold seats")
+    void testSoldSeatIndex() {
+        assertThat(seatStateService.soldSeatIndex(1L, 20L)).isEqualTo(19);
+        assertThat(seatStateService.soldSeatIndex(1L, 10L)).isEqualTo(-1);
+        assertThat(seatStateService.soldSeatIndex(1L, 5L)).isEqualTo(-1);
+        assertThat(seatStateService.soldSeatIndex(1L, 500L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should load the bitmap only once per screening")
+    void testTryLock_LoadsLazilyOnce() {
+        seatStateService.tryLock(1L, 1L);
+        seatStateService.tryLock(1L, 2L);
+        seatStateService.tryLock(1L, 3L);
+
+        verify(seatRepository, times(1)).findSeatIdsByScreeningId(1L);
+        verify(ticketRepository, times(1)).findSoldSeatIdsByScreeningId(1L);
+        verify(temporaryReservationRepository, times(1)).findReservedSeatIdsByScreeningId(1L);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException for seat outside the room")
+    void testTryLock_UnknownSeat() {
+        assertThatThrownBy(() -> seatStateService.tryLock(1L, 500L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Seat not found");
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException for unknown screening")
+    void testTryLock_UnknownScreening() {
+        when(seatRepository.findSeatIdsByScreeningId(99L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> seatStateService.tryLock(99L, 1L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Screening not found");
+    }
+
+    @Test
+    @DisplayName("Should lock every seat of a conflict-free batch")
+    void testTryLockAll_Success() {
+        Map<Long, SeatLockStatus> result = seatStateService.tryLockAll(1L, List.of(1L, 2L, 3L));
+
+        assertThat(result).containsExactly(
+                entry(1L, SeatLockStatus.LOCKED),
+                entry(2L, SeatLockStatus.LOCKED),
+                entry(3L, SeatLockStatus.LOCKED));
+        assertThat(seatStateService.tryLock(1L, 2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should hand back claimed seats when any seat of the batch conflicts")
+    void testTryLockAll_Conflict() {
+        Map<Long, SeatLockStatus> result = seatStateService.tryLockAll(1L, List.of(1L, 10L, 2L, 500L));
+
+        assertThat(result).containsExactly(
+                entry(1L, SeatLockStatus.AVAILABLE),
+                entry(10L, SeatLockStatus.TAKEN),
+                entry(2L, SeatLockStatus.AVAILABLE),
+                entry(500L, SeatLockStatus.NOT_FOUND));
+        assertThat(seatStateService.tryLock(1L, 1L)).isTrue();
+        assertThat(seatStateService.tryLock(1L, 2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should publish a seat map change only when a seat actually changes")
+    void testPublishesSeatMapChanges() {
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.release(1L, 5L);
+        seatStateService.release(1L, 5L);
+        seatStateService.markSold(1L, 20L);
+
+        verify(eventPublisher, times(2)).publishEvent(new SeatMapChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Should return the full seat map for a client without a version")
+    void testGetChangesSince_FullMap() {
+        SeatMapDeltaDTO delta = seatStateService.getChangesSince(1L, null);
+
+        assertThat(delta.isFull()).isTrue();
+        assertThat(delta.getSeats()).hasSize(100);
+        assertThat(delta.getSeats())
+                .filteredOn(seat -> seat.getState() != SeatState.FREE)
+                .extracting("seatId", "state")
+                .containsExactly(tuple(10L, SeatState.LOCKED), tuple(20L, SeatState.SOLD));
+    }
+
+    @Test
+    @DisplayName("Should return only seats changed after the client version")
+    void testGetChangesSince_Delta() {
+        long version = seatStateService.getVersion(1L);
+
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.release(1L, 10L);
+        seatStateService.tryLock(1L, 20L);
+        SeatMapDeltaDTO delta = seatStateService.getChangesSince(1L, version);
+
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getVersion()).isGreaterThan(version);
+        assertThat(delta.getSeats())
+                .extracting("seatId", "state")
+                .containsExactly(tuple(5L, SeatState.LOCKED), tuple(10L, SeatState.FREE));
+
+        assertThat(seatStateService.getChangesSince(1L, delta.getVersion()).getSeats()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the full map when the bitmap was reloaded")
+    void testGetChangesSince_AfterEviction() {
+        seatStateService.tryLock(1L, 5L);
+        long version = seatStateService.getVersion(1L);
+
+        seatStateService.evict(1L);
+        SeatMapDeltaDTO delta = seatStateService.getChangesSince(1L, version);
+
+        assertThat(delta.isFull()).isTrue();
+        assertThat(delta.getSeats()).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("Should free a released seat but never a sold one")
+    void testReleaseAndMarkSold() {
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.release(1L, 5L);
+        assertThat(seatStateService.tryLock(1L, 5L)).isTrue();
+
+        seatStateService.markSold(1L, 5L);
+        seatStateService.release(1L, 5L);
+        assertThat(seatStateService.tryLock(1L, 5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not drop a release that commits while the bitmap is loading")
+    void testRelease_DuringLoad() {
+        // given: seat 10 is read as reserved, then its reservation is released before the load finishes
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(1L))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of());
+        when(ticketRepository.findSoldSeatIdsByScreeningId(1L))
+                .thenAnswer(invocation -> {
+                    seatStateService.release(1L, 10L);
+                    return List.of(20L);
+                })
+                .thenReturn(List.of(20L));
+
+        // when
+        boolean locked = seatStateService.tryLock(1L, 10L);
+
+        // then
+        assertThat(locked).isTrue();
+        verify(temporaryReservationRepository, times(2)).findReservedSeatIdsByScreeningId(1L);
+    }
+
+    @Test
+    @DisplayName("Should not drop a sale that commits while the bitmap is loading")
+    void testMarkSold_DuringLoad() {
+        // given: seat 5 is read as free, then sold before the load finishes
+        when(ticketRepository.findSoldSeatIdsByScreeningId(1L))
+                .thenAnswer(invocation -> {
+                    seatStateService.markSold(1L, 5L);
+                    return List.of(20L);
+                })
+                .thenReturn(List.of(5L, 20L));
+
+        // when
+        int soldIndex = seatStateService.soldSeatIndex(1L, 5L);
+
+        // then
+        assertThat(soldIndex).isEqualTo(4);
+        assertThat(seatStateService.tryLock(1L, 5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reload a preloaded bitmap that missed a concurrent release")
+    void testOccupancy_ReleaseDuringPreload() {
+        // given
+        when(seatRepository.findSeatIdsByScreeningIds(List.of(2L))).thenReturn(List.of(
+                new ScreeningSeatIdDTO(2L, 201L), new ScreeningSeatIdDTO(2L, 202L)));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningIds(List.of(2L)))
+                .thenReturn(List.of(new ScreeningSeatIdDTO(2L, 201L)));
+        when(ticketRepository.findSoldSeatIdsByScreeningIds(List.of(2L)))
+                .thenAnswer(invocation -> {
+                    seatStateService.release(2L, 201L);
+                    return List.of();
+                });
+        when(seatRepository.findSeatIdsByScreeningId(2L)).thenReturn(List.of(201L, 202L));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(2L)).thenReturn(List.of());
+        when(ticketRepository.findSoldSeatIdsByScreeningId(2L)).thenReturn(List.of());
+
+        // when
+        Map<Long, SeatOccupancyDTO> occupancy = seatStateService.getOccupancy(List.of(2L));
+
+        // then
+        assertThat(occupancy.get(2L).getFreeSeats()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should mirror a claim made in the database only into loaded seat maps")
+    void testMarkLocked() {
+        seatStateService.tryLock(1L, 1L);
+
+        seatStateService.markLocked(1L, 5L);
+        seatStateService.markLocked(2L, 5L);
+
+        assertThat(seatStateService.tryLock(1L, 5L)).isFalse();
+        verify(seatRepository, never()).findSeatIdsByScreeningId(2L);
+    }
+
+    @Test
+    @DisplayName("Should free the seats of expired reservations")
+    void testOnReservationsExpired() {
+        // seat 10 is loaded as reserved
+        seatStateService.tryLockAll(1L, List.of(5L, 6L));
+
+        seatStateService.onReservationsExpired(new ReservationsExpiredEvent(1L, List.of(5L, 10L)));
+
+        assertThat(seatStateService.tryLock(1L, 5L)).isTrue();
+        assertThat(seatStateService.tryLock(1L, 10L)).isTrue();
+        assertThat(seatStateService.tryLock(1L, 6L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the occupancy count in step with locks, releases and sales")
+    void testOccupancy() {
+        // loaded with one reserved and one sold seat
+        assertThat(seatStateService.getOccupancy(1L).getOccupied()).isEqualTo(2);
+
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.tryLockAll(1L, List.of(6L, 7L));
+        seatStateService.release(1L, 6L);
+        seatStateService.markSold(1L, 5L);
+        seatStateService.markSold(1L, 20L);
+
+        SeatOccupancyDTO occupancy = seatStateService.getOccupancy(1L);
+        assertThat(occupancy.getCapacity()).isEqualTo(100);
+        assertThat(occupancy.getOccupied()).isEqualTo(4);
+        assertThat(occupancy.getFreeSeats()).isEqualTo(96);
+        assertThat(occupancy.getAvailability()).isEqualTo(SeatAvailability.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Should report few seats left and sold out")
+    void testOccupancy_Availability() {
+        for (long seatId = 1; seatId <= 100; seatId++) {
+            if (seatId > 5) {
+                seatStateService.tryLock(1L, seatId);
+            }
+        }
+        assertThat(seatStateService.getOccupancy(1L).getAvailability()).isEqualTo(SeatAvailability.FEW_SEATS_LEFT);
+
+        seatStateService.tryLockAll(1L, List.of(1L, 2L, 3L, 4L, 5L));
+        assertThat(seatStateService.getOccupancy(1L).getAvailability()).isEqualTo(SeatAvailability.SOLD_OUT);
+    }
+
+    @Test
+    @DisplayName("Should preload missing bitmaps of many screenings with three queries")
+    void testOccupancy_BulkPreload() {
+        // given
+        seatStateService.tryLock(1L, 5L);
+        when(seatRepository.findSeatIdsByScreeningIds(List.of(2L, 3L, 4L))).thenReturn(List.of(
+                new ScreeningSeatIdDTO(2L, 201L), new ScreeningSeatIdDTO(2L, 202L), new ScreeningSeatIdDTO(3L, 301L)));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningIds(List.of(2L, 3L, 4L)))
+                .thenReturn(List.of(new ScreeningSeatIdDTO(2L, 201L)));
+        when(ticketRepository.findSoldSeatIdsByScreeningIds(List.of(2L, 3L, 4L)))
+                .thenReturn(List.of(new ScreeningSeatIdDTO(3L, 301L)));
+
+        // when
+        Map<Long, SeatOccupancyDTO> occupancy = seatStateService.getOccupancy(List.of(1L, 2L, 3L, 4L));
+
+        // then
+        assertThat(occupancy).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(occupancy.get(1L).getOccupied()).isEqualTo(3);
+        assertThat(occupancy.get(2L).getFreeSeats()).isEqualTo(1);
+        assertThat(occupancy.get(3L).getAvailability()).isEqualTo(SeatAvailability.SOLD_OUT);
+        assertThat(seatStateService.tryLock(2L, 202L)).isTrue();
+        verify(seatRepository, never()).findSeatIdsByScreeningId(2L);
+    }
+
+    @Test
+    @DisplayName("Should reload state from the database after eviction")
+    void testEvict() {
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.evict(1L);
+
+        assertThat(seatStateService.tryLock(1L, 5L)).isTrue();
+        verify(seatRepository, times(2)).findSeatIdsByScreeningId(1L);
+    }
+
+    @Test
+    @DisplayName("Should read the occupancy of past screenings without keeping their bitmaps")
+    void testReadOccupancy() {
+        // given
+        seatStateService.tryLock(1L, 5L);
+        when(seatRepository.findSeatIdsByScreeningIds(List.of(2L))).thenReturn(List.of(
+                new ScreeningSeatIdDTO(2L, 201L), new ScreeningSeatIdDTO(2L, 202L)));
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningIds(List.of(2L))).thenReturn(List.of());
+        when(ticketRepository.findSoldSeatIdsByScreeningIds(List.of(2L)))
+                .thenReturn(List.of(new ScreeningSeatIdDTO(2L, 201L)));
+
+        // when
+        Map<Long, SeatOccupancyDTO> occupancy = seatStateService.readOccupancy(List.of(1L, 2L));
+
+        // then
+        assertThat(occupancy.get(1L).getOccupied()).isEqualTo(3);
+        assertThat(occupancy.get(2L).getFreeSeats()).isEqualTo(1);
+        assertThat(seatStateService.cachedScreeningIds()).containsOnly(1L);
+    }
+
+    @Test
+    @DisplayName("Should drop the bitmaps and epochs of evicted screenings")
+    void testEvictScreenings() {
+        // given
+        seatStateService.tryLock(1L, 5L);
+        seatStateService.release(2L, 5L);
+
+        // when
+        seatStateService.evictScreenings(List.of(1L, 2L));
+
+        // then
+        assertThat(seatStateService.cachedScreeningIds()).isEmpty();
+        assertThat(seatStateService.tryLock(1L, 5L)).isTrue();
+        verify(seatRepository, times(2)).findSeatIdsByScreeningId(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload a bitmap whose epoch was evicted while it was loading")
+    void testEvictScreenings_DuringLoad() {
+        // given: seat 10 is read as reserved, then released and the screening evicted before the load finishes
+        when(temporaryReservationRepository.findReservedSeatIdsByScreeningId(1L))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of());
+        when(ticketRepository.findSoldSeatIdsByScreeningId(1L))
+                .thenAnswer(invocation -> {
+                    seatStateService.release(1L, 10L);
+                    seatStateService.evictScreenings(List.of(1L));
+                    return List.of(20L);
+                })
+                .thenReturn(List.of(20L));
+
+        // when
+        boolean locked = seatStateService.tryLock(1L, 10L);
+
+        // then
+        assertThat(locked).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grant each seat to exactly one of many concurrent claimers")
+    void testTryLock_Concurrent() throws Exception {
+        int threads = 16;
+        AtomicInteger claimed = new AtomicInteger();
+        seatStateService.tryLock(1L, 1L);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long seatId = 30; seatId <= 100; seatId++) {
+                    if (seatStateService.tryLock(1L, seatId)) {
+                        claimed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(claimed.get()).isEqualTo(71);
+    }
+}
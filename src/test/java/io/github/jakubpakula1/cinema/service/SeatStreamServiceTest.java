@@ -0,0 +1,90 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.seat.SeatChangeDTO;
+import io.github.jakubpakula1.cinema.dto.seat.SeatMapDeltaDTO;
+import io.github.jakubpakula1.cinema.enums.SeatState;
+import io.github.jakubpakula1.cinema.event.SeatMapChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeatStreamService Unit Tests")
+class SeatStreamServiceTest {
+
+    @Mock
+    private SeatStateService seatStateService;
+
+    @InjectMocks
+    private SeatStreamService seatStreamService;
+
+    @AfterEach
+    void tearDown() {
+        seatStreamService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send the initial delta to a new subscriber")
+    void testSubscribe_SendsInitialDelta() {
+        // given
+        when(seatStateService.getVersion(1L)).thenReturn(10L);
+        when(seatStateService.getChangesSince(1L, 5L)).thenReturn(delta(10L, 3L));
+
+        // when
+        SseEmitter emitter = seatStreamService.subscribe(1L, 5L);
+
+        // then
+        assertThat(emitter).isNotNull();
+        verify(seatStateService).getChangesSince(1L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should build one delta per change and advance the channel version")
+    void testOnSeatMapChanged_BroadcastsFromLastVersion() {
+        // given
+        when(seatStateService.getVersion(1L)).thenReturn(10L);
+        when(seatStateService.getChangesSince(1L, null)).thenReturn(delta(10L, 3L));
+        when(seatStateService.getChangesSince(1L, 10L)).thenReturn(delta(11L, 4L));
+        when(seatStateService.getChangesSince(1L, 11L)).thenReturn(delta(12L, 5L));
+        seatStreamService.subscribe(1L, null);
+        seatStreamService.subscribe(1L, null);
+
+        // when
+        seatStreamService.onSeatMapChanged(new SeatMapChangedEvent(1L));
+        verify(seatStateService, timeout(1000)).getChangesSince(1L, 10L);
+        seatStreamService.onSeatMapChanged(new SeatMapChangedEvent(1L));
+
+        // then
+        verify(seatStateService, timeout(1000)).getChangesSince(1L, 11L);
+        verify(seatStateService, times(1)).getVersion(1L);
+    }
+
+    @Test
+    @DisplayName("Should ignore changes of screenings nobody watches")
+    void testOnSeatMapChanged_NoSubscribers() {
+        // when
+        seatStreamService.onSeatMapChanged(new SeatMapChangedEvent(1L));
+
+        // then
+        verifyNoInteractions(seatStateService);
+    }
+
+    private SeatMapDeltaDTO delta(long version, long seatId) {
+        return SeatMapDeltaDTO.builder()
+                .screeningId(1L)
+                .version(version)
+                .full(false)
+                .seats(List.of(SeatChangeDTO.builder().seatId(seatId).state(SeatState.LOCKED).build()))
+                .build();
+    }
+}
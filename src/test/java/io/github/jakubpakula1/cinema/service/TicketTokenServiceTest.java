@@ -0,0 +1,93 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.model.Screening;
+import io.github.jakubpakula1.cinema.model.Seat;
+import io.github.jakubpakula1.cinema.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TicketTokenService Unit Tests")
+class TicketTokenServiceTest {
+
+    private TicketTokenService ticketTokenService;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        ticketTokenService = tokenService("test-secret");
+
+        Screening screening = new Screening();
+        screening.setId(42L);
+        Seat seat = new Seat();
+        seat.setId(1234L);
+
+        ticket = new Ticket();
+        ticket.setId(987654321L);
+        ticket.setScreening(screening);
+        ticket.setSeat(seat);
+    }
+
+    @Test
+    @DisplayName("Should read back the ids of an issued token")
+    void shouldVerifyIssuedToken() {
+        // when
+        String token = ticketTokenService.issue(ticket);
+
+        // then
+        assertThat(token).matches("[0-9A-Z $%*+\\-./:]+").hasSizeLessThan(50);
+        assertThat(ticketTokenService.verify(token))
+                .contains(new TicketTokenService.TicketToken(987654321L, 42L, 1234L));
+    }
+
+    @Test
+    @DisplayName("Should reject a token with a modified payload")
+    void shouldRejectTamperedToken() {
+        // given
+        String token = ticketTokenService.issue(ticket);
+        char replacement = token.charAt(4) == '0' ? '1' : '0';
+        String tampered = token.substring(0, 4) + replacement + token.substring(5);
+
+        // when / then
+        assertThat(ticketTokenService.verify(tampered)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with another secret")
+    void shouldRejectForeignToken() {
+        // given
+        String token = tokenService("other-secret").issue(ticket);
+
+        // when / then
+        assertThat(ticketTokenService.verify(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void shouldRejectMalformedToken() {
+        assertThat(ticketTokenService.verify("CINEMA_TICKET|Movie:Test")).isEmpty();
+        assertThat(ticketTokenService.verify("")).isEmpty();
+        assertThat(ticketTokenService.verify("AB")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a signing secret")
+    void shouldRequireSecret() {
+        assertThatThrownBy(() -> tokenService(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TICKET_TOKEN_SECRET");
+        assertThatThrownBy(() -> tokenService("  "))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private TicketTokenService tokenService(String secret) {
+        TicketTokenService service = new TicketTokenService();
+        ReflectionTestUtils.setField(service, "tokenSecret", secret);
+        service.init();
+        return service;
+    }
+}
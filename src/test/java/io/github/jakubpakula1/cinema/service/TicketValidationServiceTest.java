@@ -0,0 +1,108 @@
+package io.github.jakubpakula1.cinema.service;
+
+import io.github.jakubpakula1.cinema.dto.ticket.TicketValidationResponseDTO;
+import io.github.jakubpakula1.cinema.enums.TicketValidationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketValidationService Unit Tests")
+class TicketValidationServiceTest {
+
+    @Mock
+    private TicketTokenService ticketTokenService;
+
+    @Mock
+    private SeatStateService seatStateService;
+
+    @InjectMocks
+    private TicketValidationService ticketValidationService;
+
+    private final TicketTokenService.TicketToken token = new TicketTokenService.TicketToken(1L, 7L, 3L);
+
+    @Test
+    @DisplayName("Should admit a ticket once and report the second scan")
+    void shouldRejectSecondScan() {
+        // given
+        when(ticketTokenService.verify("TOKEN")).thenReturn(Optional.of(token));
+        when(seatStateService.soldSeatIndex(7L, 3L)).thenReturn(2);
+
+        // when
+        TicketValidationResponseDTO first = ticketValidationService.validate("TOKEN", 7L);
+        TicketValidationResponseDTO second = ticketValidationService.validate("TOKEN", 7L);
+
+        // then
+        assertThat(first.getStatus()).isEqualTo(TicketValidationStatus.VALID);
+        assertThat(first.getSeatId()).isEqualTo(3L);
+        assertThat(second.getStatus()).isEqualTo(TicketValidationStatus.ALREADY_SCANNED);
+    }
+
+    @Test
+    @DisplayName("Should forget the scans of an evicted screening")
+    void shouldForgetScansOfEvictedScreening() {
+        // given
+        when(ticketTokenService.verify("TOKEN")).thenReturn(Optional.of(token));
+        when(seatStateService.soldSeatIndex(7L, 3L)).thenReturn(2);
+        ticketValidationService.validate("TOKEN", 7L);
+
+        // when
+        ticketValidationService.evictScreenings(List.of(7L));
+
+        // then
+        assertThat(ticketValidationService.cachedScreeningIds()).isEmpty();
+        assertThat(ticketValidationService.validate("TOKEN", 7L).getStatus()).isEqualTo(TicketValidationStatus.VALID);
+    }
+
+    @Test
+    @DisplayName("Should reject a token with a bad signature")
+    void shouldRejectInvalidToken() {
+        // given
+        when(ticketTokenService.verify("FORGED")).thenReturn(Optional.empty());
+
+        // when
+        TicketValidationResponseDTO result = ticketValidationService.validate("FORGED", null);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(TicketValidationStatus.INVALID);
+        assertThat(result.getTicketId()).isNull();
+        verifyNoInteractions(seatStateService);
+    }
+
+    @Test
+    @DisplayName("Should reject a ticket for another screening")
+    void shouldRejectWrongScreening() {
+        // given
+        when(ticketTokenService.verify("TOKEN")).thenReturn(Optional.of(token));
+
+        // when
+        TicketValidationResponseDTO result = ticketValidationService.validate("TOKEN", 8L);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(TicketValidationStatus.WRONG_SCREENING);
+        verifyNoInteractions(seatStateService);
+    }
+
+    @Test
+    @DisplayName("Should reject a ticket whose seat is no longer sold")
+    void shouldRejectUnsoldSeat() {
+        // given
+        when(ticketTokenService.verify("TOKEN")).thenReturn(Optional.of(token));
+        when(seatStateService.soldSeatIndex(7L, 3L)).thenReturn(-1);
+
+        // when
+        TicketValidationResponseDTO result = ticketValidationService.validate("TOKEN", null);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(TicketValidationStatus.INVALID);
+    }
+}